@@ -0,0 +1,23 @@
+package com.backbase;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Entry point of benchmarks.jar. Takes the usual JMH command line (e.g. a benchmark name pattern) and always adds
+ * the GC profiler, so every run reports allocations per operation next to throughput and average time.
+ */
+public class KalahBenchmarks {
+    public static void main(String args[]) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
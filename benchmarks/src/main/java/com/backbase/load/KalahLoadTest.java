@@ -0,0 +1,145 @@
+package com.backbase.load;
+
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Load test of a running application, to compare the blocking stack (default) with the reactive stack
+ * (spring.main.web-application-type=reactive) on the same machine and DB.
+ * Plays the given number of games at the same time from a non blocking client, each game making random legal moves
+ * with the given think time between moves until it has a winner, and then deletes it. Reports games and moves per
+ * second, latency percentiles of the requests and the failed requests.
+ * Usage: java -cp target/benchmarks.jar com.backbase.load.KalahLoadTest [baseUrl] [games] [thinkMillis] [connections]
+ */
+public class KalahLoadTest {
+
+    private static final int PITS_PER_PLAYER = 6;
+
+    private static final int MAX_LATENCY_MILLIS = 60000;
+
+    private final WebClient client;
+
+    private final AtomicLongArray latencyMillis = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    private final AtomicLong moves = new AtomicLong();
+
+    private final AtomicInteger finishedGames = new AtomicInteger();
+
+    private final AtomicInteger activeGames = new AtomicInteger();
+
+    private final AtomicInteger peakActiveGames = new AtomicInteger();
+
+    private KalahLoadTest(String baseUrl, int connections) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("kalah-load-test")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+        this.client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    public static void main(String args[]) {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long thinkMillis = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : games;
+        new KalahLoadTest(baseUrl, connections).run(games, Duration.ofMillis(thinkMillis));
+    }
+
+    private void run(int games, Duration thinkTime) {
+        long startedAt = System.nanoTime();
+        Flux.range(0, games)
+                .flatMap(game -> playGame(thinkTime), games)
+                .blockLast();
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        System.out.printf("games %d finished %d peak concurrent %d in %.1f s%n", games, finishedGames.get(), peakActiveGames.get(), elapsedSeconds);
+        System.out.printf("moves %d (%.0f moves/s), requests %d (%.0f requests/s), failed requests %d%n",
+                moves.get(), moves.get() / elapsedSeconds, requests.get(), requests.get() / elapsedSeconds, failedRequests.get());
+        System.out.printf("latency ms p50 %d p90 %d p99 %d p99.9 %d max %d%n",
+                percentile(0.5), percentile(0.9), percentile(0.99), percentile(0.999), percentile(1.0));
+    }
+
+    /**
+     * Starts a game and plays it to the end, one move after the other.
+     */
+    private Mono<Void> playGame(Duration thinkTime) {
+        return timed(client.post().uri("/games").retrieve().bodyToMono(Map.class))
+                .doOnNext(game -> peakActiveGames.accumulateAndGet(activeGames.incrementAndGet(), Math::max))
+                .flatMap(newGame -> Mono.just(newGame)
+                        .expand(game -> game.get("winnerPlayer") != null ? Mono.empty()
+                                : Mono.delay(thinkTime).then(makeMove(game)))
+                        .then(timed(client.delete().uri("/games/{gameId}", newGame.get("id")).retrieve().bodyToMono(Void.class)))
+                        .doOnSuccess(deleted -> finishedGames.incrementAndGet())
+                        .doFinally(signal -> activeGames.decrementAndGet()))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Map> makeMove(Map game) {
+        return timed(client.put().uri("/games/{gameId}/pits/{pitId}", game.get("id"), pickLegalPit(game))
+                .retrieve().bodyToMono(Map.class))
+                .doOnNext(playedGame -> moves.incrementAndGet());
+    }
+
+    /**
+     * Random pit of the next player that has stones, read from the status {1=6, 2=6, ..., 14=0} of the game.
+     */
+    private int pickLegalPit(Map game) {
+        String[] pits = ((String) game.get("status")).replace("{", "").replace("}", "").split(",");
+        int firstPitId = "PLAYER2".equals(game.get("nextPlayer")) ? PITS_PER_PLAYER + 2 : 1;
+        List<Integer> legalPitIds = new ArrayList<>(PITS_PER_PLAYER);
+        for (int pitId = firstPitId; pitId < firstPitId + PITS_PER_PLAYER; pitId++) {
+            if (Integer.parseInt(pits[pitId - 1].split("=")[1].trim()) > 0) {
+                legalPitIds.add(pitId);
+            }
+        }
+        return legalPitIds.get(ThreadLocalRandom.current().nextInt(legalPitIds.size()));
+    }
+
+    private <T> Mono<T> timed(Mono<T> request) {
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            return request.doOnEach(signal -> {
+                if (signal.isOnComplete() || signal.isOnError()) {
+                    requests.incrementAndGet();
+                    latencyMillis.incrementAndGet((int) Math.min((System.nanoTime() - startedAt) / 1000000, MAX_LATENCY_MILLIS));
+                }
+                if (signal.isOnError()) {
+                    failedRequests.incrementAndGet();
+                }
+            });
+        });
+    }
+
+    private long percentile(double percentile) {
+        long target = (long) Math.ceil(requests.get() * percentile);
+        long seen = 0;
+        for (int millis = 0; millis <= MAX_LATENCY_MILLIS; millis++) {
+            seen += latencyMillis.get(millis);
+            if (seen >= target && seen > 0) {
+                return millis;
+            }
+        }
+        return MAX_LATENCY_MILLIS;
+    }
+}
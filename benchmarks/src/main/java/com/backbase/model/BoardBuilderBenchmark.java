@@ -0,0 +1,70 @@
+package com.backbase.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmarks of the board builders used when a game is created, and of the conversion between the
+ * {@link Entity} view and the compact {@link Board}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardBuilderBenchmark {
+
+    private List<Entity> entities;
+
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        entities = kalahBoardBuilder();
+        board = Board.fromEntities(entities);
+    }
+
+    @Benchmark
+    public List<Entity> pitBuilder() {
+        return new Pit.PitBuilder()
+                .ownerPlayer(Player.PLAYER1)
+                .initialStones(6)
+                .build();
+    }
+
+    @Benchmark
+    public List<Entity> kalahBoardBuilder() {
+        List<Entity> boardEntity = new Kalah.KalahBoardBuilder()
+                .ownerPlayer(Player.PLAYER1)
+                .initialStones(6)
+                .build();
+        boardEntity.addAll(new Kalah.KalahBoardBuilder()
+                .ownerPlayer(Player.PLAYER2)
+                .initialStones(6)
+                .build());
+        return boardEntity;
+    }
+
+    @Benchmark
+    public Board boardFromEntities() {
+        return Board.fromEntities(entities);
+    }
+
+    @Benchmark
+    public List<Entity> boardToEntities() {
+        return board.toEntities();
+    }
+}
@@ -0,0 +1,69 @@
+package com.backbase.model;
+
+import com.backbase.controller.GameJsonSerializer;
+import com.backbase.service.KalahMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmarks of the Jackson serialization of {@link Game}, as done for every REST response: the bean serialization
+ * of Game against the streaming {@link GameJsonSerializer}, with and without the structured status.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ObjectMapper streamingObjectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(Game.class, new GameJsonSerializer(false, new KalahMetrics(new SimpleMeterRegistry()))));
+
+    private final ObjectMapper structuredObjectMapper = new ObjectMapper()
+            .registerModule(new SimpleModule().addSerializer(Game.class, new GameJsonSerializer(true, new KalahMetrics(new SimpleMeterRegistry()))));
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        game = new Game("bEnCh1", Board.withInitialStones(6), Player.PLAYER2, "http://localhost:8080/games/");
+    }
+
+    @Benchmark
+    public byte[] serializeGame() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public byte[] serializeGame_streaming() throws JsonProcessingException {
+        return streamingObjectMapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public byte[] serializeGame_streamingStructured() throws JsonProcessingException {
+        return structuredObjectMapper.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public String status() {
+        return game.getStatus();
+    }
+}
@@ -0,0 +1,123 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.Entity;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmarks of the Mongo storage of a {@link Game}, as done for every save and every read from DB: mapping the game
+ * to a BSON document and back, with the packed board of {@link BoardConverters} against the legacy Pit/Kalah
+ * sub-documents. The BSON size of both documents is printed on set up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameDocumentBenchmark {
+
+    private final DocumentCodec documentCodec = new DocumentCodec();
+
+    private MappingMongoConverter converter;
+
+    private Game game;
+
+    private byte[] packedBson;
+
+    private byte[] legacyBson;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(BoardConverters.converters());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Board board = Board.withInitialStones(6);
+        board.sow(2, Player.PLAYER1);
+        game = new Game("07mEJAPxgfo", board, Player.PLAYER2, "http://localhost:8080/games/");
+        game.setMoveSequence(1);
+        game.setVersion(2);
+        packedBson = writeGame_packed();
+        legacyBson = writeGame_legacy();
+        System.out.println("Game document BSON bytes : packed " + packedBson.length + ", legacy " + legacyBson.length);
+    }
+
+    @Benchmark
+    public byte[] writeGame_packed() {
+        Document document = new Document();
+        converter.write(game, document);
+        return toBson(document);
+    }
+
+    /**
+     * The document as written before the packed board: the board as Pit/Kalah sub-documents with their class.
+     */
+    @Benchmark
+    public byte[] writeGame_legacy() {
+        Document document = new Document();
+        converter.write(game, document);
+        document.remove("board");
+        List<Document> currentGameStats = new ArrayList<>(Board.SIZE);
+        for (Entity entity : game.getCurrentGameStats()) {
+            currentGameStats.add(new Document("entityCount", entity.getEntityCount())
+                    .append("ownerPlayer", entity.getOwnerPlayer().name())
+                    .append("_class", entity.getClass().getName()));
+        }
+        document.put(LegacyGameMigration.LEGACY_BOARD_FIELD, currentGameStats);
+        return toBson(document);
+    }
+
+    @Benchmark
+    public Game readGame_packed() {
+        return converter.read(Game.class, fromBson(packedBson));
+    }
+
+    @Benchmark
+    public Game readGame_legacy() {
+        Game legacyGame = converter.read(Game.class, fromBson(legacyBson));
+        legacyGame.migrateLegacyBoard();
+        return legacyGame;
+    }
+
+    private byte[] toBson(Document document) {
+        RawBsonDocument bson = new RawBsonDocument(document, documentCodec);
+        byte[] bytes = new byte[bson.getByteBuffer().remaining()];
+        bson.getByteBuffer().get(bytes);
+        return bytes;
+    }
+
+    private Document fromBson(byte[] bson) {
+        return documentCodec.decode(new BsonBinaryReader(ByteBuffer.wrap(bson)), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Stubbed out repositories for benchmarks. Games are kept in a map so that only the game engine and the in-process
+ * cache are measured, not MongoDB.
+ */
+public final class InMemoryRespositories {
+
+    private InMemoryRespositories() {
+    }
+
+    /**
+     * @param persistenceMode - DOCUMENT or JOURNAL persistence of moves.
+     * @return cache wired as in the application, writing through to in-memory repositories.
+     */
+    public static KalahGameCache gameCache(KalahMoveJournal.PersistenceMode persistenceMode) {
+        KalahMoveJournal kalahMoveJournal = new KalahMoveJournal();
+        kalahMoveJournal.kalahRespository = kalahRespository();
+        kalahMoveJournal.kalahMoveRepository = kalahMoveRepository();
+        kalahMoveJournal.persistenceMode = persistenceMode;
+        kalahMoveJournal.snapshotMoves = 20;
+        kalahMoveJournal.expirySeconds = 604800;
+        KalahGameCache kalahGameCache = new KalahGameCache();
+        kalahGameCache.kalahRespository = kalahMoveJournal.kalahRespository;
+        kalahGameCache.kalahMoveJournal = kalahMoveJournal;
+        kalahGameCache.maxGames = 10000;
+        kalahGameCache.durability = KalahGameCache.Durability.WRITE_THROUGH;
+        return kalahGameCache;
+    }
+
+    public static KalahRespository kalahRespository() {
+        Map<String, Game> games = new ConcurrentHashMap<>();
+        return (KalahRespository) Proxy.newProxyInstance(KalahRespository.class.getClassLoader(), new Class[]{KalahRespository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                        case "saveMove":
+                            games.put(((Game) args[0]).getId(), (Game) args[0]);
+                            return args[0];
+                        case "saveAll":
+                        case "insert":
+                            for (Object game : (Iterable<?>) args[0]) {
+                                games.put(((Game) game).getId(), (Game) game);
+                            }
+                            return args[0];
+                        case "findById":
+                            return Optional.ofNullable(games.get(args[0]));
+                        case "deleteById":
+                            games.remove(args[0]);
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    public static KalahMoveRepository kalahMoveRepository() {
+        return (KalahMoveRepository) Proxy.newProxyInstance(KalahMoveRepository.class.getClassLoader(), new Class[]{KalahMoveRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "insert":
+                            return args[0];
+                        case "deleteByGameId":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
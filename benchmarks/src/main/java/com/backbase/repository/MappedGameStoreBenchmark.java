@@ -0,0 +1,86 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmarks of the {@link MappedGameStore} holding a number of resident games: reading a game by id and writing a
+ * move of a game (saveMove), each on a game picked in turn over all of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedGameStoreBenchmark {
+
+    @Param({"1000000"})
+    int games;
+
+    private Path file;
+
+    private MappedGameStore store;
+
+    private String[] gameIds;
+
+    private Game[] movedGames;
+
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("kalah-games", ".store");
+        store = MappedGameStore.open(file, games, "http://localhost:8080/games/");
+        gameIds = new String[games];
+        movedGames = new Game[1024];
+        for (int game = 0; game < games; game++) {
+            gameIds[game] = String.format("g%010d", game);
+            store.insert(new Game(gameIds[game], Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/"));
+        }
+        for (int game = 0; game < movedGames.length; game++) {
+            Board board = Board.withInitialStones(6);
+            board.sow(2, Player.PLAYER1);
+            movedGames[game] = new Game(gameIds[game * (games / movedGames.length)], board, Player.PLAYER2, "http://localhost:8080/games/");
+            movedGames[game].setMoveSequence(1);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public Game findGame() {
+        next = (next + 7919) % games;
+        return store.find(gameIds[next]);
+    }
+
+    @Benchmark
+    public boolean saveMove() {
+        Game game = movedGames[next++ & (movedGames.length - 1)];
+        game.setVersion(game.getVersion() + 1);
+        return store.saveIfNewer(game);
+    }
+}
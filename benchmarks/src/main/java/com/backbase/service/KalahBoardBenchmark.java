@@ -0,0 +1,130 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Entity;
+import com.backbase.model.Game;
+import com.backbase.model.Pit;
+import com.backbase.model.Player;
+import com.backbase.repository.InMemoryRespositories;
+import com.backbase.repository.KalahMoveJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmarks of the move path of {@link KalahBoard} with the repositories stubbed out, and of the winner check.
+ * Moves are played as a continuous sequence of pseudo random legal moves; a finished game is replaced by a new one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KalahBoardBenchmark {
+
+    @Param({"6", "60"})
+    int initialStones;
+
+    @Param({"DOCUMENT", "JOURNAL"})
+    KalahMoveJournal.PersistenceMode persistenceMode;
+
+    private KalahBoard kalahBoard;
+
+    private String gameId;
+
+    private int nextPitId;
+
+    private int seed = 42;
+
+    private Board midGameBoard;
+
+    private Board endGameBoard;
+
+    @Setup
+    public void setUp() {
+        kalahBoard = new KalahBoard();
+        kalahBoard.kalahGameCache = InMemoryRespositories.gameCache(persistenceMode);
+        kalahBoard.initialStones = initialStones;
+        kalahBoard.initialPits = Board.PITS_PER_PLAYER;
+        kalahBoard.kalahApplicationEndPoint = "http://localhost:8080/games/";
+        kalahBoard.moveRetries = 0;
+        kalahBoard.gameIdGenerator = new GameIdGenerator();
+        kalahBoard.gameIdGenerator.nodeId = 0;
+        kalahBoard.kalahGameEvents = new KalahGameEvents();
+        kalahBoard.kalahMetrics = new KalahMetrics(new SimpleMeterRegistry());
+        startNewGame();
+
+        Game game = new Game("benchmark", Board.withInitialStones(initialStones), Player.ANY, "http://localhost:8080/games/");
+        for (int move = 0; move < 4 && game.getWinnerPlayer() == null; move++) {
+            KalahRules.applyMove(game, pickLegalPit(game));
+        }
+        midGameBoard = game.getBoard();
+        // Player 1 is out of stones, Player 2 sweeps the pits into the Kalah/House.
+        List<Entity> endGameEntities = Board.withInitialStones(initialStones).toEntities();
+        for (int pitIndex = 0; pitIndex < Board.PITS_PER_PLAYER; pitIndex++) {
+            ((Pit) endGameEntities.get(pitIndex)).setEntityCount(0);
+        }
+        endGameBoard = Board.fromEntities(endGameEntities);
+    }
+
+    @Benchmark
+    public Game makeMyMove() {
+        Game game = kalahBoard.makeMyMove(gameId, nextPitId);
+        if (game.getWinnerPlayer() != null) {
+            startNewGame();
+        } else {
+            nextPitId = pickLegalPit(game);
+        }
+        return game;
+    }
+
+    @Benchmark
+    public Player doWeHaveAWinner_midGame() {
+        return KalahRules.doWeHaveAWinner(midGameBoard);
+    }
+
+    /**
+     * The end of game sweep empties the board, so it runs on a copy; the copy is part of the measured cost.
+     */
+    @Benchmark
+    public Player doWeHaveAWinner_endGame() {
+        return KalahRules.doWeHaveAWinner(endGameBoard.copy());
+    }
+
+    private void startNewGame() {
+        Game game = kalahBoard.initializeNewBoardGame();
+        gameId = game.getId();
+        nextPitId = pickLegalPit(game);
+    }
+
+    /**
+     * Pseudo random non empty pit of the next player, so that the benchmark walks through varied positions.
+     */
+    private int pickLegalPit(Game game) {
+        Player player = KalahRules.currentPlayer(game);
+        int firstPit = player == Player.PLAYER1 ? 0 : Board.PLAYER1_KALAH + 1;
+        seed = seed * 1103515245 + 12345;
+        int offset = (seed >>> 16) % Board.PITS_PER_PLAYER;
+        for (int i = 0; i < Board.PITS_PER_PLAYER; i++) {
+            int pitIndex = firstPit + (offset + i) % Board.PITS_PER_PLAYER;
+            if (game.getBoard().stones(pitIndex) != 0) {
+                return pitIndex + 1;
+            }
+        }
+        throw new IllegalStateException("No legal move left on " + game.getBoard());
+    }
+}
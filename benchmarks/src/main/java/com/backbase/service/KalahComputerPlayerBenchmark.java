@@ -0,0 +1,103 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Benchmark of the search of {@link KalahComputerPlayer} on a mid game position, at a fixed depth so that every
+ * operation does the same work. Next to searches per second it reports the positions searched per second ("nodes").
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KalahComputerPlayerBenchmark {
+
+    @Param({"6", "60"})
+    int initialStones;
+
+    @Param({"1", "4"})
+    int searchThreads;
+
+    @Param({"8"})
+    int depth;
+
+    private KalahComputerPlayer kalahComputerPlayer;
+
+    private Board midGameBoard;
+
+    private Player playerToMove;
+
+    /**
+     * Positions searched, reported by JMH per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class SearchedNodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        kalahComputerPlayer = new KalahComputerPlayer();
+        kalahComputerPlayer.moveMillis = 60000L;
+        kalahComputerPlayer.maxDepth = depth;
+        kalahComputerPlayer.searchThreads = searchThreads;
+        kalahComputerPlayer.tableBits = 20;
+        kalahComputerPlayer.kalahEndgameTables = new KalahEndgameTables();
+        kalahComputerPlayer.startSearchPool();
+
+        Game game = new Game("benchmark", Board.withInitialStones(initialStones), Player.ANY, "http://localhost:8080/games/");
+        // Same opening for every run: the rightmost non empty pit of the player to move.
+        for (int move = 0; move < 4 && game.getWinnerPlayer() == null; move++) {
+            Player player = KalahRules.currentPlayer(game);
+            int pitIndex = Board.kalahOf(player) - 1;
+            while (game.getBoard().stones(pitIndex) == 0) {
+                pitIndex--;
+            }
+            KalahRules.applyMove(game, pitIndex + 1);
+        }
+        midGameBoard = game.getBoard();
+        playerToMove = KalahRules.currentPlayer(game);
+    }
+
+    @TearDown
+    public void tearDown() {
+        kalahComputerPlayer.stopSearchPool();
+    }
+
+    /**
+     * The transposition table is kept between operations, as it is between the moves of a game.
+     */
+    @Benchmark
+    public int search(SearchedNodes searchedNodes) {
+        KalahComputerPlayer.Search search = kalahComputerPlayer.search(midGameBoard, playerToMove, depth, 60000L);
+        searchedNodes.nodes += search.getNodes();
+        return search.getPitId();
+    }
+}
@@ -2,12 +2,14 @@ package com.backbase;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author nandk on 06/03/2021.
  * Main Spring boot application
  */
 @SpringBootApplication
+@EnableScheduling
 public class GameOnApplication {
     public static void main(String args[]){
         SpringApplication.run(GameOnApplication.class,args);
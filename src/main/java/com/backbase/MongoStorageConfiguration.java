@@ -0,0 +1,20 @@
+package com.backbase;
+
+import com.backbase.repository.BoardConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Storage format of games in Mongo, shared by the blocking and the reactive repositories: the board is stored as its
+ * packed stones, see {@link BoardConverters}.
+ */
+@Configuration
+public class MongoStorageConfiguration {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(BoardConverters.converters());
+    }
+}
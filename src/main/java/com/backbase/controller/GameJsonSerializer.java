@@ -0,0 +1,84 @@
+package com.backbase.controller;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.backbase.service.KalahMetrics;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Streaming JSON writer of {@link Game} for every REST response. Writes the same fields as the bean serialization
+ * of Game, but the status is written straight from the {@link Board} into the response stream from a per thread
+ * buffer, without building a Map or a String first.
+ * With application.kalah.status.structured=true a structured "pits" object (pitId to number of stones, as numbers)
+ * is written next to the readable status.
+ * Every write is timed as kalah.board.serialization.
+ */
+@JsonComponent
+public class GameJsonSerializer extends JsonSerializer<Game> {
+
+    private static final String[] PIT_IDS = new String[BoardGeometry.MAX_SIZE];
+
+    static {
+        for (int index = 0; index < BoardGeometry.MAX_SIZE; index++) {
+            PIT_IDS[index] = String.valueOf(index + 1);
+        }
+    }
+
+    private static final ThreadLocal<char[]> STATUS_BUFFER = ThreadLocal.withInitial(() -> new char[BoardGeometry.MAX_STATUS_LENGTH]);
+
+    private final boolean structuredStatus;
+
+    private final KalahMetrics kalahMetrics;
+
+    public GameJsonSerializer(@Value("${application.kalah.status.structured}") boolean structuredStatus, KalahMetrics kalahMetrics) {
+        this.structuredStatus = structuredStatus;
+        this.kalahMetrics = kalahMetrics;
+    }
+
+    @Override
+    public void serialize(Game game, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        long startedAt = kalahMetrics.start();
+        generator.writeStartObject();
+        generator.writeStringField("id", game.getId());
+        generator.writeStringField("url", game.getUrl());
+        Board board = game.getBoard();
+        if (board != null) {
+            char[] status = STATUS_BUFFER.get();
+            generator.writeFieldName("status");
+            generator.writeString(status, 0, board.writeStatus(status));
+            if (structuredStatus) {
+                generator.writeObjectFieldStart("pits");
+                for (int index = 0; index < board.getGeometry().size(); index++) {
+                    generator.writeNumberField(PIT_IDS[index], board.stones(index));
+                }
+                generator.writeEndObject();
+            }
+        }
+        writePlayer(generator, "nextPlayer", game.getNextPlayer());
+        if (game.getWinnerPlayer() != null) {
+            writePlayer(generator, "winnerPlayer", game.getWinnerPlayer());
+        }
+        if (game.getComputerPlayer() != null) {
+            writePlayer(generator, "computerPlayer", game.getComputerPlayer());
+        }
+        generator.writeEndObject();
+        kalahMetrics.boardSerialized(startedAt);
+    }
+
+    private void writePlayer(JsonGenerator generator, String fieldName, Player player) throws IOException {
+        if (player == null) {
+            generator.writeNullField(fieldName);
+        } else {
+            generator.writeStringField(fieldName, player.name());
+        }
+    }
+}
@@ -1,46 +1,136 @@
 package com.backbase.controller;
 
+import com.backbase.exception.KalahValidationException;
 import com.backbase.model.Game;
+import com.backbase.model.MoveBatchResponse;
+import com.backbase.model.MovePreview;
+import com.backbase.repository.KalahGameExporter;
 import com.backbase.service.KalahBoard;
+import com.backbase.service.KalahGameEvents;
+import com.backbase.service.KalahIdempotentMoves;
+import com.backbase.service.KalahMoveMailboxes;
+import com.backbase.service.KalahRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @author nandk on 06/03/2021.
  * Controller class that intercepts all "/games" requests for multiple Http Resquest type
+ * Serves the default, servlet stack. The reactive stack is served by {@link ReactiveKalahBoardController}.
  */
 @RestController
 @RequestMapping(value = "/games")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class KalahBoardController {
 
     @Resource
     KalahBoard kalahBoard;
 
+    @Resource
+    KalahMoveMailboxes kalahMoveMailboxes;
+
+    @Resource
+    KalahGameEvents kalahGameEvents;
+
+    /**
+     * Absent on the mapped game store, which runs without MongoDB.
+     */
+    @Autowired(required = false)
+    KalahGameExporter kalahGameExporter;
+
+    @Resource
+    KalahIdempotentMoves kalahIdempotentMoves;
+
+    @Value("${application.kalah.events.timeout.millis}")
+    Long eventsTimeoutMillis;
+
+    @Value("${application.kalah.events.subscriber.buffer}")
+    Integer subscriberBuffer;
+
     /**
      * POST call made while starting a new game with Player.PLAYER1 and Player.PLAYER2
+     * @param opponent - human (default), or computer to play against the computer as Player.PLAYER1.
+     * @param pits - pits per player, 4 to 10, application.kalah.initialize.pits by default.
      * @return Game object that contains board parameters and initial stone sets.
      */
     @PostMapping
-    public Game startNewBoardGame(){
-        return kalahBoard.initializeNewBoardGame();
+    public Game startNewBoardGame(@RequestParam(value = "opponent", required = false) String opponent,
+                                  @RequestParam(value = "pits", required = false) Integer pits){
+        return kalahBoard.initializeNewBoardGame(opponent, pits);
+    }
+
+    /**
+     * POST call made while starting many new games at once, e.g. for a tournament.
+     * @param count - number of games to start, at most application.kalah.bulk.max.games.
+     * @param pits - pits per player of every game, 4 to 10, application.kalah.initialize.pits by default.
+     * @return Game objects of the new games, each with board parameters and initial stone sets.
+     */
+    @PostMapping(value = "/bulk")
+    public List<Game> startNewBoardGames(@RequestParam("count") Integer count,
+                                         @RequestParam(value = "pits", required = false) Integer pits){
+        return kalahBoard.initializeNewBoardGames(count, pits);
     }
 
     /**
      * PUT call made while making a move on the Kalah Board. Move can be made by either player
+     * The move is queued in the mailbox of the game and answered asynchronously, so the request thread is not held
+     * while the move waits for DB and moves of the same game are played one after the other.
+     * A move retried with the same Idempotency-Key header is only played once, see {@link KalahIdempotentMoves}.
      * @param gameId - gameId initilised .
      * @param pitId - pit picked for the move.
+     * @param idempotencyKey - optional key of the move, e.g. a UUID, the same on every retry of the request.
      * @return Game object that contains board parameters post the move was completed.
      */
     @PutMapping(value = "/{gameId}/pits/{pitId}")
-    public Game makeMyMove(@PathVariable("gameId") String gameId, @PathVariable("pitId") Integer pitId){
-        return kalahBoard.makeMyMove(gameId, pitId);
+    public CompletableFuture<Game> makeMyMove(@PathVariable("gameId") String gameId, @PathVariable("pitId") Integer pitId,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        return kalahIdempotentMoves.submit(idempotencyKey, gameId, Collections.singletonList(pitId),
+                () -> kalahMoveMailboxes.submit(gameId, () -> kalahBoard.makeMyMove(gameId, pitId)));
+    }
+
+    /**
+     * PUT call to make several moves on the Kalah Board in one request, e.g. a turn with extra moves.
+     * Moves are played in the given order up to the first move that is not valid and the game is saved once.
+     * @param gameId - gameId initilised .
+     * @param pitIds - JSON array of the pits picked for the moves, in order. e.g. [3,1]
+     * @param idempotencyKey - optional key of the moves, as for a single move.
+     * @return the Game after the moves, the number of moves applied and why the batch stopped if it stopped early.
+     */
+    @PutMapping(value = "/{gameId}/pits")
+    public CompletableFuture<MoveBatchResponse> makeMyMoves(@PathVariable("gameId") String gameId, @RequestBody List<Integer> pitIds,
+                                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        return kalahIdempotentMoves.submit(idempotencyKey, gameId, pitIds,
+                () -> kalahMoveMailboxes.submit(gameId, () -> kalahBoard.makeMyMoves(gameId, pitIds)));
     }
 
     /**
@@ -53,6 +143,89 @@ public class KalahBoardController {
         return kalahBoard.fetchKalahBoardForGameId(gameId);
     }
 
+    /**
+     * GET call to preview the moves of the player to move: for each of his/her pits whether the move is legal, the
+     * board after it, extra turn, capture and whether it ends the game. Worked out from one read of the game.
+     * The response carries the version of the game as ETag; sent back as If-None-Match it is answered with 304 Not
+     * Modified, without working the moves out again, until the next move.
+     * @param gameId - gameId of the game.
+     * @return outcome of the move from every pit of the player to move.
+     */
+    @GetMapping(value = "/{gameId}/moves")
+    public ResponseEntity<MovePreview> previewMoves(@PathVariable("gameId") String gameId, WebRequest webRequest){
+        Game game = kalahBoard.fetchKalahBoardForGameId(gameId);
+        String previewTag = KalahBoard.previewTag(game);
+        if (webRequest.checkNotModified(previewTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(previewTag).cacheControl(CacheControl.noCache().cachePrivate())
+                .body(KalahRules.previewMoves(game));
+    }
+
+    /**
+     * GET call to follow a game as Server-Sent Events, instead of polling it. The current board is sent first and then
+     * every new board once its move is saved, each as an SSE event with the version of the game as id and the Game
+     * JSON as data. The stream ends once the game has a winner or is deleted, or after application.kalah.events.timeout.millis.
+     * Frames are written with non-blocking servlet output, see {@link ServletFrameSink}, so a slow client never holds
+     * up the threads sending the frames of the other subscribers.
+     * @param gameId - gameId to follow.
+     * @param request - the response is completed asynchronously once the stream ends.
+     * @param response - text/event-stream of the boards of the game.
+     */
+    @GetMapping(value = "/{gameId}/events")
+    public void followKalahBoard(@PathVariable("gameId") String gameId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ServletFrameSink sink = new ServletFrameSink(subscriberBuffer);
+        Object subscription = kalahGameEvents.subscribe(gameId, sink);
+        Game game;
+        try {
+            game = kalahBoard.fetchKalahBoardForGameId(gameId);
+        } catch (RuntimeException e) {
+            kalahGameEvents.unsubscribe(subscription);
+            throw e;
+        }
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        sink.start(request.startAsync(), eventsTimeoutMillis, () -> kalahGameEvents.unsubscribe(subscription));
+        kalahGameEvents.sendCurrent(subscription, game);
+    }
+
+    /**
+     * GET call to export the stored games for analytics as NDJSON, one game per line in game id order, streamed
+     * from a DB cursor a batch at a time. A failed export is resumed with after set to the id of the last game received.
+     * @param status - all (default), finished or active games.
+     * @param from - earliest last activity, ISO date time, inclusive.
+     * @param to - latest last activity, ISO date time, exclusive.
+     * @param after - id of the game to resume the export after.
+     * @param gzip - true to gzip the response (Content-Encoding: gzip).
+     * @return application/x-ndjson of the games.
+     */
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportKalahBoards(@RequestParam(value = "status", required = false) String status,
+                                                                   @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                                                   @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "gzip", required = false) boolean gzip){
+        if (kalahGameExporter == null) {
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_EXPORT, "Games are exported from MongoDB, not from the mapped game store");
+        }
+        // Validated before the response starts, so that a bad request is still answered as one.
+        Query games = KalahGameExporter.query(status, from, to, after);
+        StreamingResponseBody body = responseStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(responseStream, 65536, true) : responseStream;
+            kalahGameExporter.export(games, (batch, lastGameId) -> {
+                batch.writeTo(out);
+                out.flush();
+            });
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     /**
      * DELETE call to remove a game.
      * @param gameId - gameId to be removed.
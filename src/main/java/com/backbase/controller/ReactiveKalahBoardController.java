@@ -0,0 +1,186 @@
+package com.backbase.controller;
+
+import com.backbase.model.Game;
+import com.backbase.model.MoveBatchResponse;
+import com.backbase.model.MovePreview;
+import com.backbase.repository.KalahGameExporter;
+import com.backbase.service.KalahBoard;
+import com.backbase.service.KalahGameEvents;
+import com.backbase.service.KalahIdempotentMoves;
+import com.backbase.service.KalahRules;
+import com.backbase.service.ReactiveKalahBoard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * @author nandk on 18/10/2026.
+ * WebFlux controller of the reactive stack, opted into with spring.main.web-application-type=reactive.
+ * Mirrors every "/games" endpoint of {@link KalahBoardController} with the same requests and responses, served on
+ * a few event loop threads.
+ */
+@RestController
+@RequestMapping(value = "/games")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveKalahBoardController {
+
+    @Resource
+    ReactiveKalahBoard reactiveKalahBoard;
+
+    @Resource
+    KalahGameEvents kalahGameEvents;
+
+    @Resource
+    KalahIdempotentMoves kalahIdempotentMoves;
+
+    @Value("${application.kalah.events.subscriber.buffer}")
+    Integer subscriberBuffer;
+
+    @Value("${application.kalah.events.timeout.millis}")
+    Long eventsTimeoutMillis;
+
+    /**
+     * @see KalahBoardController#startNewBoardGame(String, Integer)
+     */
+    @PostMapping
+    public Mono<Game> startNewBoardGame(@RequestParam(value = "opponent", required = false) String opponent,
+                                        @RequestParam(value = "pits", required = false) Integer pits){
+        return reactiveKalahBoard.initializeNewBoardGame(opponent, pits);
+    }
+
+    /**
+     * @see KalahBoardController#startNewBoardGames(Integer, Integer)
+     */
+    @PostMapping(value = "/bulk")
+    public Flux<Game> startNewBoardGames(@RequestParam("count") Integer count,
+                                         @RequestParam(value = "pits", required = false) Integer pits){
+        return reactiveKalahBoard.initializeNewBoardGames(count, pits);
+    }
+
+    /**
+     * @see KalahBoardController#makeMyMove(String, Integer, String)
+     */
+    @PutMapping(value = "/{gameId}/pits/{pitId}")
+    public Mono<Game> makeMyMove(@PathVariable("gameId") String gameId, @PathVariable("pitId") Integer pitId,
+                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        if (idempotencyKey == null) {
+            return reactiveKalahBoard.makeMyMove(gameId, pitId);
+        }
+        return Mono.defer(() -> Mono.fromFuture(kalahIdempotentMoves.submit(idempotencyKey, gameId, Collections.singletonList(pitId),
+                () -> reactiveKalahBoard.makeMyMove(gameId, pitId).toFuture())));
+    }
+
+    /**
+     * @see KalahBoardController#makeMyMoves(String, List, String)
+     */
+    @PutMapping(value = "/{gameId}/pits")
+    public Mono<MoveBatchResponse> makeMyMoves(@PathVariable("gameId") String gameId, @RequestBody List<Integer> pitIds,
+                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey){
+        if (idempotencyKey == null) {
+            return reactiveKalahBoard.makeMyMoves(gameId, pitIds);
+        }
+        return Mono.defer(() -> Mono.fromFuture(kalahIdempotentMoves.submit(idempotencyKey, gameId, pitIds,
+                () -> reactiveKalahBoard.makeMyMoves(gameId, pitIds).toFuture())));
+    }
+
+    /**
+     * @see KalahBoardController#getKalahBoard(String)
+     */
+    @GetMapping(value = "/{gameId}")
+    public Mono<Game> getKalahBoard(@PathVariable("gameId") String gameId){
+        return reactiveKalahBoard.fetchKalahBoardForGameId(gameId);
+    }
+
+    /**
+     * @see KalahBoardController#previewMoves(String, org.springframework.web.context.request.WebRequest)
+     */
+    @GetMapping(value = "/{gameId}/moves")
+    public Mono<ResponseEntity<MovePreview>> previewMoves(@PathVariable("gameId") String gameId, ServerWebExchange exchange){
+        return reactiveKalahBoard.fetchKalahBoardForGameId(gameId).map(game -> {
+            String previewTag = KalahBoard.previewTag(game);
+            if (exchange.checkNotModified(previewTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(previewTag).<MovePreview>build();
+            }
+            return ResponseEntity.ok().eTag(previewTag).cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(KalahRules.previewMoves(game));
+        });
+    }
+
+    /**
+     * Frames are handed to the connection without blocking, up to application.kalah.events.subscriber.buffer frames
+     * ahead of what the client has read; a client further behind is disconnected.
+     * @see KalahBoardController#followKalahBoard(String)
+     */
+    @GetMapping(value = "/{gameId}/events")
+    public ResponseEntity<Flux<DataBuffer>> followKalahBoard(@PathVariable("gameId") String gameId){
+        Sinks.Many<DataBuffer> frames = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(subscriberBuffer));
+        Object subscription = kalahGameEvents.subscribe(gameId, new KalahGameEvents.FrameSink() {
+            @Override
+            public boolean send(byte[] frame) {
+                // Wraps the shared bytes of the frame, nothing is copied per subscriber.
+                return frames.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap(frame)).isSuccess();
+            }
+
+            @Override
+            public void close() {
+                frames.tryEmitComplete();
+            }
+        });
+        Flux<DataBuffer> events = reactiveKalahBoard.fetchKalahBoardForGameId(gameId)
+                .doOnNext(game -> kalahGameEvents.sendCurrent(subscription, game))
+                .thenMany(frames.asFlux())
+                .take(Duration.ofMillis(eventsTimeoutMillis))
+                .doFinally(signal -> kalahGameEvents.unsubscribe(subscription));
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events);
+    }
+
+    /**
+     * Lines are read from the cursor as the client reads them. The response is not compressed here, enable
+     * server.compression with application/x-ndjson among its mime types to gzip it.
+     * @see KalahBoardController#exportKalahBoards(String, Date, Date, String, boolean)
+     */
+    @GetMapping(value = "/export")
+    public ResponseEntity<Flux<DataBuffer>> exportKalahBoards(@RequestParam(value = "status", required = false) String status,
+                                                              @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+                                                              @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+                                                              @RequestParam(value = "after", required = false) String after){
+        Flux<DataBuffer> lines = reactiveKalahBoard.exportKalahBoards(KalahGameExporter.query(status, from, to, after))
+                .map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(lines);
+    }
+
+    /**
+     * @see KalahBoardController#cleanUpKalahBoard(String)
+     */
+    @DeleteMapping(value = "/{gameId}")
+    public Mono<Void> cleanUpKalahBoard(@PathVariable("gameId") String gameId){
+        return reactiveKalahBoard.cleanUpKalahBoard(gameId);
+    }
+}
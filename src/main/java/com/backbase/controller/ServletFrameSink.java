@@ -0,0 +1,157 @@
+package com.backbase.controller;
+
+import com.backbase.service.KalahGameEvents;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Server-Sent Events connection of one subscriber on the servlet stack, written with non-blocking servlet output.
+ * A frame is written straight away while the connection takes it, otherwise queued until the container reports the
+ * connection writable again, up to application.kalah.events.subscriber.buffer frames; a client further behind is
+ * disconnected. A send therefore never blocks the event thread, however slow the client.
+ * Frames are written under the lock of the sink, by the event thread or by the container once writable. The listener
+ * callbacks of the container that end the connection take no lock.
+ */
+final class ServletFrameSink implements KalahGameEvents.FrameSink, WriteListener, AsyncListener {
+
+    private final int subscriberBuffer;
+
+    private volatile Runnable onEnd;
+
+    private final Queue<byte[]> pendingFrames = new ArrayDeque<>();
+
+    private AsyncContext asyncContext;
+
+    private ServletOutputStream outputStream;
+
+    private boolean flushPending;
+
+    private boolean closing;
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    /**
+     * @param subscriberBuffer - frames queued at most while the connection is not writable.
+     */
+    ServletFrameSink(int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    /**
+     * Switches the response to non-blocking output. Frames sent before are queued and written once it is writable.
+     * @param asyncContext - started by the request of the subscriber.
+     * @param timeoutMillis - the stream ends after application.kalah.events.timeout.millis.
+     * @param onEnd - run once the connection has ended, e.g. to unsubscribe.
+     */
+    void start(AsyncContext asyncContext, long timeoutMillis, Runnable onEnd) throws IOException {
+        this.onEnd = onEnd;
+        asyncContext.setTimeout(timeoutMillis);
+        asyncContext.addListener(this);
+        ServletOutputStream outputStream = asyncContext.getResponse().getOutputStream();
+        synchronized (this) {
+            this.asyncContext = asyncContext;
+            this.outputStream = outputStream;
+        }
+        // The container calls onWritePossible once the response is writable.
+        outputStream.setWriteListener(this);
+    }
+
+    @Override
+    public synchronized boolean send(byte[] frame) throws IOException {
+        if (completed.get()) {
+            throw new IOException("Connection closed");
+        }
+        if (pendingFrames.size() >= subscriberBuffer) {
+            return false;
+        }
+        pendingFrames.add(frame);
+        write();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        closing = true;
+        if (outputStream != null) {
+            try {
+                write();
+            } catch (IOException e) {
+                complete();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onWritePossible() throws IOException {
+        write();
+    }
+
+    /**
+     * Writes and flushes the queued frames for as long as the connection takes them without blocking.
+     */
+    private void write() throws IOException {
+        if (outputStream == null || completed.get()) {
+            return;
+        }
+        while (outputStream.isReady()) {
+            if (flushPending) {
+                outputStream.flush();
+                flushPending = false;
+            } else if (!pendingFrames.isEmpty()) {
+                outputStream.write(pendingFrames.poll());
+                flushPending = true;
+            } else {
+                if (closing) {
+                    complete();
+                }
+                return;
+            }
+        }
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // Completed by the container already, e.g. after the client went away.
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        complete();
+        onEnd.run();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        completed.set(true);
+        onEnd.run();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        complete();
+        onEnd.run();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        onError(event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+}
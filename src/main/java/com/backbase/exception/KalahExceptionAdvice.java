@@ -1,24 +1,43 @@
 package com.backbase.exception;
 
 import com.backbase.model.ErrorResponse;
+import com.backbase.service.KalahMetrics;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.annotation.Resource;
+
 /**
  * @author nandk
  * Controller Advicer that maps custom error exception {@link KalahValidationException} object to custom JSON Response object {@link ErrorResponse}
+ * Concurrent moves on the same game that could not be applied ({@link OptimisticLockingFailureException}) are reported as a conflict.
+ * Validation failures are counted by reason in {@link KalahMetrics}, once per move: a failure replayed to a retry of
+ * the same move is not counted again.
  */
 @RestControllerAdvice
 @Order(value = Ordered.HIGHEST_PRECEDENCE)
 public class KalahExceptionAdvice {
 
+    @Resource
+    KalahMetrics kalahMetrics;
+
     @ExceptionHandler(KalahValidationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleCustomException(KalahValidationException ex) {
+        if (!ex.isReplayed()) {
+            kalahMetrics.validationFailed(ex.getReason());
+        }
+        return new ErrorResponse(ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrentMove(OptimisticLockingFailureException ex) {
         return new ErrorResponse(ex.getMessage());
     }
 }
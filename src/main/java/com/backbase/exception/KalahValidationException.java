@@ -3,9 +3,68 @@ package com.backbase.exception;
 /**
  * @author nandk on 07/03/2021.
  * Custom exception used for different validations.
+ * The {@link Reason} of a validation is counted in the metrics, the message is reported to the caller.
+ * Rejections of illegal moves are thrown on every bad request, so those are shared instances built once by
+ * {@link #shared(Reason, String)}, without a stack trace, and throwing them costs no more than a return.
+ * A failure answered again to a retried request, see {@link #replayed()}, is not counted a second time.
  */
 public class KalahValidationException extends RuntimeException {
-    public KalahValidationException(String messageError){
+
+    /**
+     * Why a request was not valid.
+     */
+    public enum Reason {
+        UNKNOWN_GAME,
+        GAME_ENDED,
+        INVALID_PIT,
+        NOT_OWN_PIT,
+        KALAH_PIT,
+        EMPTY_PIT,
+        NO_PITS,
+        INVALID_OPPONENT,
+        INVALID_GAME_COUNT,
+        INVALID_BOARD,
+        INVALID_EXPORT,
+        IDEMPOTENCY_KEY_REUSED;
+    }
+
+    private final Reason reason;
+
+    private final boolean replayed;
+
+    public KalahValidationException(Reason reason, String messageError){
         super(messageError);
+        this.reason = reason;
+        this.replayed = false;
+    }
+
+    private KalahValidationException(Reason reason, String messageError, boolean writableStackTrace, boolean replayed){
+        super(messageError, null, false, writableStackTrace);
+        this.reason = reason;
+        this.replayed = replayed;
+    }
+
+    /**
+     * @return an exception without stack trace or suppressed exceptions, to be built once and thrown by every
+     * request rejected for the same reason and message.
+     */
+    public static KalahValidationException shared(Reason reason, String messageError){
+        return new KalahValidationException(reason, messageError, false, false);
+    }
+
+    /**
+     * @return the same failure, without stack trace, for a retry answered with the failure of the request it repeats.
+     * That request counted it already.
+     */
+    public KalahValidationException replayed(){
+        return new KalahValidationException(reason, getMessage(), false, true);
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
     }
 }
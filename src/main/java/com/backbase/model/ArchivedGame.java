@@ -0,0 +1,49 @@
+package com.backbase.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Compact record of a finished game, moved out of the live games by KalahGameArchiver. Kept for analytics only, it
+ * is never played or served again.
+ * @id - id of the game.
+ * @board - final board, stored packed like the board of a {@link Game}.
+ * @winnerPlayer - Player who won the game.
+ * @computerPlayer - Player whose moves the server made, null between two humans.
+ * @moveCount - number of moves played.
+ * @finishedAt - when the last move was played, null for games finished before it was recorded.
+ * @moves - pitId of every journaled move in order, one byte each. Empty for games played in document mode, whose
+ * moves are not journaled.
+ * @archivedAt - when the game was archived.
+ */
+@Document(collection = "archivedGames")
+@Data
+@NoArgsConstructor
+public class ArchivedGame implements Serializable {
+    @Id
+    private String id;
+    private Board board;
+    private Player winnerPlayer;
+    private Player computerPlayer;
+    private long moveCount;
+    private Date finishedAt;
+    private byte[] moves;
+    private Date archivedAt;
+
+    public ArchivedGame(Game game, byte[] moves, Date archivedAt) {
+        this.id = game.getId();
+        this.board = game.getBoard();
+        this.winnerPlayer = game.getWinnerPlayer();
+        this.computerPlayer = game.getComputerPlayer();
+        this.moveCount = game.getMoveSequence();
+        this.finishedAt = game.getLastActivity();
+        this.moves = moves;
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,371 @@
+package com.backbase.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Compact core of the Kalah board. Stones are held in an int[] laid out exactly like the pit ids of the REST contract
+ * (index = pitId - 1), as given by the {@link BoardGeometry} of the board: on the standard board Player 1 pits 0-5,
+ * Player 1 Kalah 6, Player 2 pits 7-12 and Player 2 Kalah 13.
+ * Owners, Kalah positions and opposite pits are precomputed per geometry, so sowing, capture and the end of game sweep
+ * run as plain array operations without any allocation. {@link Entity} lists are only built as a view of this board.
+ * The stones left in the pits of each player are kept as running totals, updated as stones move, so whether a side
+ * is empty, and so whether the game is over, is known without summing the pits.
+ * The static constants and lookups describe the standard board.
+ */
+public final class Board implements Serializable {
+
+    private static final BoardGeometry STANDARD = BoardGeometry.STANDARD;
+
+    public static final int PITS_PER_PLAYER = 6;
+
+    public static final int SIZE = (PITS_PER_PLAYER + 1) * 2;
+
+    public static final int PLAYER1_KALAH = PITS_PER_PLAYER;
+
+    public static final int PLAYER2_KALAH = SIZE - 1;
+
+    /**
+     * Longest readable status of a standard board, see {@link #writeStatus(char[])}.
+     */
+    public static final int STATUS_MAX_LENGTH = SIZE * (2 + 1 + 10) + (SIZE - 1) * 2 + 2;
+
+    private final BoardGeometry geometry;
+
+    private final int[] stones;
+
+    /**
+     * Per player (by ordinal), stones in the pits, Kalah/House excluded.
+     */
+    private final int[] pitTotals;
+
+    private Board(BoardGeometry geometry, int[] stones) {
+        this.geometry = geometry;
+        this.stones = stones;
+        this.pitTotals = new int[2];
+        for (int index = 0; index < stones.length; index++) {
+            if (!geometry.isKalah(index)) {
+                pitTotals[geometry.owner[index].ordinal()] += stones[index];
+            }
+        }
+    }
+
+    private Board(BoardGeometry geometry, int[] stones, int[] pitTotals) {
+        this.geometry = geometry;
+        this.stones = stones;
+        this.pitTotals = pitTotals;
+    }
+
+    /**
+     * Standard board with every pit holding the initial stones and both Kalah/Houses empty.
+     * @param initialStones - stones placed in each pit.
+     * @return new Board.
+     */
+    public static Board withInitialStones(int initialStones) {
+        return withInitialStones(STANDARD, initialStones);
+    }
+
+    /**
+     * Board of the given geometry with every pit holding the initial stones and both Kalah/Houses empty.
+     * @param geometry - layout of the board.
+     * @param initialStones - stones placed in each pit.
+     * @return new Board.
+     */
+    public static Board withInitialStones(BoardGeometry geometry, int initialStones) {
+        int[] stones = new int[geometry.size];
+        Arrays.fill(stones, initialStones);
+        stones[geometry.kalah[0]] = 0;
+        stones[geometry.kalah[1]] = 0;
+        return new Board(geometry, stones);
+    }
+
+    /**
+     * Reads the board from its entity representation (as built by {@link Kalah.KalahBoardBuilder} or stored in DB).
+     * @param entities - Pits and Kalah of Player 1 followed by those of Player 2, their number giving the geometry.
+     * @return new Board holding the same stone counts.
+     */
+    public static Board fromEntities(List<Entity> entities) {
+        BoardGeometry geometry = BoardGeometry.ofSize(entities.size());
+        int[] stones = new int[geometry.size];
+        for (int index = 0; index < geometry.size; index++) {
+            Integer entityCount = entities.get(index).getEntityCount();
+            stones[index] = entityCount == null ? 0 : entityCount;
+        }
+        return new Board(geometry, stones);
+    }
+
+    /**
+     * Board holding the given stone counts, in board order.
+     * @param stones - stone counts, copied, their number giving the geometry.
+     * @return new Board.
+     */
+    public static Board fromStones(int[] stones) {
+        return new Board(BoardGeometry.ofSize(stones.length), stones.clone());
+    }
+
+    /**
+     * @return copy of the stone counts, in board order (pitId - 1).
+     */
+    public int[] toStones() {
+        return stones.clone();
+    }
+
+    /**
+     * Entity view of the board, used for persistence and for callers still working on Pits/Kalah.
+     * @return List of Entities (Pits/Kalah) holding a snapshot of the current stone counts.
+     */
+    public List<Entity> toEntities() {
+        List<Entity> entities = new ArrayList<>(geometry.size);
+        for (int index = 0; index < geometry.size; index++) {
+            if (geometry.isKalah(index)) {
+                Kalah kalah = new Kalah(geometry.owner[index]);
+                kalah.setEntityCount(stones[index]);
+                entities.add(kalah);
+            } else {
+                entities.add(new Pit(geometry.owner[index], stones[index]));
+            }
+        }
+        return entities;
+    }
+
+    public Board copy() {
+        return new Board(geometry, stones.clone(), pitTotals.clone());
+    }
+
+    /**
+     * Overwrites this board with the stones of another one of the same geometry, without allocating, e.g. for the
+     * scratch boards of a search.
+     * @param other - board to copy.
+     */
+    public void copyFrom(Board other) {
+        if (other.geometry != geometry) {
+            throw new IllegalArgumentException("Cannot copy a board of " + other.geometry + " onto a board of " + geometry);
+        }
+        System.arraycopy(other.stones, 0, stones, 0, stones.length);
+        pitTotals[0] = other.pitTotals[0];
+        pitTotals[1] = other.pitTotals[1];
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    public static boolean isKalah(int index) {
+        return STANDARD.isKalah(index);
+    }
+
+    public static Player ownerOf(int index) {
+        return STANDARD.owner[index];
+    }
+
+    public static int kalahOf(Player player) {
+        return player == Player.PLAYER1 ? PLAYER1_KALAH : PLAYER2_KALAH;
+    }
+
+    public static int oppositeOf(int index) {
+        return STANDARD.opposite[index];
+    }
+
+    public int stones(int index) {
+        return stones[index];
+    }
+
+    /**
+     * Sum of the stones left in the pits of a player, Kalah/House excluded.
+     * @param player
+     * @return stones in the player's pits.
+     */
+    public int pitStones(Player player) {
+        return pitTotals[player.ordinal()];
+    }
+
+    /**
+     * Picks up all stones of the pit and releases them one by one to the right, skipping the opponent's Kalah/House.
+     * Sowing is done in closed form: every one of the sowing slots receives one stone per full lap, the remainder
+     * goes to the slots following the pit, and the last stone lands where the remainder ends (the pit itself
+     * after an exact number of laps). A move therefore costs the same whatever the number of stones.
+     * A lap puts one stone in every pit of both players, the pit totals are moved on by the laps the same way.
+     * @param pitIndex - board index the move starts from.
+     * @param player - player making the move.
+     * @return board index where the last stone landed.
+     */
+    public int sow(int pitIndex, Player player) {
+        BoardGeometry geometry = this.geometry;
+        int[] order = geometry.sowingOrder[player.ordinal()];
+        int sowingSlots = geometry.sowingSlots;
+        Player[] pitOwner = geometry.pitOwner;
+        int noOfMoves = stones[pitIndex];
+        stones[pitIndex] = 0;
+        pitTotals[player.ordinal()] -= noOfMoves;
+        int laps = noOfMoves / sowingSlots;
+        int remainder = noOfMoves % sowingSlots;
+        if (laps != 0) {
+            for (int slot = 0; slot < sowingSlots; slot++) {
+                stones[order[slot]] += laps;
+            }
+            pitTotals[0] += laps * geometry.pitsPerPlayer;
+            pitTotals[1] += laps * geometry.pitsPerPlayer;
+        }
+        int start = geometry.sowingPosition[player.ordinal()][pitIndex];
+        for (int slot = start + 1; slot <= start + remainder; slot++) {
+            int index = order[slot];
+            stones[index]++;
+            if (pitOwner[index] != null) {
+                pitTotals[pitOwner[index].ordinal()]++;
+            }
+        }
+        return order[start + remainder];
+    }
+
+    /**
+     * If the last stone landed in an own empty pit, that stone and all stones of the opposite pit are
+     * moved to the player's Kalah/House.
+     * @param lastIndex - board index where the last stone landed.
+     * @param player - player making the move.
+     * @return true if a capture happened.
+     */
+    public boolean captureAt(int lastIndex, Player player) {
+        // A Kalah/House has no pit owner, so one lookup rules out both.
+        if (geometry.pitOwner[lastIndex] != player || stones[lastIndex] != 1) {
+            return false;
+        }
+        int oppositePit = geometry.opposite[lastIndex];
+        stones[geometry.kalah[player.ordinal()]] += stones[oppositePit] + stones[lastIndex];
+        pitTotals[player.ordinal()] -= stones[lastIndex];
+        pitTotals[1 - player.ordinal()] -= stones[oppositePit];
+        stones[lastIndex] = 0;
+        stones[oppositePit] = 0;
+        return true;
+    }
+
+    /**
+     * Once the pits of either player are empty, the other player keeps the stones left in his/her pits and puts
+     * them in his/her Kalah/House.
+     * @return Player with the most stones in the Kalah/House if the game has ended, else null.
+     */
+    public Player sweepIfFinished() {
+        Player sweepingPlayer;
+        if (pitTotals[0] == 0) {
+            sweepingPlayer = Player.PLAYER2;
+        } else if (pitTotals[1] == 0) {
+            sweepingPlayer = Player.PLAYER1;
+        } else {
+            return null;
+        }
+        int side = sweepingPlayer.ordinal();
+        if (pitTotals[side] != 0) {
+            int from = geometry.firstPit[side];
+            stones[geometry.kalah[side]] += pitTotals[side];
+            Arrays.fill(stones, from, from + geometry.pitsPerPlayer, 0);
+            pitTotals[side] = 0;
+        }
+        return stones[geometry.kalah[0]] > stones[geometry.kalah[1]] ? Player.PLAYER1 : Player.PLAYER2;
+    }
+
+    /**
+     * @return true while any pit on the board still holds stones.
+     */
+    public boolean hasStonesInPits() {
+        return (pitTotals[0] | pitTotals[1]) != 0;
+    }
+
+    /**
+     * Writes the readable status of the board, {1=6, 2=6, ..., 14=0} keyed by pitId, into the given buffer.
+     * @param status - buffer of at least {@link BoardGeometry#statusMaxLength()} chars of the board's geometry.
+     * @return number of chars written.
+     */
+    public int writeStatus(char[] status) {
+        int length = 0;
+        status[length++] = '{';
+        for (int index = 0; index < stones.length; index++) {
+            if (index != 0) {
+                status[length++] = ',';
+                status[length++] = ' ';
+            }
+            length = writeNumber(index + 1, status, length);
+            status[length++] = '=';
+            length = writeNumber(stones[index], status, length);
+        }
+        status[length++] = '}';
+        return length;
+    }
+
+    /**
+     * Packs the stone counts in board order, each as an unsigned varint (7 bits per byte, high bit set while more
+     * bytes follow). Owners and Kalah positions are implied by the position and the geometry by the number of slots,
+     * so a board of up to 127 stones per slot takes one byte per slot.
+     * @return packed stones, as stored in DB.
+     */
+    public byte[] toPackedStones() {
+        byte[] packed = new byte[stones.length * 5];
+        int length = 0;
+        for (int index = 0; index < stones.length; index++) {
+            int count = stones[index];
+            while ((count & ~0x7F) != 0) {
+                packed[length++] = (byte) ((count & 0x7F) | 0x80);
+                count >>>= 7;
+            }
+            packed[length++] = (byte) count;
+        }
+        return Arrays.copyOf(packed, length);
+    }
+
+    /**
+     * Reads a board packed by {@link #toPackedStones()}.
+     * @param packed - packed stones.
+     * @return new Board holding the same stone counts.
+     */
+    public static Board fromPackedStones(byte[] packed) {
+        int[] stones = new int[BoardGeometry.MAX_SIZE];
+        int offset = 0;
+        int slots = 0;
+        while (offset != packed.length) {
+            if (slots == stones.length) {
+                throw new IllegalArgumentException("Packed Kalah board has more than " + stones.length + " slots");
+            }
+            int count = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (offset == packed.length || shift > 28) {
+                    throw new IllegalArgumentException("Packed Kalah board is truncated or corrupt at slot " + slots);
+                }
+                byte next = packed[offset++];
+                count |= (next & 0x7F) << shift;
+                if (next >= 0) {
+                    break;
+                }
+            }
+            stones[slots++] = count;
+        }
+        return new Board(BoardGeometry.ofSize(slots), Arrays.copyOf(stones, slots));
+    }
+
+    private static int writeNumber(int number, char[] target, int offset) {
+        int digits = 1;
+        for (int rest = number / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        for (int position = offset + digits - 1; position >= offset; position--) {
+            target[position] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return offset + digits;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Board && Arrays.equals(stones, ((Board) other).stones);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(stones);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(stones);
+    }
+}
@@ -0,0 +1,197 @@
+package com.backbase.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Layout of a Kalah board with a given number of pits per player, laid out like the pit ids of the REST contract
+ * (index = pitId - 1): Player 1 pits, Player 1 Kalah, Player 2 pits and Player 2 Kalah.
+ * Owners, Kalah positions, opposite pits and the sowing order of every slot are precomputed into lookup tables once
+ * per geometry. Geometries are shared and immutable, there is exactly one instance per number of pits, so boards can
+ * compare theirs by identity and moves only do array lookups.
+ */
+public final class BoardGeometry implements Serializable {
+
+    public static final int MIN_PITS_PER_PLAYER = 4;
+
+    public static final int MAX_PITS_PER_PLAYER = 10;
+
+    /**
+     * Slots of the largest board.
+     */
+    public static final int MAX_SIZE = (MAX_PITS_PER_PLAYER + 1) * 2;
+
+    /**
+     * Longest readable status of any board, see {@link Board#writeStatus(char[])}.
+     */
+    public static final int MAX_STATUS_LENGTH = statusLength(MAX_SIZE);
+
+    private static final BoardGeometry[] GEOMETRIES = new BoardGeometry[MAX_PITS_PER_PLAYER + 1];
+
+    static {
+        for (int pits = MIN_PITS_PER_PLAYER; pits <= MAX_PITS_PER_PLAYER; pits++) {
+            GEOMETRIES[pits] = new BoardGeometry(pits);
+        }
+    }
+
+    /**
+     * The board of the standard game, 6 pits per player.
+     */
+    public static final BoardGeometry STANDARD = of(6);
+
+    final int pitsPerPlayer;
+
+    final int size;
+
+    /**
+     * Slots a player sows into: every slot except the opponent's Kalah/House.
+     */
+    final int sowingSlots;
+
+    final int statusMaxLength;
+
+    /**
+     * Per player (by ordinal), board index of the Kalah/House.
+     */
+    final int[] kalah = new int[2];
+
+    /**
+     * Per player (by ordinal), board index of the first pit.
+     */
+    final int[] firstPit = new int[2];
+
+    /**
+     * Per board index, the owner of the slot.
+     */
+    final Player[] owner;
+
+    /**
+     * Per board index, the owner of the pit, null for a Kalah/House.
+     */
+    final Player[] pitOwner;
+
+    /**
+     * Per board index, the opposite pit, -1 for a Kalah/House.
+     */
+    final int[] opposite;
+
+    /**
+     * Per player (by ordinal), the board indices of the sowing slots in sowing order, written out twice so that
+     * a lap starting anywhere can be read without wrapping around.
+     */
+    final int[][] sowingOrder;
+
+    /**
+     * Per player (by ordinal), the position of each board index within {@link #sowingOrder}.
+     */
+    final int[][] sowingPosition;
+
+    private BoardGeometry(int pitsPerPlayer) {
+        this.pitsPerPlayer = pitsPerPlayer;
+        size = (pitsPerPlayer + 1) * 2;
+        sowingSlots = size - 1;
+        statusMaxLength = statusLength(size);
+        kalah[Player.PLAYER1.ordinal()] = pitsPerPlayer;
+        kalah[Player.PLAYER2.ordinal()] = size - 1;
+        firstPit[Player.PLAYER1.ordinal()] = 0;
+        firstPit[Player.PLAYER2.ordinal()] = pitsPerPlayer + 1;
+        owner = new Player[size];
+        pitOwner = new Player[size];
+        opposite = new int[size];
+        for (int index = 0; index < size; index++) {
+            owner[index] = index <= pitsPerPlayer ? Player.PLAYER1 : Player.PLAYER2;
+            boolean isKalah = index == pitsPerPlayer || index == size - 1;
+            pitOwner[index] = isKalah ? null : owner[index];
+            opposite[index] = isKalah ? -1 : size - index - 2;
+        }
+        sowingOrder = new int[2][sowingSlots * 2];
+        sowingPosition = new int[2][size];
+        for (Player player : new Player[]{Player.PLAYER1, Player.PLAYER2}) {
+            int opponentKalah = kalah[1 - player.ordinal()];
+            int[] order = sowingOrder[player.ordinal()];
+            int[] position = sowingPosition[player.ordinal()];
+            Arrays.fill(position, -1);
+            int slot = 0;
+            for (int index = 0; index < size; index++) {
+                if (index != opponentKalah) {
+                    position[index] = slot;
+                    order[slot] = index;
+                    order[slot + sowingSlots] = index;
+                    slot++;
+                }
+            }
+        }
+    }
+
+    private static int statusLength(int size) {
+        return size * (2 + 1 + 10) + (size - 1) * 2 + 2;
+    }
+
+    /**
+     * @param pitsPerPlayer - pits of each player, {@link #MIN_PITS_PER_PLAYER} to {@link #MAX_PITS_PER_PLAYER}.
+     * @return the shared geometry.
+     */
+    public static BoardGeometry of(int pitsPerPlayer) {
+        if (pitsPerPlayer < MIN_PITS_PER_PLAYER || pitsPerPlayer > MAX_PITS_PER_PLAYER) {
+            throw new IllegalArgumentException("Kalah board must have " + MIN_PITS_PER_PLAYER + " to " + MAX_PITS_PER_PLAYER
+                    + " pits per player, found : " + pitsPerPlayer);
+        }
+        return GEOMETRIES[pitsPerPlayer];
+    }
+
+    /**
+     * @param size - slots of the board, pits and Kalah/Houses of both players.
+     * @return the shared geometry of a board of that size.
+     */
+    public static BoardGeometry ofSize(int size) {
+        if (size % 2 != 0) {
+            throw new IllegalArgumentException("Kalah board must have an even number of slots, found : " + size);
+        }
+        return of(size / 2 - 1);
+    }
+
+    public int pitsPerPlayer() {
+        return pitsPerPlayer;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int statusMaxLength() {
+        return statusMaxLength;
+    }
+
+    public int kalahOf(Player player) {
+        return kalah[player.ordinal()];
+    }
+
+    public int firstPitOf(Player player) {
+        return firstPit[player.ordinal()];
+    }
+
+    public Player ownerOf(int index) {
+        return owner[index];
+    }
+
+    public boolean isKalah(int index) {
+        return pitOwner[index] == null;
+    }
+
+    public int oppositeOf(int index) {
+        return opposite[index];
+    }
+
+    /**
+     * Geometries are shared, a deserialized one is replaced by the shared instance.
+     */
+    private Object readResolve() {
+        return of(pitsPerPlayer);
+    }
+
+    @Override
+    public String toString() {
+        return pitsPerPlayer + " pits per player";
+    }
+}
@@ -1,16 +1,20 @@
 package com.backbase.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author nandk on 06/03/2021.
@@ -18,29 +22,63 @@ import java.util.stream.Collectors;
  * a future reference of the game and also use for game analytics.
  * @id  - game id that stores the primary identifier of any game
  * @url - url that retrieves the current game status.
- * @currentGameStats - At any given point of time, maintains the current moves of the players.
+ * @board - At any given point of time, maintains the current moves of the players on a compact {@link Board}.
+ * Stored in DB as its packed stones, see {@link Board#toPackedStones()}.
+ * @currentGameStats - Entity (Pit/Kalah) view of the board. Not stored in DB any more.
+ * @legacyGameStats - Board of a document stored before the packed format, as its Entities. Only ever read from DB,
+ * moved into the board once read, see {@link #migrateLegacyBoard()}.
  * @status - Current status of the game in readable format. Not stored in DB
  * @nextPlayer - Next Player who can make a move.
+ * @computerPlayer - Player whose moves the server makes, in a game against the computer. Null between two humans.
+ * @moveSequence - Number of moves played so far. In journal mode the stored game is a snapshot of the board after
+ * this many moves, the {@link Move} journal holds the moves after it.
+ * @pendingMoves - Moves played on this game since it was read, yet to be journaled. Not stored in DB.
+ * @version - Incremented on every save of the game. A save only succeeds for the version that was read, so
+ * concurrent moves on the same game cannot overwrite each other.
+ * @lastActivity - When the game was started or last played. Games are expired by a TTL index on it and archived
+ * once finished for a while, see KalahGameArchiver.
+ * @snapshotActivity - lastActivity of the game document last read or written. Ahead of it in journal mode, as the
+ * document is only rewritten on snapshots. Not stored in DB.
  */
 @Document
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 @NoArgsConstructor
 public class Game implements Serializable {
     @Id
     private String id;
     private String url;
-    private List<Entity> currentGameStats;
+    private Board board;
+    @Field("currentGameStats")
+    @JsonIgnore
+    private List<Entity> legacyGameStats;
     @Transient
     private String status;
     private Player nextPlayer;
     private Player winnerPlayer;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Player computerPlayer;
+    private long moveSequence;
+    @Transient
+    private List<Move> pendingMoves;
+    private long version;
+    @JsonIgnore
+    private Date lastActivity;
+    @Transient
+    @JsonIgnore
+    private Date snapshotActivity;
 
     public Game(String id, List<Entity> currentGameStats, Player nextPlayer, String url){
+        this(id, Board.fromEntities(currentGameStats), nextPlayer, url);
+    }
+
+    public Game(String id, Board board, Player nextPlayer, String url){
         this.id=id;
-        this.currentGameStats=currentGameStats;
+        this.board=board;
         this.nextPlayer=nextPlayer;
         this.url=url.contains(id)?url:url.concat(id);
         this.winnerPlayer=null;
+        this.lastActivity=new Date();
     }
 
 
@@ -53,15 +91,89 @@ public class Game implements Serializable {
         return this.winnerPlayer;
     }
 
+    /**
+     * Copy of the game with its own board, so that a cached game is never mutated by a move in progress.
+     * @return Game holding the same attributes.
+     */
+    public Game copy(){
+        Game copy = new Game();
+        copy.id=this.id;
+        copy.url=this.url;
+        copy.board=this.board == null ? null : this.board.copy();
+        copy.nextPlayer=this.nextPlayer;
+        copy.winnerPlayer=this.winnerPlayer;
+        copy.computerPlayer=this.computerPlayer;
+        copy.moveSequence=this.moveSequence;
+        copy.version=this.version;
+        copy.lastActivity=this.lastActivity;
+        copy.snapshotActivity=this.snapshotActivity;
+        return copy;
+    }
+
+    /**
+     * Records a move just played on this game.
+     * @param player - Player who made the move.
+     * @param pitId - pit picked for the move.
+     */
+    public void recordMove(Player player, Integer pitId){
+        this.moveSequence++;
+        this.lastActivity = new Date();
+        if (this.pendingMoves == null) {
+            this.pendingMoves = new ArrayList<>();
+        }
+        this.pendingMoves.add(new Move(this.id, this.moveSequence, player, pitId, this.lastActivity));
+    }
+
+    @JsonIgnore
+    public long getMoveSequence(){
+        return this.moveSequence;
+    }
+
     @JsonIgnore
+    public long getVersion(){
+        return this.version;
+    }
+
+    @JsonIgnore
+    public List<Move> getPendingMoves(){
+        return this.pendingMoves == null ? Collections.emptyList() : this.pendingMoves;
+    }
+
+    @JsonIgnore
+    public Board getBoard(){
+        return this.board;
+    }
+
+    @JsonIgnore
+    @Transient
     public List<Entity> getCurrentGameStats(){
-        return this.currentGameStats;
+        return this.board == null ? null : this.board.toEntities();
+    }
+
+    public void setCurrentGameStats(List<Entity> currentGameStats){
+        this.board = currentGameStats == null ? null : Board.fromEntities(currentGameStats);
     }
+
+    /**
+     * Moves the board read from a legacy document into the packed board, so that the next save of the game stores
+     * it in the packed format only.
+     * @return true if the game was read from a legacy document.
+     */
+    public boolean migrateLegacyBoard(){
+        if (this.legacyGameStats == null) {
+            return false;
+        }
+        if (this.board == null) {
+            this.board = Board.fromEntities(this.legacyGameStats);
+        }
+        this.legacyGameStats = null;
+        return true;
+    }
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public String getStatus(){
-        return currentGameStats.stream()
-                               .collect(Collectors.toMap(e->currentGameStats.indexOf(e)+1,e->e.getEntityCount()))
-                               .toString();
+        char[] status = new char[board.getGeometry().statusMaxLength()];
+        return new String(status, 0, board.writeStatus(status));
     }
 
 }
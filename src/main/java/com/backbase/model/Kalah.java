@@ -55,11 +55,13 @@ public class Kalah implements Entity {
     }
 
     /**
-     * Builder class to build the KalahBoard for players with their own Pits and Kalah/Houses
+     * Builder class to build the KalahBoard for players with their own Pits and Kalah/Houses.
+     * Builds the standard 6 pits per player unless told otherwise.
      */
     public static class KalahBoardBuilder {
         Player ownerPlayer;
         Integer initialStones;
+        Integer pitsPerPlayer = BoardGeometry.STANDARD.pitsPerPlayer();
 
         public KalahBoardBuilder ownerPlayer(Player ownerPlayer) {
             this.ownerPlayer = ownerPlayer;
@@ -71,10 +73,16 @@ public class Kalah implements Entity {
             return this;
         }
 
+        public KalahBoardBuilder pitsPerPlayer(Integer pitsPerPlayer) {
+            this.pitsPerPlayer = pitsPerPlayer;
+            return this;
+        }
+
         public List<Entity> build() {
             List<Entity> buildMyBoard = new Pit.PitBuilder()
                     .ownerPlayer(this.ownerPlayer)
                     .initialStones(this.initialStones)
+                    .pitsPerPlayer(this.pitsPerPlayer)
                     .build();
             buildMyBoard.add(new KalahBuilder()
                     .ownerPlayer(this.ownerPlayer)
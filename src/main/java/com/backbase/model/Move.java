@@ -0,0 +1,42 @@
+package com.backbase.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Journal entry of a single move of a game. Moves are only ever appended, so the journal holds the full history
+ * of every game for analytics and, together with the latest snapshot of the {@link Game}, its current board.
+ * @gameId - game the move was made in.
+ * @sequence - position of the move within the game, starting at 1.
+ * @player - Player who made the move.
+ * @pitId - pit picked for the move.
+ * @playedAt - when the move was played. Journaled moves expire with their game, by a TTL index on it.
+ */
+@Document(collection = "moves")
+@CompoundIndex(name = "game_sequence", def = "{'gameId': 1, 'sequence': 1}", unique = true)
+@Data
+@NoArgsConstructor
+public class Move implements Serializable {
+    @Id
+    private String id;
+    private String gameId;
+    private long sequence;
+    private Player player;
+    private Integer pitId;
+    private Date playedAt;
+
+    public Move(String gameId, long sequence, Player player, Integer pitId, Date playedAt) {
+        this.gameId = gameId;
+        this.sequence = sequence;
+        this.player = player;
+        this.pitId = pitId;
+        this.playedAt = playedAt;
+    }
+}
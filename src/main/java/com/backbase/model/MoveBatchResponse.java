@@ -0,0 +1,38 @@
+package com.backbase.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Response of a batch of moves. Holds the game after the moves that were applied, how many of the requested moves
+ * were applied and, if the batch stopped early, why the next move was rejected.
+ */
+public class MoveBatchResponse implements Serializable {
+
+    private Game game;
+
+    private int movesApplied;
+
+    private String rejectedMove;
+
+    public MoveBatchResponse(Game game, int movesApplied, String rejectedMove) {
+        this.game = game;
+        this.movesApplied = movesApplied;
+        this.rejectedMove = rejectedMove;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public int getMovesApplied() {
+        return movesApplied;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getRejectedMove() {
+        return rejectedMove;
+    }
+}
@@ -0,0 +1,83 @@
+package com.backbase.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * @author nandk on 18/10/2026.
+ * What a move from one pit of the current player would do, as previewed by GET /games/{gameId}/moves.
+ * A legal move has the board after it (stones by pitId, as after the end of game sweep), whether the player moves
+ * again, whether it captures and whether it ends the game and who wins. A move that is not legal has why instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveOutcome implements Serializable {
+
+    private final int pitId;
+
+    private final boolean legal;
+
+    private final String rejectedMove;
+
+    private final int[] board;
+
+    private final boolean extraTurn;
+
+    private final boolean capture;
+
+    private final boolean endsGame;
+
+    private final Player winnerPlayer;
+
+    private MoveOutcome(int pitId, boolean legal, String rejectedMove, int[] board, boolean extraTurn, boolean capture,
+                        boolean endsGame, Player winnerPlayer) {
+        this.pitId = pitId;
+        this.legal = legal;
+        this.rejectedMove = rejectedMove;
+        this.board = board;
+        this.extraTurn = extraTurn;
+        this.capture = capture;
+        this.endsGame = endsGame;
+        this.winnerPlayer = winnerPlayer;
+    }
+
+    public static MoveOutcome legal(int pitId, int[] board, boolean extraTurn, boolean capture, Player winnerPlayer) {
+        return new MoveOutcome(pitId, true, null, board, extraTurn, capture, winnerPlayer != null, winnerPlayer);
+    }
+
+    public static MoveOutcome rejected(int pitId, String rejectedMove) {
+        return new MoveOutcome(pitId, false, rejectedMove, null, false, false, false, null);
+    }
+
+    public int getPitId() {
+        return pitId;
+    }
+
+    public boolean isLegal() {
+        return legal;
+    }
+
+    public String getRejectedMove() {
+        return rejectedMove;
+    }
+
+    public int[] getBoard() {
+        return board;
+    }
+
+    public boolean isExtraTurn() {
+        return extraTurn;
+    }
+
+    public boolean isCapture() {
+        return capture;
+    }
+
+    public boolean isEndsGame() {
+        return endsGame;
+    }
+
+    public Player getWinnerPlayer() {
+        return winnerPlayer;
+    }
+}
@@ -0,0 +1,46 @@
+package com.backbase.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Response of GET /games/{gameId}/moves. Holds the outcome of a move from every pit of the player to move, in pitId
+ * order, worked out on the board of the given version of the game. No moves once the game has ended.
+ */
+public class MovePreview implements Serializable {
+
+    private final String gameId;
+
+    private final long version;
+
+    private final Player currentPlayer;
+
+    private final List<MoveOutcome> moves;
+
+    public MovePreview(String gameId, long version, Player currentPlayer, List<MoveOutcome> moves) {
+        this.gameId = gameId;
+        this.version = version;
+        this.currentPlayer = currentPlayer;
+        this.moves = moves;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public List<MoveOutcome> getMoves() {
+        return moves;
+    }
+}
@@ -10,8 +10,6 @@ import java.util.List;
  */
 public class Pit implements Entity {
 
-    private static final Integer INDIVIDUAL_PITS = 6;
-
     private Integer entityCount;
 
     private Player ownerPlayer;
@@ -44,6 +42,7 @@ public class Pit implements Entity {
 
         Integer initialStones;
         Player player;
+        Integer pitsPerPlayer = BoardGeometry.STANDARD.pitsPerPlayer();
 
         PitBuilder initialStones(Integer initialStones) {
             this.initialStones = initialStones;
@@ -55,9 +54,14 @@ public class Pit implements Entity {
             return this;
         }
 
+        PitBuilder pitsPerPlayer(Integer pitsPerPlayer) {
+            this.pitsPerPlayer = pitsPerPlayer;
+            return this;
+        }
+
         List<Entity> build() {
             List<Entity> createList = new ArrayList<>();
-            while (createList.size() != INDIVIDUAL_PITS) {
+            while (createList.size() != pitsPerPlayer) {
                 createList.add(new Pit(this.player, this.initialStones));
             }
             return createList;
@@ -0,0 +1,49 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import org.bson.types.Binary;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Spring Data converters storing a {@link Board} as a single binary field of its packed stones instead of a list of
+ * Pit/Kalah sub-documents, each carrying its class, owner and count. The stored game shrinks to a fraction of its
+ * size, while the domain model and the REST output stay as they are.
+ */
+public final class BoardConverters {
+
+    private BoardConverters() {
+    }
+
+    /**
+     * @return converters to register with the Mongo custom conversions.
+     */
+    public static List<Converter<?, ?>> converters() {
+        return Arrays.asList(BoardToBinaryConverter.INSTANCE, BinaryToBoardConverter.INSTANCE);
+    }
+
+    @WritingConverter
+    public enum BoardToBinaryConverter implements Converter<Board, Binary> {
+        INSTANCE;
+
+        @Override
+        public Binary convert(Board board) {
+            return new Binary(board.toPackedStones());
+        }
+    }
+
+    @ReadingConverter
+    public enum BinaryToBoardConverter implements Converter<Binary, Board> {
+        INSTANCE;
+
+        @Override
+        public Board convert(Binary packedStones) {
+            return Board.fromPackedStones(packedStones.getData());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.backbase.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Counts the games in play, the stored games without a winner, every application.kalah.active.games.interval.millis
+ * for the kalah.games.active gauge. Counting is a query on DB, so it is done on a schedule rather than every time the
+ * registry is scraped. Games saved behind by the {@link KalahGameCache} count once they are written, and games count
+ * until they are finished or expire. Every node counts the same games.
+ */
+@Component
+public class KalahActiveGames {
+
+    Logger logger = LoggerFactory.getLogger(KalahActiveGames.class);
+
+    @Resource
+    KalahRespository kalahRespository;
+
+    private volatile long activeGames;
+
+    /**
+     * Counts the games in play. The last count is kept while DB cannot be reached.
+     */
+    @Scheduled(fixedDelayString = "${application.kalah.active.games.interval.millis}")
+    public void count() {
+        try {
+            activeGames = kalahRespository.countByWinnerPlayerIsNull();
+        } catch (DataAccessException e) {
+            logger.warn("Games in play not counted : " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return number of games in play at the last count.
+     */
+    public long getActiveGames() {
+        return activeGames;
+    }
+}
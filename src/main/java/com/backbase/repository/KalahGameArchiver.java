@@ -0,0 +1,211 @@
+package com.backbase.repository;
+
+import com.backbase.model.ArchivedGame;
+import com.backbase.model.Game;
+import com.backbase.model.Move;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Keeps the live games collection to the games being played.
+ * Finished games are moved to the {@link ArchivedGame} collection, one batch of application.kalah.archive.batch every
+ * application.kalah.archive.interval.millis, once their last move is application.kalah.archive.after.millis old. The
+ * batch is written to the archive first and only then removed from the games, the move journal and the
+ * {@link KalahGameCache} of this node, so a failed run leaves the games to the next one. Archiving is idempotent, nodes
+ * may archive at the same time.
+ * Games with no move for application.kalah.expiry.inactive.seconds are expired by DB through a TTL index on
+ * {@link Game} lastActivity, their journaled moves through one on {@link Move} playedAt. 0 drops the TTL indexes.
+ * In journal mode both indexes allow for the snapshot lag of lastActivity, see {@link KalahMoveJournal#getExpirySlackSeconds()}.
+ * Games and moves stored before lastActivity/playedAt were recorded have neither, so they never expire; finished ones
+ * are still archived.
+ * Not run on the mapped game store, see {@link MappedKalahRespository}.
+ */
+@Component
+@ConditionalOnProperty(name = "application.kalah.store", havingValue = "MONGO", matchIfMissing = true)
+public class KalahGameArchiver implements ApplicationRunner {
+
+    Logger logger = LoggerFactory.getLogger(KalahGameArchiver.class);
+
+    static final String TTL_INDEX = "last_activity_ttl";
+
+    static final String FINISHED_INDEX = "finished_last_activity";
+
+    @Resource
+    MongoTemplate mongoTemplate;
+
+    @Resource
+    KalahGameCache kalahGameCache;
+
+    @Resource
+    KalahMoveJournal kalahMoveJournal;
+
+    @Value("${application.kalah.archive.batch}")
+    Integer archiveBatch;
+
+    @Value("${application.kalah.archive.after.millis}")
+    long archiveAfterMillis;
+
+    @Value("${application.kalah.expiry.inactive.seconds}")
+    long expirySeconds;
+
+    private final AtomicLong archivedGames = new AtomicLong();
+
+    private volatile int lastBatchSize;
+
+    private volatile long lastLagMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long ttlSeconds = expirySeconds + kalahMoveJournal.getExpirySlackSeconds();
+        ensureTtlIndex(Game.class, "lastActivity", ttlSeconds);
+        ensureTtlIndex(Move.class, "playedAt", ttlSeconds);
+        mongoTemplate.indexOps(Game.class).ensureIndex(new Index().named(FINISHED_INDEX)
+                .on("winnerPlayer", Sort.Direction.ASC).on("lastActivity", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("winnerPlayer").exists(true))));
+    }
+
+    /**
+     * Creates the TTL index, or changes its expiry in place if it exists, so that the collection is not indexed again.
+     */
+    private void ensureTtlIndex(Class<?> entityClass, String field, long ttlSeconds) {
+        IndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        boolean exists = false;
+        for (IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+            exists |= TTL_INDEX.equals(indexInfo.getName());
+        }
+        if (expirySeconds <= 0) {
+            if (exists) {
+                indexOperations.dropIndex(TTL_INDEX);
+                logger.info("Dropped the TTL index of " + collection);
+            }
+        } else if (exists) {
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                    .append("index", new Document("name", TTL_INDEX).append("expireAfterSeconds", ttlSeconds)));
+        } else {
+            indexOperations.ensureIndex(new Index().named(TTL_INDEX).on(field, Sort.Direction.ASC).expire(ttlSeconds));
+            logger.info("Created the TTL index of " + collection + " expiring after " + ttlSeconds + " s");
+        }
+    }
+
+    /**
+     * Archives one batch of finished games per run. The scheduler thread is shared with the other scheduled tasks,
+     * e.g. {@link KalahGameCache#flush()}, so a backlog is drained a batch at a time rather than in one run.
+     */
+    @Scheduled(fixedDelayString = "${application.kalah.archive.interval.millis}")
+    public void archive() {
+        archiveBatch();
+    }
+
+    /**
+     * Archives the next batch of finished games due.
+     * @return number of games archived.
+     */
+    public int archiveBatch() {
+        long startedAt = System.currentTimeMillis();
+        Query dueGames = Query.query(Criteria.where("winnerPlayer").exists(true)
+                        .and("lastActivity").not().gt(new Date(startedAt - archiveAfterMillis)))
+                .limit(archiveBatch);
+        List<Game> games = mongoTemplate.find(dueGames, Game.class);
+        if (games.isEmpty()) {
+            lastBatchSize = 0;
+            lastLagMillis = 0;
+            return 0;
+        }
+        List<String> gameIds = new ArrayList<>(games.size());
+        for (Game game : games) {
+            gameIds.add(game.getId());
+        }
+        Map<String, byte[]> moves = journaledMoves(gameIds);
+        Date archivedAt = new Date(startedAt);
+        long oldestFinish = startedAt;
+        BulkOperations batch = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedGame.class);
+        for (Game game : games) {
+            ArchivedGame archivedGame = new ArchivedGame(game, moves.getOrDefault(game.getId(), new byte[0]), archivedAt);
+            batch.upsert(Query.query(Criteria.where("_id").is(game.getId())), new Update()
+                    .set("board", archivedGame.getBoard())
+                    .set("winnerPlayer", archivedGame.getWinnerPlayer())
+                    .set("computerPlayer", archivedGame.getComputerPlayer())
+                    .set("moveCount", archivedGame.getMoveCount())
+                    .set("finishedAt", archivedGame.getFinishedAt())
+                    .set("moves", archivedGame.getMoves())
+                    .set("archivedAt", archivedAt));
+            if (game.getLastActivity() != null) {
+                oldestFinish = Math.min(oldestFinish, game.getLastActivity().getTime());
+            }
+        }
+        batch.execute();
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(gameIds).and("winnerPlayer").exists(true)), Game.class);
+        mongoTemplate.remove(Query.query(Criteria.where("gameId").in(gameIds)), Move.class);
+        kalahGameCache.evict(gameIds);
+        archivedGames.addAndGet(games.size());
+        lastBatchSize = games.size();
+        // How long after it was due the oldest game of the batch was archived.
+        lastLagMillis = Math.max(0, startedAt - oldestFinish - archiveAfterMillis);
+        logger.debug("Archived " + games.size() + " games in " + (System.currentTimeMillis() - startedAt) + " ms, lag " + lastLagMillis + " ms");
+        return games.size();
+    }
+
+    /**
+     * @return pitIds of the journaled moves of the games in order, by game id.
+     */
+    private Map<String, byte[]> journaledMoves(List<String> gameIds) {
+        Query gameMoves = Query.query(Criteria.where("gameId").in(gameIds)).with(Sort.by("gameId", "sequence"));
+        gameMoves.fields().include("gameId").include("pitId");
+        Map<String, ByteArrayOutputStream> pitIds = new HashMap<>();
+        for (Move move : mongoTemplate.find(gameMoves, Move.class)) {
+            pitIds.computeIfAbsent(move.getGameId(), gameId -> new ByteArrayOutputStream()).write(move.getPitId());
+        }
+        Map<String, byte[]> moves = new HashMap<>(pitIds.size() * 2);
+        pitIds.forEach((gameId, out) -> moves.put(gameId, out.toByteArray()));
+        return moves;
+    }
+
+    /**
+     * @return games archived since start up.
+     */
+    public long getArchivedGames() {
+        return archivedGames.get();
+    }
+
+    /**
+     * @return games archived by the last batch.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * @return how long after it was due the oldest game of the last batch was archived, in ms.
+     */
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+}
@@ -0,0 +1,412 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Bounded in-memory cache of active games in front of {@link KalahRespository}.
+ * Games are kept in LRU order up to application.kalah.cache.max.games. Every read hands out a copy, so each request
+ * works on its own game exactly as it would on a document read from DB.
+ * With {@link Durability#WRITE_BEHIND} saves only mark the game dirty; dirty games are coalesced and written to DB
+ * every application.kalah.cache.flush.interval.millis, when they are evicted and immediately once the game has a winner.
+ * A crash of the node loses the saves of up to one flush interval, so write through is the default.
+ * With {@link Durability#WRITE_THROUGH} every save is written to DB straight away and the cache only serves reads.
+ * A save written straight away only $sets the fields a move changes, see {@link KalahRespositoryCustom#saveMove}.
+ * In journal mode a move is appended to the {@link KalahMoveJournal} on save and the game itself is only written
+ * when a snapshot is due.
+ */
+@Component
+public class KalahGameCache {
+
+    Logger logger = LoggerFactory.getLogger(KalahGameCache.class);
+
+    /**
+     * How soon a saved game reaches DB.
+     */
+    public enum Durability {
+        WRITE_THROUGH,
+        WRITE_BEHIND;
+    }
+
+    @Resource
+    KalahRespository kalahRespository;
+
+    @Resource
+    KalahMoveJournal kalahMoveJournal;
+
+    @Value("${application.kalah.cache.max.games}")
+    Integer maxGames;
+
+    @Value("${application.kalah.cache.durability}")
+    Durability durability;
+
+    private final Map<String, Game> games = new LinkedHashMap<String, Game>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Game> eldest) {
+            if (size() <= maxGames) {
+                return false;
+            }
+            evictions.incrementAndGet();
+            if (dirtyGames.containsKey(eldest.getKey())) {
+                evictedDirtyGames.add(eldest.getKey());
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Games saved but not yet written to DB. Evicted games stay here until flushed so reads never see a stale DB copy.
+     */
+    private final Map<String, DirtyGame> dirtyGames = new ConcurrentHashMap<>();
+
+    private final List<String> evictedDirtyGames = new ArrayList<>();
+
+    private final Object flushLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong flushedGames = new AtomicLong();
+
+    private final AtomicLong conflicts = new AtomicLong();
+
+    private volatile long lastFlushLagMillis;
+
+    /**
+     * Fetch the game from cache, else from DB.
+     * @param gameId
+     * @return copy of the Game if it exists.
+     */
+    public Optional<Game> findById(String gameId) {
+        Game cachedGame;
+        synchronized (games) {
+            cachedGame = games.get(gameId);
+        }
+        if (cachedGame == null) {
+            DirtyGame dirtyGame = dirtyGames.get(gameId);
+            cachedGame = dirtyGame == null ? null : dirtyGame.game;
+        }
+        if (cachedGame != null) {
+            hits.incrementAndGet();
+            return Optional.of(cachedGame.copy());
+        }
+        misses.incrementAndGet();
+        Optional<Game> storedGame = kalahMoveJournal.load(gameId);
+        storedGame.ifPresent(game -> {
+            synchronized (games) {
+                games.putIfAbsent(gameId, game.copy());
+            }
+        });
+        flushEvictedGames();
+        return storedGame;
+    }
+
+    /**
+     * Save the game to cache. The game reaches DB as per the configured {@link Durability}, or straight away once
+     * it has a winner.
+     * The save is a compare-and-set on the version of the game: it only succeeds if the game has not been saved
+     * since it was read, and it moves the game on to the next version. A game played but no longer cached, e.g.
+     * evicted since it was read, is checked against the version stored in DB. If the save fails to reach the journal
+     * or DB, the game goes back to the version read and is dropped from cache, so that the retry reads what DB holds.
+     * @param game
+     * @return the saved Game.
+     * @throws OptimisticLockingFailureException if the game was saved by someone else since it was read.
+     */
+    public Game save(Game game) {
+        long readVersion = game.getVersion();
+        // A game saved without moves is new and not in DB yet.
+        Optional<Game> storedGame = game.getPendingMoves().isEmpty() || isCached(game.getId())
+                ? Optional.empty() : kalahMoveJournal.load(game.getId());
+        Game cachedGame;
+        synchronized (games) {
+            Game currentGame = games.get(game.getId());
+            if (currentGame == null) {
+                DirtyGame dirtyGame = dirtyGames.get(game.getId());
+                currentGame = dirtyGame == null ? storedGame.orElse(null) : dirtyGame.game;
+            }
+            if (currentGame != null && currentGame.getVersion() != readVersion) {
+                conflicts.incrementAndGet();
+                throw new OptimisticLockingFailureException("Game " + game.getId() + " was changed by another move (version "
+                        + readVersion + " was read, version " + currentGame.getVersion() + " is current). Reload the game and retry.");
+            }
+            game.setVersion(readVersion + 1);
+            cachedGame = game.copy();
+            games.put(game.getId(), cachedGame);
+        }
+        try {
+            return persist(game, cachedGame);
+        } catch (RuntimeException e) {
+            game.setVersion(readVersion);
+            synchronized (games) {
+                games.remove(game.getId(), cachedGame);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isCached(String gameId) {
+        synchronized (games) {
+            if (games.containsKey(gameId)) {
+                return true;
+            }
+        }
+        return dirtyGames.containsKey(gameId);
+    }
+
+    /**
+     * Appends the moves of the game to the journal and writes the game as per the configured {@link Durability}.
+     * @param game - game saved, at its new version.
+     * @param cachedGame - copy of the game cached by this save.
+     */
+    private Game persist(Game game, Game cachedGame) {
+        if (kalahMoveJournal.append(game)) {
+            // A snapshot still waiting for a flush is brought up to date, it may be read back once evicted.
+            dirtyGames.computeIfPresent(game.getId(), (gameId, previous) -> previous.game.getVersion() < cachedGame.getVersion()
+                    ? new DirtyGame(cachedGame, previous.dirtySinceMillis) : previous);
+            flushEvictedGames();
+            return game;
+        }
+        synchronized (games) {
+            // The game document is written with this save, see KalahMoveJournal#append.
+            cachedGame.setSnapshotActivity(game.getSnapshotActivity());
+        }
+        if (durability == Durability.WRITE_THROUGH || game.getWinnerPlayer() != null) {
+            synchronized (flushLock) {
+                // A newer version saved meanwhile is written by its own save, this one must not overwrite it.
+                if (latestVersion(game.getId()) <= cachedGame.getVersion()) {
+                    writeMove(cachedGame);
+                    dirtyGames.computeIfPresent(game.getId(), (gameId, previous) -> previous.game.getVersion() <= cachedGame.getVersion() ? null : previous);
+                    flushedGames.incrementAndGet();
+                }
+            }
+        } else {
+            dirtyGames.merge(game.getId(), new DirtyGame(cachedGame, System.currentTimeMillis()),
+                    (previous, latest) -> previous.game.getVersion() < latest.game.getVersion()
+                            ? new DirtyGame(latest.game, previous.dirtySinceMillis) : previous);
+        }
+        flushEvictedGames();
+        return game;
+    }
+
+    /**
+     * Insert new games to DB in one round trip and cache them. Inserting, rather than saving, makes an id that
+     * already exists fail instead of overwriting that game.
+     * @param newGames - games never saved before.
+     * @return the inserted Games.
+     */
+    public List<Game> insertAll(List<Game> newGames) {
+        for (Game game : newGames) {
+            game.setVersion(game.getVersion() + 1);
+            game.setSnapshotActivity(game.getLastActivity());
+        }
+        kalahRespository.insert(newGames);
+        flushedGames.addAndGet(newGames.size());
+        synchronized (games) {
+            for (Game game : newGames) {
+                games.put(game.getId(), game.copy());
+            }
+        }
+        flushEvictedGames();
+        return newGames;
+    }
+
+    /**
+     * Writes the move with a targeted update. If DB already holds this or a newer version, e.g. saved by another
+     * node, the game is dropped from cache so that the retry reads it from DB.
+     */
+    private void writeMove(Game game) {
+        try {
+            kalahRespository.saveMove(game);
+        } catch (OptimisticLockingFailureException e) {
+            conflicts.incrementAndGet();
+            synchronized (games) {
+                games.remove(game.getId());
+            }
+            dirtyGames.remove(game.getId());
+            throw e;
+        }
+    }
+
+    private long latestVersion(String gameId) {
+        synchronized (games) {
+            Game cachedGame = games.get(gameId);
+            return cachedGame == null ? Long.MIN_VALUE : cachedGame.getVersion();
+        }
+    }
+
+    /**
+     * Remove the game from cache and DB.
+     * @param gameId
+     */
+    public void deleteById(String gameId) {
+        synchronized (flushLock) {
+            synchronized (games) {
+                games.remove(gameId);
+            }
+            dirtyGames.remove(gameId);
+            kalahMoveJournal.delete(gameId);
+        }
+    }
+
+    /**
+     * Drops the games from cache without writing them, e.g. once they are archived.
+     * @param gameIds
+     */
+    public void evict(Collection<String> gameIds) {
+        synchronized (flushLock) {
+            synchronized (games) {
+                for (String gameId : gameIds) {
+                    games.remove(gameId);
+                }
+            }
+            dirtyGames.keySet().removeAll(gameIds);
+        }
+    }
+
+    /**
+     * Writes every dirty game to DB. Runs every application.kalah.cache.flush.interval.millis and
+     * on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${application.kalah.cache.flush.interval.millis}")
+    @PreDestroy
+    public void flush() {
+        if (dirtyGames.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            List<DirtyGame> batch = new ArrayList<>(dirtyGames.values());
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch);
+            logger.debug("Flushed " + batch.size() + " games to DB, flush lag " + lastFlushLagMillis + " ms");
+        }
+    }
+
+    /**
+     * Evicted games are flushed right after the put that evicted them, outside the cache lock.
+     */
+    private void flushEvictedGames() {
+        List<DirtyGame> batch = new ArrayList<>();
+        synchronized (games) {
+            if (evictedDirtyGames.isEmpty()) {
+                return;
+            }
+            for (String gameId : evictedDirtyGames) {
+                DirtyGame dirtyGame = dirtyGames.get(gameId);
+                if (dirtyGame != null) {
+                    batch.add(dirtyGame);
+                }
+            }
+            evictedDirtyGames.clear();
+        }
+        synchronized (flushLock) {
+            batch.removeIf(dirtyGame -> dirtyGames.get(dirtyGame.game.getId()) != dirtyGame);
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * Writes each game with the version filtered update of {@link KalahRespositoryCustom#saveMove}, so a flush never
+     * overwrites a newer version written meanwhile by another node or the reactive stack. Such a game is dropped from
+     * cache, its moves saved behind are lost to the newer version, and the next read takes the game from DB.
+     * Must be called holding the flush lock, so that an older copy of a game can never overwrite a newer one in DB.
+     */
+    private void write(List<DirtyGame> batch) {
+        long oldestDirtySinceMillis = Long.MAX_VALUE;
+        for (DirtyGame dirtyGame : batch) {
+            Game game = dirtyGame.game;
+            try {
+                kalahRespository.saveMove(game);
+                flushedGames.incrementAndGet();
+                oldestDirtySinceMillis = Math.min(oldestDirtySinceMillis, dirtyGame.dirtySinceMillis);
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+                logger.warn("Game " + game.getId() + " version " + game.getVersion() + " not flushed, DB holds a newer version");
+                synchronized (games) {
+                    games.remove(game.getId());
+                }
+            }
+            // A game saved again while flushing stays dirty for the next flush.
+            dirtyGames.remove(game.getId(), dirtyGame);
+        }
+        if (oldestDirtySinceMillis != Long.MAX_VALUE) {
+            lastFlushLagMillis = System.currentTimeMillis() - oldestDirtySinceMillis;
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getFlushedGames() {
+        return flushedGames.get();
+    }
+
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    /**
+     * @return games held in the cache of this node, the games in play on it.
+     */
+    public int getCachedGames() {
+        synchronized (games) {
+            return games.size();
+        }
+    }
+
+    public int getDirtyGames() {
+        return dirtyGames.size();
+    }
+
+    /**
+     * @return time the oldest game of the last flush waited between its first unflushed save and being written to DB.
+     */
+    public long getLastFlushLagMillis() {
+        return lastFlushLagMillis;
+    }
+
+    /**
+     * Latest unflushed copy of a game and when it first became dirty.
+     */
+    private static final class DirtyGame {
+        private final Game game;
+        private final long dirtySinceMillis;
+
+        private DirtyGame(Game game, long dirtySinceMillis) {
+            this.game = game;
+            this.dirtySinceMillis = dirtySinceMillis;
+        }
+    }
+}
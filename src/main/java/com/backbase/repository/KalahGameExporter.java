@@ -0,0 +1,372 @@
+package com.backbase.repository;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Export of the stored games for analytics as NDJSON, one game per line:
+ * {"id":..,"pitsPerPlayer":6,"board":[stones by pitId],"nextPlayer":..,"winnerPlayer":..,"computerPlayer":..,"moves":..,"lastActivity":..}
+ * Games are read through a Mongo cursor in batches of application.kalah.export.batch, in game id order, and every batch
+ * is written out before the next one is read, so memory stays the same whatever the number of games.
+ * A batch is handed to the {@link Sink} with the id of its last game, the checkpoint an export resumes after.
+ * In journal mode an active game is exported as of its latest snapshot, moves counting the moves up to it.
+ * Served by GET /games/export, or from the command line against a DB with a checkpoint file to resume a failed export:
+ * KalahGameExporter &lt;mongodb uri&gt; &lt;output file&gt; [all|finished|active] [from] [to]
+ * with the time window on the last activity as ISO instants, gzip compressed if the output file ends with .gz.
+ * Not available on the mapped game store, see {@link MappedKalahRespository}.
+ */
+@Component
+@ConditionalOnProperty(name = "application.kalah.store", havingValue = "MONGO", matchIfMissing = true)
+public class KalahGameExporter {
+
+    /**
+     * Games to export.
+     */
+    public enum Status {
+        ALL,
+        FINISHED,
+        ACTIVE
+    }
+
+    /**
+     * Receives the export a batch at a time.
+     */
+    public interface Sink {
+        /**
+         * @param batch - NDJSON lines of the batch, reset once written.
+         * @param lastGameId - id of the last game of the batch.
+         */
+        void write(ByteArrayOutputStream batch, String lastGameId) throws IOException;
+    }
+
+    static final int MAX_LINE_LENGTH = 512;
+
+    @Resource
+    MongoTemplate mongoTemplate;
+
+    @Value("${application.kalah.export.batch}")
+    Integer exportBatch;
+
+    public static void main(String args[]) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: KalahGameExporter <mongodb uri> <output file> [all|finished|active] [from] [to]");
+            System.exit(1);
+        }
+        ConnectionString connectionString = new ConnectionString(args[0]);
+        Path output = Paths.get(args[1]);
+        String status = args.length > 2 ? args[2] : null;
+        Date from = args.length > 3 ? Date.from(Instant.parse(args[3])) : null;
+        Date to = args.length > 4 ? Date.from(Instant.parse(args[4])) : null;
+        try (MongoClient mongoClient = MongoClients.create(connectionString);
+             FileSink fileSink = FileSink.open(output, output.getFileName().toString().endsWith(".gz"))) {
+            KalahGameExporter kalahGameExporter = new KalahGameExporter();
+            kalahGameExporter.mongoTemplate = mongoTemplate(mongoClient,
+                    connectionString.getDatabase() == null ? "test" : connectionString.getDatabase());
+            kalahGameExporter.exportBatch = 1000;
+            if (fileSink.resumeAfter() != null) {
+                System.out.println("Resuming the export after game " + fileSink.resumeAfter());
+            }
+            long games = kalahGameExporter.export(query(status, from, to, fileSink.resumeAfter()), fileSink);
+            fileSink.finish();
+            System.out.println("Exported " + games + " games to " + output);
+        }
+    }
+
+    /**
+     * Template reading games in the storage format of the application, see {@link BoardConverters}.
+     */
+    private static MongoTemplate mongoTemplate(MongoClient mongoClient, String database) {
+        MongoCustomConversions conversions = new MongoCustomConversions(BoardConverters.converters());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new MongoTemplate(new SimpleMongoClientDatabaseFactory(mongoClient, database), converter);
+    }
+
+    /**
+     * Exports the games of the query, see {@link #query(String, Date, Date, String)}.
+     * @return number of games exported.
+     */
+    public long export(Query games, Sink sink) throws IOException {
+        try (CloseableIterator<Game> cursor = mongoTemplate.stream(games.cursorBatchSize(exportBatch).noCursorTimeout(), Game.class)) {
+            return exportGames(cursor, exportBatch, sink);
+        }
+    }
+
+    /**
+     * Games of the given status whose last activity is within the time window, in game id order.
+     * @param status - all (default), finished or active.
+     * @param from - earliest last activity, inclusive, null for no limit.
+     * @param to - latest last activity, exclusive, null for no limit.
+     * @param afterGameId - checkpoint of an export to resume, null to start from the first game.
+     * @throws KalahValidationException if the status or the time window is not valid.
+     */
+    public static Query query(String status, Date from, Date to, String afterGameId) {
+        return query(status(status), from, to, afterGameId);
+    }
+
+    static Status status(String status) {
+        if (status == null || status.isEmpty()) {
+            return Status.ALL;
+        }
+        try {
+            return Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_EXPORT, "Games to export must be all, finished or active, found : " + status);
+        }
+    }
+
+    static Query query(Status status, Date from, Date to, String afterGameId) {
+        if (from != null && to != null && !from.before(to)) {
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_EXPORT, "Export window must end after it starts : " + from + " to " + to);
+        }
+        Criteria criteria = afterGameId == null ? new Criteria() : Criteria.where("_id").gt(afterGameId);
+        if (status != Status.ALL) {
+            criteria.and("winnerPlayer").exists(status == Status.FINISHED);
+        }
+        if (from != null || to != null) {
+            Criteria lastActivity = criteria.and("lastActivity");
+            if (from != null) {
+                lastActivity.gte(from);
+            }
+            if (to != null) {
+                lastActivity.lt(to);
+            }
+        }
+        return Query.query(criteria).with(Sort.by("_id"));
+    }
+
+    /**
+     * Writes the games as NDJSON to the sink, a batch at a time, through the same buffers all along.
+     * @return number of games exported.
+     */
+    static long exportGames(Iterator<Game> games, int batchSize, Sink sink) throws IOException {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(batchSize * MAX_LINE_LENGTH / 2);
+        Writer writer = new OutputStreamWriter(batch, StandardCharsets.UTF_8);
+        StringBuilder line = new StringBuilder(MAX_LINE_LENGTH);
+        long exportedGames = 0;
+        int batchGames = 0;
+        String lastGameId = null;
+        while (games.hasNext()) {
+            Game game = games.next();
+            // Games read outside the application (command line) are not migrated on read.
+            game.migrateLegacyBoard();
+            line.setLength(0);
+            writer.append(writeLine(line, game));
+            lastGameId = game.getId();
+            if (++batchGames == batchSize) {
+                writer.flush();
+                sink.write(batch, lastGameId);
+                batch.reset();
+                exportedGames += batchGames;
+                batchGames = 0;
+            }
+        }
+        if (batchGames > 0) {
+            writer.flush();
+            sink.write(batch, lastGameId);
+            batch.reset();
+            exportedGames += batchGames;
+        }
+        return exportedGames;
+    }
+
+    /**
+     * @return NDJSON lines of the games.
+     */
+    public static byte[] lines(List<Game> games) {
+        byte[][] lines = new byte[1][];
+        try {
+            exportGames(games.iterator(), games.size(), (batch, lastGameId) -> lines[0] = batch.toByteArray());
+        } catch (IOException e) {
+            // Written to memory only.
+            throw new UncheckedIOException(e);
+        }
+        return lines[0] == null ? new byte[0] : lines[0];
+    }
+
+    static StringBuilder writeLine(StringBuilder line, Game game) {
+        line.append("{\"id\":");
+        writeString(line, game.getId());
+        Board board = game.getBoard();
+        if (board == null) {
+            line.append(",\"pitsPerPlayer\":null,\"board\":null");
+        } else {
+            line.append(",\"pitsPerPlayer\":").append(board.getGeometry().pitsPerPlayer()).append(",\"board\":[");
+            for (int index = 0; index < board.getGeometry().size(); index++) {
+                line.append(index == 0 ? "" : ",").append(board.stones(index));
+            }
+            line.append(']');
+        }
+        writePlayer(line, "nextPlayer", game.getNextPlayer());
+        writePlayer(line, "winnerPlayer", game.getWinnerPlayer());
+        writePlayer(line, "computerPlayer", game.getComputerPlayer());
+        line.append(",\"moves\":").append(game.getMoveSequence()).append(",\"lastActivity\":");
+        if (game.getLastActivity() == null) {
+            line.append("null");
+        } else {
+            line.append('"').append(game.getLastActivity().toInstant()).append('"');
+        }
+        return line.append("}\n");
+    }
+
+    private static void writePlayer(StringBuilder line, String fieldName, Player player) {
+        line.append(",\"").append(fieldName).append("\":");
+        if (player == null) {
+            line.append("null");
+        } else {
+            line.append('"').append(player.name()).append('"');
+        }
+    }
+
+    private static void writeString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * Export to a file that survives a failed export. After every batch the file is synced and a checkpoint of
+     * the last game and the file length is written next to it (output file + .checkpoint). Opening the file again
+     * cuts it back to the checkpoint and resumes after its game. A gzip file is written a batch per gzip member, so
+     * it can be cut between two batches and is read as one stream by gunzip and GZIPInputStream.
+     */
+    public static final class FileSink implements Sink, Closeable {
+
+        private final Path checkpoint;
+
+        private final FileChannel channel;
+
+        private final OutputStream out;
+
+        private final boolean gzip;
+
+        private final String resumeAfter;
+
+        private FileSink(Path output, boolean gzip) throws IOException {
+            this.checkpoint = output.resolveSibling(output.getFileName() + ".checkpoint");
+            this.gzip = gzip;
+            channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (Files.exists(checkpoint)) {
+                List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+                resumeAfter = lines.get(0);
+                channel.truncate(Long.parseLong(lines.get(1)));
+            } else {
+                resumeAfter = null;
+                channel.truncate(0);
+            }
+            channel.position(channel.size());
+            out = Channels.newOutputStream(channel);
+        }
+
+        /**
+         * @param output - file to export to, resumed if it has a checkpoint and replaced otherwise.
+         * @param gzip - true to gzip the export.
+         */
+        public static FileSink open(Path output, boolean gzip) throws IOException {
+            return new FileSink(output, gzip);
+        }
+
+        /**
+         * @return game to resume the export after, null if it starts from the first game.
+         */
+        public String resumeAfter() {
+            return resumeAfter;
+        }
+
+        @Override
+        public void write(ByteArrayOutputStream batch, String lastGameId) throws IOException {
+            if (gzip) {
+                GZIPOutputStream member = new GZIPOutputStream(new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        out.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void close() {
+                        // The file stays open for the next member.
+                    }
+                }, 65536);
+                batch.writeTo(member);
+                member.finish();
+            } else {
+                batch.writeTo(out);
+            }
+            channel.force(false);
+            Path partFile = checkpoint.resolveSibling(checkpoint.getFileName() + ".part");
+            Files.write(partFile, (lastGameId + "\n" + channel.position() + "\n").getBytes(StandardCharsets.UTF_8));
+            Files.move(partFile, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * Marks the export as complete, a later export starts over.
+         */
+        public void finish() throws IOException {
+            Files.deleteIfExists(checkpoint);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
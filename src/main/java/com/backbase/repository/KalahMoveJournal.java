@@ -0,0 +1,142 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import com.backbase.model.Move;
+import com.backbase.service.KalahRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Event sourced persistence of games. With {@link PersistenceMode#JOURNAL} every move is appended to the
+ * {@link KalahMoveRepository} journal instead of rewriting the whole {@link Game} document. The game document is
+ * only written as a snapshot when it is created, every application.kalah.journal.snapshot.moves moves and once it
+ * has a winner, and at least every tenth of application.kalah.expiry.inactive.seconds while it is played. The TTL
+ * indexes allow for that tenth, see {@link #getExpirySlackSeconds()}, so a game expires no sooner than the expiry after
+ * its last move and never with its journal. A game is loaded as its latest snapshot with the journaled moves after it replayed by {@link KalahRules}.
+ * With {@link PersistenceMode#DOCUMENT} the whole game document is written on every save.
+ * Switching from JOURNAL back to DOCUMENT mode is only safe once every active game has been snapshotted.
+ * The mapped game store, see {@link MappedKalahRespository}, has no journal and only runs in DOCUMENT mode.
+ */
+@Component
+public class KalahMoveJournal {
+
+    /**
+     * How a move reaches DB.
+     */
+    public enum PersistenceMode {
+        DOCUMENT,
+        JOURNAL;
+    }
+
+    @Resource
+    KalahRespository kalahRespository;
+
+    /**
+     * Absent on the mapped game store, which runs without MongoDB.
+     */
+    @Autowired(required = false)
+    KalahMoveRepository kalahMoveRepository;
+
+    @Value("${application.kalah.persistence.mode}")
+    PersistenceMode persistenceMode;
+
+    @Value("${application.kalah.journal.snapshot.moves}")
+    Integer snapshotMoves;
+
+    @Value("${application.kalah.expiry.inactive.seconds}")
+    long expirySeconds;
+
+    @PostConstruct
+    public void validatePersistenceMode() {
+        if (persistenceMode == PersistenceMode.JOURNAL && kalahMoveRepository == null) {
+            throw new IllegalStateException("The mapped game store has no move journal, application.kalah.persistence.mode must be DOCUMENT");
+        }
+    }
+
+    /**
+     * Appends the moves played on the game since it was read to the journal, in one insert.
+     * @param game - game saved after one or more moves.
+     * @return true if the moves are journaled and the game document need not be written, false if the game has to be
+     * written as a whole (document mode, new game or snapshot due).
+     */
+    public boolean append(Game game) {
+        List<Move> pendingMoves = game.getPendingMoves();
+        if (persistenceMode != PersistenceMode.JOURNAL || pendingMoves.isEmpty()) {
+            game.setSnapshotActivity(game.getLastActivity());
+            return false;
+        }
+        kalahMoveRepository.insert(pendingMoves);
+        long previousSequence = game.getMoveSequence() - pendingMoves.size();
+        if (game.getWinnerPlayer() == null && previousSequence / snapshotMoves == game.getMoveSequence() / snapshotMoves
+                && !snapshotExpiring(game)) {
+            return true;
+        }
+        game.setSnapshotActivity(game.getLastActivity());
+        return false;
+    }
+
+    private boolean snapshotExpiring(Game game) {
+        if (expirySeconds <= 0) {
+            return false;
+        }
+        Date snapshotActivity = game.getSnapshotActivity();
+        return snapshotActivity == null
+                || game.getLastActivity().getTime() - snapshotActivity.getTime() > TimeUnit.SECONDS.toMillis(getExpirySlackSeconds());
+    }
+
+    /**
+     * @return how long the last activity of a stored game may lag behind its last move, in seconds. A journaled move
+     * does not touch the game document, whose snapshot is renewed after a tenth of the expiry; 0 in document mode.
+     */
+    public long getExpirySlackSeconds() {
+        return persistenceMode == PersistenceMode.JOURNAL ? (expirySeconds + 9) / 10 : 0;
+    }
+
+    /**
+     * Loads the game from DB, replaying the journaled moves after its snapshot in journal mode. Every replayed move
+     * counts as a save of its own, so the version of the loaded game is never one handed out before, even when a save
+     * held several moves, e.g. for the ids of {@link com.backbase.service.KalahGameEvents} or the preview ETag.
+     * @param gameId
+     * @return Game with its current board if it exists.
+     */
+    public Optional<Game> load(String gameId) {
+        Optional<Game> snapshot = kalahRespository.findById(gameId);
+        if (persistenceMode != PersistenceMode.JOURNAL || !snapshot.isPresent()) {
+            return snapshot;
+        }
+        Game game = snapshot.get();
+        game.setSnapshotActivity(game.getLastActivity());
+        Date lastActivity = game.getLastActivity();
+        for (Move move : kalahMoveRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(gameId, game.getMoveSequence())) {
+            if (move.getSequence() != game.getMoveSequence() + 1 || move.getPlayer() != KalahRules.currentPlayer(game)) {
+                throw new IllegalStateException("Move journal of game " + gameId + " does not follow on from move " + game.getMoveSequence() + " : " + move);
+            }
+            KalahRules.applyMove(game, move.getPitId());
+            game.setVersion(game.getVersion() + 1);
+            lastActivity = move.getPlayedAt() == null ? lastActivity : move.getPlayedAt();
+        }
+        // Replayed moves were played when journaled, not now.
+        game.setLastActivity(lastActivity);
+        return Optional.of(game.copy());
+    }
+
+    /**
+     * Removes the game and its journaled moves.
+     * @param gameId
+     */
+    public void delete(String gameId) {
+        kalahRespository.deleteById(gameId);
+        if (kalahMoveRepository != null) {
+            kalahMoveRepository.deleteByGameId(gameId);
+        }
+    }
+}
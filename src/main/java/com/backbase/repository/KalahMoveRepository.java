@@ -0,0 +1,19 @@
+package com.backbase.repository;
+
+import com.backbase.model.Move;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Mongo Repository for the append-only journal of moves.
+ */
+@Repository
+public interface KalahMoveRepository extends MongoRepository<Move,String> {
+
+    List<Move> findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(String gameId, long sequence);
+
+    void deleteByGameId(String gameId);
+}
@@ -6,8 +6,13 @@ import org.springframework.stereotype.Repository;
 
 /**
  * @author nandk on 06/03/2021.
- * Mongo Repository defined for CRUD operations.
+ * Mongo Repository defined for CRUD operations, and targeted writes of moves, see {@link KalahRespositoryCustom}.
  */
 @Repository
-public interface KalahRespository extends MongoRepository<Game,String> {
+public interface KalahRespository extends MongoRepository<Game,String>, KalahRespositoryCustom {
+
+    /**
+     * @return number of stored games without a winner yet, i.e. the games in play.
+     */
+    long countByWinnerPlayerIsNull();
 }
@@ -0,0 +1,20 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Targeted writes of {@link KalahRespository}, implemented on MongoTemplate by {@link KalahRespositoryCustomImpl}.
+ */
+public interface KalahRespositoryCustom {
+
+    /**
+     * Writes the fields a move changes (board, turn, winner, move sequence and version) with one $set update instead
+     * of replacing the whole document, and inserts the game if it is not in DB yet. The update only applies while DB
+     * holds an older version of the game, so a version is never written twice nor overwritten by an older one.
+     * @param game - game saved after one or more moves.
+     * @throws OptimisticLockingFailureException if DB already holds this or a newer version of the game.
+     */
+    void saveMove(Game game);
+}
@@ -0,0 +1,69 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import javax.annotation.Resource;
+
+/**
+ * @author nandk on 18/10/2026.
+ * MongoTemplate implementation of {@link KalahRespositoryCustom}, picked up by Spring Data for {@link KalahRespository}.
+ */
+public class KalahRespositoryCustomImpl implements KalahRespositoryCustom {
+
+    @Resource
+    MongoTemplate mongoTemplate;
+
+    @Override
+    public void saveMove(Game game) {
+        // A game stored before versioning has no version, which counts as version 0.
+        Query olderVersion = Query.query(Criteria.where("id").is(game.getId()).orOperator(
+                Criteria.where("version").lt(game.getVersion()), Criteria.where("version").exists(false)));
+        try {
+            // Upsert, a game created or played under write behind may reach DB for the first time with a move.
+            Update update = moveUpdate(game).setOnInsert("url", game.getUrl());
+            if (game.getComputerPlayer() != null) {
+                update.setOnInsert("computerPlayer", game.getComputerPlayer());
+            }
+            mongoTemplate.upsert(olderVersion, update, Game.class);
+        } catch (DuplicateKeyException e) {
+            // DB holds this or a newer version, so the upsert tried to insert the game a second time.
+            throw new OptimisticLockingFailureException("Game " + game.getId() + " was changed by another move (version "
+                    + game.getVersion() + " is already in DB). Reload the game and retry.", e);
+        }
+    }
+
+    /**
+     * Adds the version a game was read with to the criteria of its game. A game stored before versioning has no
+     * version and is read as version 0.
+     */
+    static Criteria andReadVersion(Criteria game, long readVersion) {
+        if (readVersion == 0) {
+            return game.orOperator(Criteria.where("version").is(readVersion), Criteria.where("version").exists(false));
+        }
+        return game.and("version").is(readVersion);
+    }
+
+    /**
+     * $set of the fields a move changes. The board is one packed field of a few bytes, so it is set as a whole.
+     * The legacy board of a game stored before the packed format is dropped on its first move.
+     */
+    static Update moveUpdate(Game game) {
+        Update update = new Update()
+                .set("board", game.getBoard())
+                .set("nextPlayer", game.getNextPlayer())
+                .set("moveSequence", game.getMoveSequence())
+                .set("version", game.getVersion())
+                .set("lastActivity", game.getLastActivity())
+                .unset(LegacyGameMigration.LEGACY_BOARD_FIELD);
+        if (game.getWinnerPlayer() != null) {
+            update.set("winnerPlayer", game.getWinnerPlayer());
+        }
+        return update;
+    }
+}
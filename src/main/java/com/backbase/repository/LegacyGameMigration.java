@@ -0,0 +1,128 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveAfterConvertCallback;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Migration of games stored before the packed board format of {@link BoardConverters}, whose board is a list of
+ * Pit/Kalah sub-documents in currentGameStats.
+ * Every game read from a legacy document has its board moved into the packed board straight away, so the rest of
+ * the application never sees the legacy format and the next save of the game stores it packed.
+ * Games that are not played again, e.g. finished ones, are rewritten in batches of application.kalah.storage.migrate.batch
+ * on start up if application.kalah.storage.migrate.on.startup is set. A game is only rewritten if it was not saved
+ * meanwhile, so the migration can run while games are played, also on other nodes.
+ */
+@Component
+@ConditionalOnProperty(name = "application.kalah.store", havingValue = "MONGO", matchIfMissing = true)
+public class LegacyGameMigration implements AfterConvertCallback<Game>, ApplicationRunner {
+
+    Logger logger = LoggerFactory.getLogger(LegacyGameMigration.class);
+
+    static final String LEGACY_BOARD_FIELD = "currentGameStats";
+
+    /**
+     * Lazy, the template is only built once the converter holding this callback is.
+     */
+    @Lazy
+    @Resource
+    MongoTemplate mongoTemplate;
+
+    @Value("${application.kalah.storage.migrate.on.startup}")
+    boolean migrateOnStartup;
+
+    @Value("${application.kalah.storage.migrate.batch}")
+    Integer migrateBatch;
+
+    private final LongAdder legacyReads = new LongAdder();
+
+    @Override
+    public Game onAfterConvert(Game game, Document document, String collection) {
+        if (game.migrateLegacyBoard()) {
+            legacyReads.increment();
+        }
+        return game;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            logger.info("Migrated " + migrateAll() + " legacy games to the packed board format");
+        }
+    }
+
+    /**
+     * Rewrites every game still stored in the legacy format with its packed board.
+     * @return number of games rewritten.
+     */
+    public long migrateAll() {
+        Query legacyGames = Query.query(Criteria.where(LEGACY_BOARD_FIELD).exists(true));
+        long migratedGames = 0;
+        try (CloseableIterator<Game> games = mongoTemplate.stream(legacyGames, Game.class)) {
+            BulkOperations batch = null;
+            int batchSize = 0;
+            while (games.hasNext()) {
+                Game game = games.next();
+                if (batch == null) {
+                    batch = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Game.class);
+                }
+                Criteria legacyGame = Criteria.where("_id").is(game.getId()).and(LEGACY_BOARD_FIELD).exists(true);
+                batch.updateOne(Query.query(KalahRespositoryCustomImpl.andReadVersion(legacyGame, game.getVersion())),
+                        new Update().set("board", game.getBoard()).unset(LEGACY_BOARD_FIELD));
+                if (++batchSize == migrateBatch) {
+                    migratedGames += batch.execute().getModifiedCount();
+                    batch = null;
+                    batchSize = 0;
+                }
+            }
+            if (batch != null) {
+                migratedGames += batch.execute().getModifiedCount();
+            }
+        }
+        return migratedGames;
+    }
+
+    /**
+     * @return number of games read from a legacy document since start up.
+     */
+    public long getLegacyReads() {
+        return legacyReads.sum();
+    }
+
+    /**
+     * Same move of the legacy board for games read by the reactive repository.
+     */
+    @Component
+    @ConditionalOnProperty(name = "application.kalah.store", havingValue = "MONGO", matchIfMissing = true)
+    public static class ReactiveLegacyGameMigration implements ReactiveAfterConvertCallback<Game> {
+
+        @Resource
+        LegacyGameMigration legacyGameMigration;
+
+        @Override
+        public Publisher<Game> onAfterConvert(Game game, Document document, String collection) {
+            return Mono.just(legacyGameMigration.onAfterConvert(game, document, collection));
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Games kept as fixed width records in a memory-mapped file, without MongoDB, see {@link MappedKalahRespository}.
+ * The file is a header of {@link #HEADER_SIZE} bytes (magic, record size and the number of slots ever used) followed
+ * by one record of {@link #RECORD_SIZE} bytes per slot: state, id, pits per player, next/winner/computer player, move
+ * sequence, version, last activity and the stones of the board. The file is mapped {@link #SEGMENT_SLOTS} slots at a
+ * time, as slots are first used, up to a fixed number of games.
+ * The id to slot index is an open addressing hash table in a direct buffer, off the heap, each entry holding the
+ * hash of the id and the slot; ids are compared against the record. Freed slots are kept on a stack in a direct buffer
+ * and reused before new ones. Index and free slots are rebuilt from the records when the file is opened again.
+ * A record is written in place and a new one is only marked used once written, so a game being inserted when the
+ * process dies is not there on restart. Writes survive a crash of the process as soon as they are made; they reach
+ * the disk when the OS writes the pages back, or on {@link #force()}.
+ * Calls are serialized on the store. A write allocates nothing, a read only the {@link Game} it returns.
+ */
+public final class MappedGameStore implements Closeable {
+
+    static final int MAGIC = 0x4B4C4831;
+
+    static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 160;
+
+    static final int MAX_ID_LENGTH = 40;
+
+    static final int SEGMENT_BITS = 20;
+
+    static final int SEGMENT_SLOTS = 1 << SEGMENT_BITS;
+
+    /**
+     * Largest number of games, so that the index, two entries per game, fits one direct buffer.
+     */
+    public static final int MAX_GAMES = 1 << 26;
+
+    private static final int HEADER_RECORD_SIZE = 4;
+
+    private static final int HEADER_USED_SLOTS = 8;
+
+    private static final int STATE = 0;
+
+    private static final int ID_LENGTH = 1;
+
+    private static final int PITS_PER_PLAYER = 2;
+
+    private static final int NEXT_PLAYER = 3;
+
+    private static final int WINNER_PLAYER = 4;
+
+    private static final int COMPUTER_PLAYER = 5;
+
+    private static final int MOVE_SEQUENCE = 8;
+
+    private static final int VERSION = 16;
+
+    private static final int LAST_ACTIVITY = 24;
+
+    private static final int ID = 32;
+
+    private static final int STONES = ID + MAX_ID_LENGTH;
+
+    private static final byte FREE = 0;
+
+    private static final byte USED = 1;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final Player[] PLAYERS = Player.values();
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer header;
+
+    private final MappedByteBuffer[] segments;
+
+    private final int maxGames;
+
+    private final String url;
+
+    private final LongBuffer index;
+
+    private final int indexMask;
+
+    private final IntBuffer freeSlots;
+
+    private int freeCount;
+
+    private int usedSlots;
+
+    private int games;
+
+    /**
+     * Stones of a record being read, by board size.
+     */
+    private final int[][] stoneBuffers = new int[BoardGeometry.MAX_SIZE + 1][];
+
+    private MappedGameStore(Path file, FileChannel channel, int maxGames, String url) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.maxGames = maxGames;
+        this.url = url;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        this.segments = new MappedByteBuffer[(maxGames + SEGMENT_SLOTS - 1) >>> SEGMENT_BITS];
+        int indexSize = Integer.highestOneBit(Math.max(maxGames, 1) * 2 - 1) << 1;
+        this.index = ByteBuffer.allocateDirect(indexSize * Long.BYTES).asLongBuffer();
+        this.indexMask = indexSize - 1;
+        this.freeSlots = ByteBuffer.allocateDirect(maxGames * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Opens the store, creating the file if it does not exist, and rebuilds its index from the records.
+     * @param file - file of the store.
+     * @param maxGames - most games the store holds, at most {@link #MAX_GAMES}.
+     * @param url - url of the games, their id appended, as application.kalah.end.point.
+     * @return the open store.
+     * @throws IOException if the file cannot be mapped or is not a store of this format.
+     */
+    public static MappedGameStore open(Path file, int maxGames, String url) throws IOException {
+        if (maxGames < 1 || maxGames > MAX_GAMES) {
+            throw new IllegalArgumentException("A game store holds 1 to " + MAX_GAMES + " games : " + maxGames);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedGameStore store = new MappedGameStore(file, channel, maxGames, url);
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void recover() throws IOException {
+        if (header.getInt(0) == 0) {
+            header.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+            header.putInt(HEADER_USED_SLOTS, 0);
+            header.putInt(0, MAGIC);
+        } else if (header.getInt(0) != MAGIC || header.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException(file + " is not a game store of this version");
+        }
+        usedSlots = header.getInt(HEADER_USED_SLOTS);
+        if (usedSlots > maxGames) {
+            throw new IOException(file + " has " + usedSlots + " slots, more than the " + maxGames + " games it may hold");
+        }
+        // Freed slots are stacked from the last one, so the first ones are reused first.
+        for (int slot = usedSlots - 1; slot >= 0; slot--) {
+            ByteBuffer records = records(slot);
+            int record = recordOf(slot);
+            if (records.get(record + STATE) == USED) {
+                int idLength = records.get(record + ID_LENGTH);
+                int hash = 0;
+                for (int at = 0; at < idLength; at++) {
+                    hash = 31 * hash + records.get(record + ID + at);
+                }
+                addToIndex(mix(hash), slot);
+                games++;
+            } else {
+                freeSlots.put(freeCount++, slot);
+            }
+        }
+    }
+
+    /**
+     * @param gameId
+     * @return the stored game, null if there is none.
+     */
+    public synchronized Game find(String gameId) {
+        int slot = slotOf(gameId);
+        return slot < 0 ? null : read(slot, gameId);
+    }
+
+    public synchronized boolean exists(String gameId) {
+        return slotOf(gameId) >= 0;
+    }
+
+    /**
+     * @return every stored game, in slot order.
+     */
+    public synchronized List<Game> findAll() {
+        List<Game> allGames = new ArrayList<>(games);
+        for (int slot = 0; slot < usedSlots; slot++) {
+            ByteBuffer records = records(slot);
+            int record = recordOf(slot);
+            if (records.get(record + STATE) == USED) {
+                char[] id = new char[records.get(record + ID_LENGTH)];
+                for (int at = 0; at < id.length; at++) {
+                    id[at] = (char) records.get(record + ID + at);
+                }
+                allGames.add(read(slot, new String(id)));
+            }
+        }
+        return allGames;
+    }
+
+    /**
+     * Stores a new game.
+     * @param game
+     * @return false if a game with this id is stored already, which is left as it is.
+     */
+    public synchronized boolean insert(Game game) {
+        if (slotOf(game.getId()) >= 0) {
+            return false;
+        }
+        add(game);
+        return true;
+    }
+
+    /**
+     * Stores the game, replacing the stored one with the same id whatever its version.
+     * @param game
+     */
+    public synchronized void save(Game game) {
+        int slot = slotOf(game.getId());
+        if (slot < 0) {
+            add(game);
+        } else {
+            write(slot, game);
+        }
+    }
+
+    /**
+     * Stores the game unless this or a newer version of it is stored already.
+     * @param game
+     * @return false if the stored game is at this or a newer version, which is left as it is.
+     */
+    public synchronized boolean saveIfNewer(Game game) {
+        int slot = slotOf(game.getId());
+        if (slot < 0) {
+            add(game);
+            return true;
+        }
+        if (records(slot).getLong(recordOf(slot) + VERSION) >= game.getVersion()) {
+            return false;
+        }
+        write(slot, game);
+        return true;
+    }
+
+    /**
+     * Removes the game, its slot is reused by the next game stored.
+     * @param gameId
+     * @return false if there was no such game.
+     */
+    public synchronized boolean delete(String gameId) {
+        if (!encodable(gameId)) {
+            return false;
+        }
+        int hash = hashOf(gameId);
+        for (int position = hash & indexMask; ; position = (position + 1) & indexMask) {
+            long entry = index.get(position);
+            if (entry == 0) {
+                return false;
+            }
+            int slot = (int) entry - 1;
+            if ((int) (entry >>> 32) == hash && idEquals(slot, gameId)) {
+                records(slot).put(recordOf(slot) + STATE, FREE);
+                removeFromIndex(position);
+                freeSlots.put(freeCount++, slot);
+                games--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes every game.
+     */
+    public synchronized void deleteAll() {
+        freeCount = 0;
+        for (int slot = usedSlots - 1; slot >= 0; slot--) {
+            records(slot).put(recordOf(slot) + STATE, FREE);
+            freeSlots.put(freeCount++, slot);
+        }
+        for (int position = 0; position <= indexMask; position++) {
+            index.put(position, 0);
+        }
+        games = 0;
+    }
+
+    /**
+     * @return games stored.
+     */
+    public synchronized int size() {
+        return games;
+    }
+
+    /**
+     * @return slots ever used, the records the file holds.
+     */
+    synchronized int getUsedSlots() {
+        return usedSlots;
+    }
+
+    /**
+     * @return most games the store holds.
+     */
+    public int getMaxGames() {
+        return maxGames;
+    }
+
+    /**
+     * Writes the pages changed so far to disk.
+     */
+    public synchronized void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                segment.force();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void add(Game game) {
+        if (!encodable(game.getId())) {
+            throw new IllegalArgumentException("Game id " + game.getId() + " cannot be stored, ids are up to " + MAX_ID_LENGTH + " ASCII characters");
+        }
+        int slot;
+        if (freeCount != 0) {
+            slot = freeSlots.get(--freeCount);
+        } else if (usedSlots < maxGames) {
+            slot = usedSlots++;
+            // Counted before the record is written, a slot left unwritten is found free on restart.
+            header.putInt(HEADER_USED_SLOTS, usedSlots);
+        } else {
+            throw new IllegalStateException("Game store " + file + " is full with " + maxGames + " games");
+        }
+        ByteBuffer records = records(slot);
+        int record = recordOf(slot);
+        String gameId = game.getId();
+        records.put(record + ID_LENGTH, (byte) gameId.length());
+        for (int at = 0; at < gameId.length(); at++) {
+            records.put(record + ID + at, (byte) gameId.charAt(at));
+        }
+        write(slot, game);
+        records.put(record + STATE, USED);
+        addToIndex(hashOf(gameId), slot);
+        games++;
+    }
+
+    private void write(int slot, Game game) {
+        Board board = game.getBoard();
+        if (board == null) {
+            throw new IllegalArgumentException("Game " + game.getId() + " has no board to store");
+        }
+        ByteBuffer records = records(slot);
+        int record = recordOf(slot);
+        BoardGeometry geometry = board.getGeometry();
+        records.put(record + PITS_PER_PLAYER, (byte) geometry.pitsPerPlayer());
+        records.put(record + NEXT_PLAYER, playerCode(game.getNextPlayer()));
+        records.put(record + WINNER_PLAYER, playerCode(game.getWinnerPlayer()));
+        records.put(record + COMPUTER_PLAYER, playerCode(game.getComputerPlayer()));
+        records.putLong(record + MOVE_SEQUENCE, game.getMoveSequence());
+        records.putLong(record + VERSION, game.getVersion());
+        records.putLong(record + LAST_ACTIVITY, game.getLastActivity() == null ? NO_DATE : game.getLastActivity().getTime());
+        for (int slotIndex = 0; slotIndex < geometry.size(); slotIndex++) {
+            records.putInt(record + STONES + slotIndex * Integer.BYTES, board.stones(slotIndex));
+        }
+    }
+
+    private Game read(int slot, String gameId) {
+        ByteBuffer records = records(slot);
+        int record = recordOf(slot);
+        int size = (records.get(record + PITS_PER_PLAYER) + 1) * 2;
+        int[] stones = stoneBuffers[size];
+        if (stones == null) {
+            stones = stoneBuffers[size] = new int[size];
+        }
+        for (int slotIndex = 0; slotIndex < size; slotIndex++) {
+            stones[slotIndex] = records.getInt(record + STONES + slotIndex * Integer.BYTES);
+        }
+        Game game = new Game(gameId, Board.fromStones(stones), player(records.get(record + NEXT_PLAYER)), url);
+        game.setWinnerPlayer(player(records.get(record + WINNER_PLAYER)));
+        game.setComputerPlayer(player(records.get(record + COMPUTER_PLAYER)));
+        game.setMoveSequence(records.getLong(record + MOVE_SEQUENCE));
+        game.setVersion(records.getLong(record + VERSION));
+        long lastActivity = records.getLong(record + LAST_ACTIVITY);
+        game.setLastActivity(lastActivity == NO_DATE ? null : new Date(lastActivity));
+        return game;
+    }
+
+    private int slotOf(String gameId) {
+        if (!encodable(gameId)) {
+            return -1;
+        }
+        int hash = hashOf(gameId);
+        for (int position = hash & indexMask; ; position = (position + 1) & indexMask) {
+            long entry = index.get(position);
+            if (entry == 0) {
+                return -1;
+            }
+            int slot = (int) entry - 1;
+            if ((int) (entry >>> 32) == hash && idEquals(slot, gameId)) {
+                return slot;
+            }
+        }
+    }
+
+    private void addToIndex(int hash, int slot) {
+        int position = hash & indexMask;
+        while (index.get(position) != 0) {
+            position = (position + 1) & indexMask;
+        }
+        index.put(position, (long) hash << 32 | (slot + 1L));
+    }
+
+    /**
+     * Empties the entry and moves the entries probed past it back, so that every entry stays reachable from its hash
+     * without leaving tombstones behind.
+     */
+    private void removeFromIndex(int position) {
+        int empty = position;
+        for (int next = (empty + 1) & indexMask; ; next = (next + 1) & indexMask) {
+            long entry = index.get(next);
+            if (entry == 0) {
+                break;
+            }
+            int home = (int) (entry >>> 32) & indexMask;
+            // The entry may move back unless its home lies cyclically in (empty, next].
+            boolean stays = empty <= next ? home > empty && home <= next : home > empty || home <= next;
+            if (!stays) {
+                index.put(empty, entry);
+                empty = next;
+            }
+        }
+        index.put(empty, 0);
+    }
+
+    private boolean idEquals(int slot, String gameId) {
+        ByteBuffer records = records(slot);
+        int record = recordOf(slot);
+        if (records.get(record + ID_LENGTH) != gameId.length()) {
+            return false;
+        }
+        for (int at = 0; at < gameId.length(); at++) {
+            if (records.get(record + ID + at) != gameId.charAt(at)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer records(int slot) {
+        int segment = slot >>> SEGMENT_BITS;
+        MappedByteBuffer records = segments[segment];
+        if (records == null) {
+            long slots = Math.min(SEGMENT_SLOTS, maxGames - ((long) segment << SEGMENT_BITS));
+            try {
+                records = channel.map(FileChannel.MapMode.READ_WRITE,
+                        HEADER_SIZE + ((long) segment << SEGMENT_BITS) * RECORD_SIZE, slots * RECORD_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map the games of " + file, e);
+            }
+            segments[segment] = records;
+        }
+        return records;
+    }
+
+    private static int recordOf(int slot) {
+        return (slot & (SEGMENT_SLOTS - 1)) * RECORD_SIZE;
+    }
+
+    private static boolean encodable(String gameId) {
+        if (gameId == null || gameId.isEmpty() || gameId.length() > MAX_ID_LENGTH) {
+            return false;
+        }
+        for (int at = 0; at < gameId.length(); at++) {
+            if (gameId.charAt(at) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash of the id, for ASCII ids the same as the one worked out from the record on recovery.
+     */
+    private static int hashOf(String gameId) {
+        return mix(gameId.hashCode());
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static byte playerCode(Player player) {
+        return player == null ? 0 : (byte) (player.ordinal() + 1);
+    }
+
+    private static Player player(byte code) {
+        return code == 0 ? null : PLAYERS[code - 1];
+    }
+}
@@ -0,0 +1,345 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * @author nandk on 18/10/2026.
+ * {@link KalahRespository} on a {@link MappedGameStore} instead of MongoDB, for edge deployments and load tests,
+ * opted into with application.kalah.store=MAPPED (Spring profile "mapped"). Games are kept in the memory-mapped file
+ * application.kalah.store.file, up to application.kalah.store.max.games, and are there again after a restart.
+ * Serves the blocking stack in document mode, the calls made by {@link KalahGameCache} and {@link KalahMoveJournal}
+ * going by id. Queries by example, sort or page scan all stored games and match, sort and page them in memory.
+ */
+@Component
+@ConditionalOnProperty(name = "application.kalah.store", havingValue = "MAPPED")
+public class MappedKalahRespository implements KalahRespository {
+
+    Logger logger = LoggerFactory.getLogger(MappedKalahRespository.class);
+
+    @Value("${application.kalah.store.file}")
+    String storeFile;
+
+    @Value("${application.kalah.store.max.games}")
+    Integer maxGames;
+
+    @Value("${application.kalah.end.point}")
+    String kalahApplicationEndPoint;
+
+    /**
+     * Fields of a game as stored in MongoDB, those queries by example match on.
+     */
+    private static final List<Field> STORED_FIELDS = new ArrayList<>();
+
+    static {
+        ReflectionUtils.doWithFields(Game.class, field -> {
+            ReflectionUtils.makeAccessible(field);
+            STORED_FIELDS.add(field);
+        }, field -> !Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(Transient.class));
+    }
+
+    private MappedGameStore store;
+
+    @PostConstruct
+    public void open() throws IOException {
+        store = MappedGameStore.open(Paths.get(storeFile), maxGames, kalahApplicationEndPoint);
+        logger.info("Opened game store " + storeFile + " holding " + store.size() + " of up to " + maxGames + " games");
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+    @Override
+    public void saveMove(Game game) {
+        if (!store.saveIfNewer(game)) {
+            throw new OptimisticLockingFailureException("Game " + game.getId() + " was changed by another move (version "
+                    + game.getVersion() + " is already stored). Reload the game and retry.");
+        }
+    }
+
+    @Override
+    public <S extends Game> S insert(S game) {
+        if (!store.insert(game)) {
+            throw new DuplicateKeyException("Game " + game.getId() + " is stored already");
+        }
+        return game;
+    }
+
+    @Override
+    public <S extends Game> List<S> insert(Iterable<S> games) {
+        List<S> insertedGames = new ArrayList<>();
+        for (S game : games) {
+            insertedGames.add(insert(game));
+        }
+        return insertedGames;
+    }
+
+    @Override
+    public <S extends Game> S save(S game) {
+        store.save(game);
+        return game;
+    }
+
+    @Override
+    public <S extends Game> List<S> saveAll(Iterable<S> games) {
+        List<S> savedGames = new ArrayList<>();
+        for (S game : games) {
+            savedGames.add(save(game));
+        }
+        return savedGames;
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        return Optional.ofNullable(store.find(gameId));
+    }
+
+    @Override
+    public boolean existsById(String gameId) {
+        return store.exists(gameId);
+    }
+
+    @Override
+    public List<Game> findAll() {
+        return store.findAll();
+    }
+
+    @Override
+    public Iterable<Game> findAllById(Iterable<String> gameIds) {
+        List<Game> games = new ArrayList<>();
+        for (String gameId : gameIds) {
+            findById(gameId).ifPresent(games::add);
+        }
+        return games;
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public long countByWinnerPlayerIsNull() {
+        return store.findAll().stream().filter(game -> game.getWinnerPlayer() == null).count();
+    }
+
+    @Override
+    public void deleteById(String gameId) {
+        store.delete(gameId);
+    }
+
+    @Override
+    public void delete(Game game) {
+        store.delete(game.getId());
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Game> games) {
+        for (Game game : games) {
+            delete(game);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        store.deleteAll();
+    }
+
+    @Override
+    public List<Game> findAll(Sort sort) {
+        return sorted(store.findAll(), sort);
+    }
+
+    @Override
+    public Page<Game> findAll(Pageable pageable) {
+        return page(store.findAll(), pageable);
+    }
+
+    @Override
+    public <S extends Game> Optional<S> findOne(Example<S> example) {
+        List<S> games = findAll(example);
+        if (games.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, games.size());
+        }
+        return games.stream().findFirst();
+    }
+
+    @Override
+    public <S extends Game> List<S> findAll(Example<S> example) {
+        List<S> games = new ArrayList<>();
+        for (Game game : store.findAll()) {
+            if (matches(example, game)) {
+                games.add(example.getProbeType().cast(game));
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public <S extends Game> List<S> findAll(Example<S> example, Sort sort) {
+        return sorted(findAll(example), sort);
+    }
+
+    @Override
+    public <S extends Game> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return page(findAll(example), pageable);
+    }
+
+    @Override
+    public <S extends Game> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends Game> boolean exists(Example<S> example) {
+        for (Game game : store.findAll()) {
+            if (matches(example, game)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the game store, e.g. for its metrics.
+     */
+    public MappedGameStore getStore() {
+        return store;
+    }
+
+    /**
+     * Sorts games by their stored fields, as MongoDB would.
+     */
+    private static <S extends Game> List<S> sorted(List<S> games, Sort sort) {
+        Comparator<S> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<S> byField = (first, second) -> compareField(fieldValue(first, order.getProperty()), fieldValue(second, order.getProperty()), order);
+            comparator = comparator == null ? byField : comparator.thenComparing(byField);
+        }
+        if (comparator != null) {
+            games.sort(comparator);
+        }
+        return games;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareField(Object first, Object second, Sort.Order order) {
+        if (first == null || second == null) {
+            if (first == second) {
+                return 0;
+            }
+            // Nulls come first in ascending order unless the order says otherwise.
+            boolean nullsLast = order.getNullHandling() == Sort.NullHandling.NULLS_LAST
+                    || (order.getNullHandling() == Sort.NullHandling.NATIVE && order.isDescending());
+            return (first == null) == nullsLast ? 1 : -1;
+        }
+        if (!(first instanceof Comparable)) {
+            throw new InvalidDataAccessApiUsageException("Games cannot be sorted by " + order.getProperty());
+        }
+        int comparison = order.isIgnoreCase() && first instanceof String
+                ? ((String) first).compareToIgnoreCase((String) second)
+                : ((Comparable) first).compareTo(second);
+        return order.isAscending() ? comparison : -comparison;
+    }
+
+    private static <S extends Game> Page<S> page(List<S> games, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(games);
+        }
+        sorted(games, pageable.getSort());
+        int from = (int) Math.min(pageable.getOffset(), games.size());
+        int to = Math.min(from + pageable.getPageSize(), games.size());
+        return new PageImpl<>(new ArrayList<>(games.subList(from, to)), pageable, games.size());
+    }
+
+    /**
+     * Matches a game against the stored fields of the probe, by the rules of the {@link ExampleMatcher} of the example.
+     * Fields of the game that are not stored, e.g. its status, take no part.
+     */
+    private static boolean matches(Example<? extends Game> example, Game game) {
+        if (!example.getProbeType().isInstance(game)) {
+            return false;
+        }
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        boolean allMatching = example.getMatcher().isAllMatching();
+        for (Field field : STORED_FIELDS) {
+            String path = field.getName();
+            if (matcher.isIgnoredPath(path)) {
+                continue;
+            }
+            Object probeValue = matcher.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(ReflectionUtils.getField(field, example.getProbe()))).orElse(null);
+            if (probeValue == null && matcher.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            boolean fieldMatches = matchesField(probeValue, ReflectionUtils.getField(field, game), matcher, path);
+            if (fieldMatches != allMatching) {
+                return fieldMatches;
+            }
+        }
+        return allMatching;
+    }
+
+    private static boolean matchesField(Object probeValue, Object value, ExampleMatcherAccessor matcher, String path) {
+        if (!(probeValue instanceof String) || !(value instanceof String)) {
+            return Objects.equals(probeValue, value);
+        }
+        boolean ignoreCase = matcher.isIgnoreCaseForPath(path);
+        String probe = ignoreCase ? ((String) probeValue).toLowerCase(Locale.ROOT) : (String) probeValue;
+        String text = ignoreCase ? ((String) value).toLowerCase(Locale.ROOT) : (String) value;
+        switch (matcher.getStringMatcherForPath(path)) {
+            case STARTING:
+                return text.startsWith(probe);
+            case ENDING:
+                return text.endsWith(probe);
+            case CONTAINING:
+                return text.contains(probe);
+            case REGEX:
+                return Pattern.compile((String) probeValue, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher((String) value).matches();
+            default:
+                return text.equals(probe);
+        }
+    }
+
+    private static Object fieldValue(Game game, String property) {
+        Field field = ReflectionUtils.findField(Game.class, property);
+        if (field == null) {
+            throw new InvalidDataAccessApiUsageException("Games have no field " + property + " to sort by");
+        }
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, game);
+    }
+}
@@ -0,0 +1,13 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Non blocking Mongo Repository of games, used by the reactive stack (spring.main.web-application-type=reactive).
+ */
+@Repository
+public interface ReactiveKalahRespository extends ReactiveMongoRepository<Game,String>, ReactiveKalahRespositoryCustom {
+}
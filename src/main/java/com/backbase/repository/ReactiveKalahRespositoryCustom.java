@@ -0,0 +1,31 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Targeted writes of {@link ReactiveKalahRespository}, implemented on ReactiveMongoTemplate by
+ * {@link ReactiveKalahRespositoryCustomImpl}.
+ */
+public interface ReactiveKalahRespositoryCustom {
+
+    /**
+     * Writes the fields a move changes with one $set update, only if DB still holds the version of the game that
+     * was read.
+     * @param game - game after one or more moves, at its next version.
+     * @param readVersion - version of the game that was read.
+     * @return the saved game, or an {@link OptimisticLockingFailureException} if the game was saved by someone else
+     * since it was read.
+     */
+    Mono<Game> saveMove(Game game, long readVersion);
+
+    /**
+     * Streams the games of the query from a DB cursor, read as they are requested.
+     * @param games - query of {@link KalahGameExporter#query(String, java.util.Date, java.util.Date, String)}.
+     */
+    Flux<Game> export(Query games);
+}
@@ -0,0 +1,37 @@
+package com.backbase.repository;
+
+import com.backbase.model.Game;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Resource;
+
+/**
+ * @author nandk on 18/10/2026.
+ * ReactiveMongoTemplate implementation of {@link ReactiveKalahRespositoryCustom}, picked up by Spring Data for
+ * {@link ReactiveKalahRespository}.
+ */
+public class ReactiveKalahRespositoryCustomImpl implements ReactiveKalahRespositoryCustom {
+
+    @Resource
+    ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Game> saveMove(Game game, long readVersion) {
+        Criteria readGame = KalahRespositoryCustomImpl.andReadVersion(Criteria.where("id").is(game.getId()), readVersion);
+        return reactiveMongoTemplate.updateFirst(Query.query(readGame), KalahRespositoryCustomImpl.moveUpdate(game), Game.class)
+                .flatMap(result -> result.getMatchedCount() == 0
+                        ? Mono.error(new OptimisticLockingFailureException("Game " + game.getId()
+                                + " was changed by another move (version " + readVersion + " was read). Reload the game and retry."))
+                        : Mono.just(game));
+    }
+
+    @Override
+    public Flux<Game> export(Query games) {
+        return reactiveMongoTemplate.find(games, Game.class);
+    }
+}
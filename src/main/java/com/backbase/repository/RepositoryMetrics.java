@@ -0,0 +1,113 @@
+package com.backbase.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Times every call of the Spring Data repositories, blocking and reactive, as kalah.repository tagged with the
+ * repository bean and the method. Reads and writes of games therefore include the conversion of the packed board
+ * by {@link BoardConverters}. A Mono or Flux is timed from subscription until it completes, not when it is built.
+ * The timer is added to the proxy Spring Data already builds for a repository, so no extra proxy is created.
+ * The meter registry is looked up once every singleton is created, so that calls made while the context shuts down,
+ * e.g. the last flush of {@link KalahGameCache}, never ask for a bean; calls made before are not timed.
+ */
+@Component
+public class RepositoryMetrics implements BeanPostProcessor, SmartInitializingSingleton {
+
+    Logger logger = LoggerFactory.getLogger(RepositoryMetrics.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private volatile MeterRegistry registry;
+
+    public RepositoryMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        registry = meterRegistry.getIfAvailable();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Repository && bean instanceof Advised) {
+            Advised repository = (Advised) bean;
+            if (repository.isFrozen()) {
+                logger.warn("Repository " + beanName + " cannot be timed, its proxy is frozen");
+            } else {
+                repository.addAdvice(new RepositoryTimer(beanName));
+            }
+        }
+        return bean;
+    }
+
+    private final class RepositoryTimer implements MethodInterceptor {
+        private final String repositoryName;
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        private RepositoryTimer(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = RepositoryMetrics.this.registry;
+            if (registry == null) {
+                return invocation.proceed();
+            }
+            Timer timer = timers.computeIfAbsent(invocation.getMethod(), method -> Timer.builder("kalah.repository")
+                    .description("Time of a repository call")
+                    .tag("repository", repositoryName)
+                    .tag("method", method.getName())
+                    .register(registry));
+            long calledAt = System.nanoTime();
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable e) {
+                record(timer, calledAt);
+                throw e;
+            }
+            // A reactive call only builds its publisher here, the query itself runs once subscribed.
+            if (result instanceof Mono) {
+                Mono<?> query = (Mono<?>) result;
+                return Mono.defer(() -> {
+                    long startedAt = System.nanoTime();
+                    return query.doFinally(signal -> record(timer, startedAt));
+                });
+            }
+            if (result instanceof Flux) {
+                Flux<?> query = (Flux<?>) result;
+                return Flux.defer(() -> {
+                    long startedAt = System.nanoTime();
+                    return query.doFinally(signal -> record(timer, startedAt));
+                });
+            }
+            record(timer, calledAt);
+            return result;
+        }
+    }
+
+    private static void record(Timer timer, long startedAt) {
+        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,71 @@
+package com.backbase.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Generates game ids that are unique without any DB lookup or coordination between nodes, see below for the limits.
+ * An id is a 63 bit number made of the milliseconds since {@link #EPOCH_MILLIS}, a per millisecond counter and the
+ * node id application.kalah.node.id, written in base 62 as {@link #ID_LENGTH} alphanumeric characters.
+ * Every node has to be started with its own node id (0 to 1023); there is no default, a node without one does not
+ * start. Within a run of a node the time and counter part only ever grows: once the counter of a millisecond is used
+ * up, or if the clock goes back, ids carry on from the last one handed out instead of waiting for the clock. Nothing
+ * is kept across a restart though, a restarted node starts again from its clock. Ids are therefore unique as long as
+ * node ids are not shared and the clock of a restarted node is past the time part of the last id it handed out, which
+ * runs ahead of the clock after bursts of more than 4096 ids per millisecond.
+ */
+@Component
+public class GameIdGenerator {
+
+    /**
+     * 2026-01-01T00:00:00Z, start of the time part of the ids. Leaves room for 69 years of ids.
+     */
+    static final long EPOCH_MILLIS = 1767225600000L;
+
+    static final int NODE_BITS = 10;
+
+    static final int COUNTER_BITS = 12;
+
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    static final int ID_LENGTH = 11;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    @Value("${application.kalah.node.id:#{null}}")
+    Integer nodeId;
+
+    /**
+     * Time and counter part of the last id handed out.
+     */
+    private final AtomicLong lastTimeAndCounter = new AtomicLong();
+
+    @PostConstruct
+    public void validateNodeId() {
+        if (nodeId == null) {
+            throw new IllegalArgumentException("application.kalah.node.id is not set, every node needs its own node id between 0 and " + MAX_NODE_ID);
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("application.kalah.node.id must be between 0 and " + MAX_NODE_ID + " : " + nodeId);
+        }
+    }
+
+    /**
+     * @return a new game id, not handed out before by any node with a node id of its own, see the restart caveat above.
+     */
+    public String nextId() {
+        long timeAndCounter = lastTimeAndCounter.updateAndGet(last ->
+                Math.max(last + 1, (System.currentTimeMillis() - EPOCH_MILLIS) << COUNTER_BITS));
+        long id = timeAndCounter << NODE_BITS | nodeId;
+        char[] encoded = new char[ID_LENGTH];
+        for (int index = ID_LENGTH - 1; index >= 0; index--) {
+            encoded[index] = DIGITS[(int) (id % DIGITS.length)];
+            id /= DIGITS.length;
+        }
+        return new String(encoded);
+    }
+}
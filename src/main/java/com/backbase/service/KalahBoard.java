@@ -1,24 +1,22 @@
 package com.backbase.service;
 
 import com.backbase.exception.KalahValidationException;
+import com.backbase.model.BoardGeometry;
 import com.backbase.model.Entity;
-import com.backbase.model.EntityType;
 import com.backbase.model.Game;
 import com.backbase.model.Kalah;
-import com.backbase.model.Pit;
+import com.backbase.model.MoveBatchResponse;
 import com.backbase.model.Player;
-import com.backbase.repository.KalahRespository;
-import org.apache.commons.lang3.RandomStringUtils;
+import com.backbase.repository.KalahGameCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * @author nandk on 06/03/2021.
@@ -29,164 +27,310 @@ public class KalahBoard {
 
     Logger logger = LoggerFactory.getLogger(KalahBoard.class);
 
-    private static final Integer gameIdentifierLength=6;
+    @Resource
+    KalahGameCache kalahGameCache;
+
+    @Resource
+    GameIdGenerator gameIdGenerator;
 
     @Resource
-    KalahRespository kalahRespository;
+    KalahGameEvents kalahGameEvents;
+
+    @Resource
+    KalahComputerPlayer kalahComputerPlayer;
+
+    @Resource
+    KalahMetrics kalahMetrics;
 
     @Value("${application.kalah.initialize.stones}")
     Integer initialStones;
 
+    @Value("${application.kalah.initialize.pits}")
+    Integer initialPits;
+
     @Value("${application.kalah.end.point}")
     String kalahApplicationEndPoint;
 
+    @Value("${application.kalah.move.retries}")
+    Integer moveRetries;
+
+    @Value("${application.kalah.bulk.max.games}")
+    Integer bulkMaxGames;
+
     /**
      * Game On. Method that initializes the kalah board, the players ,and the stones available in each pit.
      *  This can be configured using property application.kalah.initialize.stones
      * @return Game Object that holds the Kalah Board attributes.
      */
     public Game initializeNewBoardGame(){
-       Game newGame = new Game(RandomStringUtils.randomAlphanumeric(gameIdentifierLength),initializePlayersPitAndKalah(),Player.ANY,kalahApplicationEndPoint);
-       return kalahRespository.save(newGame);
+       return kalahGameCache.save(newBoardGame());
+    }
+
+    /**
+     * Game On against a human or against the computer, which then answers every move of Player 1 with its own.
+     * @param opponent - human (default) or computer.
+     * @param pits - pits per player, 4 to 10, application.kalah.initialize.pits if null.
+     * @return Game Object that holds the Kalah Board attributes.
+     */
+    public Game initializeNewBoardGame(String opponent, Integer pits){
+       return kalahGameCache.save(newBoardGame(opponent, pits));
+    }
+
+    /**
+     * Game On for many games at once, e.g. for a tournament. All games are inserted into DB in one round trip.
+     * At most application.kalah.bulk.max.games games can be started per call.
+     * @param numberOfGames - number of games to start.
+     * @param pits - pits per player of every game, 4 to 10, application.kalah.initialize.pits if null.
+     * @return Game Objects that hold the Kalah Board attributes of each new game.
+     */
+    public List<Game> initializeNewBoardGames(Integer numberOfGames, Integer pits){
+        return kalahGameCache.insertAll(newBoardGames(numberOfGames, pits));
     }
 
     /**
      * Make moves using the below method for a game by giving the pit id from which this move should initiate.
      * Method also makes validation of the game and pit used.
+     * If another move on the same game is saved in between, the move is validated and played again on the current
+     * board up to application.kalah.move.retries times, after which the conflict is reported to the caller.
      * @param gameId - Initialized game
      * @param pitId - pitId from where the movement begins.
      * @return Game object updated with the current move.
      */
     public Game makeMyMove(String gameId,Integer pitId) {
-        Game onGoingGame = validGameParameters(gameId, pitId);
-        Player currentPlayer = onGoingGame.getNextPlayer() != Player.ANY ? onGoingGame.getNextPlayer() : Player.PLAYER1;//Default start with player 1.
-        List<Entity> currentBoard = onGoingGame.getCurrentGameStats();
-        pitId = pitId - 1;//Convert to our indexing
-        Entity chosenEntity = currentBoard.get(pitId);
-        int noOfMoves = isMoveValid(chosenEntity, currentPlayer);
-        ((Pit) chosenEntity).setEntityCount(0);
-        // Make moves to release stones on each pit/kalah
-        while (noOfMoves != 0) {
-            pitId = pitId == currentBoard.size() - 1 ? 0 : pitId + 1;
-            chosenEntity = currentBoard.get(pitId);
-            //Stone will be release to current Player's owned Kalah only.
-            if (chosenEntity instanceof Kalah && chosenEntity.getOwnerPlayer() == currentPlayer) {
-                ((Kalah) chosenEntity).setEntityCount(chosenEntity.getEntityCount() == null ? 1 : chosenEntity.getEntityCount() + 1);
-            } else if (chosenEntity instanceof Kalah && chosenEntity.getOwnerPlayer() != currentPlayer) {
-                continue;
-            } else {
-                ((Pit) chosenEntity).setEntityCount(chosenEntity.getEntityCount() + 1);
+        long startedAt = kalahMetrics.start();
+        for (int attempt = 0; ; attempt++) {
+            Game onGoingGame = playMove(fetchKalahBoardForGameId(gameId), pitId);
+            try {
+                Game savedGame = movesSaved(save(onGoingGame));
+                kalahMetrics.movePlayed(startedAt);
+                return savedGame;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= moveRetries) {
+                    throw e;
+                }
+                logger.info("Concurrent move on Game : " + gameId + ". Retrying move from pit " + pitId + " on the current board");
             }
-            noOfMoves--;
-        }
-        //If the move ends at players own empty pit  opposite players stone are also captured and moved to current players house/kalah.
-        if (currentBoard.get(pitId) instanceof Pit && currentBoard.get(pitId).getOwnerPlayer() == currentPlayer && currentBoard.get(pitId).getEntityCount() == 1) {
-            Pit oppositePit = (Pit) currentBoard.get(currentBoard.size() - pitId - 2);
-            Kalah currentPlayersKalah = (Kalah) currentBoard.stream()
-                    .filter(e -> e.getEntityType() == EntityType.KALAH && e.getOwnerPlayer() == currentPlayer)
-                    .findFirst()
-                    .get();
-            currentPlayersKalah.setEntityCount(currentPlayersKalah.getEntityCount() + oppositePit.getEntityCount() + currentBoard.get(pitId).getEntityCount());
-            ((Pit) currentBoard.get(pitId)).setEntityCount(0);
-            oppositePit.setEntityCount(0);
-            onGoingGame.setNextPlayer(currentPlayer != Player.PLAYER1 ? Player.PLAYER1 : Player.PLAYER2);
         }
-        //If the players last stone lands in his own Kalah/House, he gets another turn
-        else if(currentBoard.get(pitId) instanceof Kalah && currentBoard.get(pitId).getOwnerPlayer()==currentPlayer){
-            onGoingGame.setNextPlayer(currentPlayer);
-        }else{
-            onGoingGame.setNextPlayer(currentPlayer!=Player.PLAYER1?Player.PLAYER1:Player.PLAYER2);
+    }
+
+    /**
+     * Make a sequence of moves on a game in one go, e.g. a turn with extra moves. Moves are validated and played in
+     * the given order, the batch stops at the first move that is not valid and the game is saved once with the moves
+     * played so far. A conflicting move saved in between is retried as in {@link #makeMyMove(String, Integer)}.
+     * @param gameId - Initialized game
+     * @param pitIds - pitIds of the moves, in the order they are to be played.
+     * @return the game after the moves that were applied and how many were applied. If not even the first move is
+     * valid the {@link KalahValidationException} of that move is thrown.
+     */
+    public MoveBatchResponse makeMyMoves(String gameId, List<Integer> pitIds) {
+        validPitIds(pitIds);
+        long startedAt = kalahMetrics.start();
+        for (int attempt = 0; ; attempt++) {
+            MoveBatchResponse movesPlayed = playMoves(fetchKalahBoardForGameId(gameId), pitIds);
+            try {
+                movesSaved(save(movesPlayed.getGame()));
+                kalahMetrics.movesPlayed(startedAt);
+                return movesPlayed;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= moveRetries) {
+                    throw e;
+                }
+                logger.info("Concurrent move on Game : " + gameId + ". Retrying " + pitIds.size() + " moves on the current board");
+            }
         }
-        //After the move is complete check if we already have a winner
-        Player winnerPlayer=doWeHaveAWinner(currentBoard);
-        if (winnerPlayer!=null){
-            onGoingGame.setNextPlayer(null);
-            onGoingGame.setWinnerPlayer(winnerPlayer);
-            logger.info("We have a winner for Game : "+ gameId + " Winner is : "+winnerPlayer);
+    }
+
+    /**
+     * New game, not saved yet. Shared by the blocking and the reactive stack.
+     * @return Game Object that holds the Kalah Board attributes.
+     */
+    public Game newBoardGame(){
+        return newBoardGame(geometryOf(null));
+    }
+
+    private Game newBoardGame(BoardGeometry geometry){
+        kalahMetrics.gameCreated();
+        return new Game(gameIdGenerator.nextId(),initializePlayersPitAndKalah(geometry),Player.ANY,kalahApplicationEndPoint);
+    }
+
+    /**
+     * New game against a human or the computer, not saved yet. Shared by the blocking and the reactive stack.
+     * @param opponent - human (default) or computer, which plays as Player 2.
+     * @param pits - pits per player, 4 to 10, application.kalah.initialize.pits if null.
+     * @return Game Object that holds the Kalah Board attributes.
+     */
+    public Game newBoardGame(String opponent, Integer pits){
+        Game newGame = newBoardGame(geometryOf(pits));
+        if ("computer".equalsIgnoreCase(opponent)) {
+            newGame.setComputerPlayer(Player.PLAYER2);
+        } else if (opponent != null && !"human".equalsIgnoreCase(opponent)) {
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_OPPONENT, "Opponent must be human or computer : " + opponent);
         }
-        return kalahRespository.save(onGoingGame);
+        return newGame;
     }
 
     /**
-     * Validates if valid Game parameters are supplied.
-     * 1. Already initialised on the board
-     * 2. Has not ended already.
-     * 3. pitId is within range.
-     * @param gameId
-     * @return Game object with current game stats and attributes. Else throws an {@link KalahValidationException}.
+     * New games, not saved yet. Shared by the blocking and the reactive stack.
+     * @param numberOfGames - number of games, at most application.kalah.bulk.max.games.
+     * @param pits - pits per player of every game, 4 to 10, application.kalah.initialize.pits if null.
+     * @return Game Objects that hold the Kalah Board attributes of each new game.
      */
-    private Game validGameParameters(String gameId,Integer pitId){
-        Optional<Game> validateGame= kalahRespository.findById(gameId);
-        if (!validateGame.isPresent()){
-            throw new KalahValidationException("GameID does exist : "+gameId);
+    public List<Game> newBoardGames(Integer numberOfGames, Integer pits){
+        if (numberOfGames == null || numberOfGames < 1 || numberOfGames > bulkMaxGames){
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_GAME_COUNT, "Number of games must be between 1 and " + bulkMaxGames + " : " + numberOfGames);
+        }
+        BoardGeometry geometry = geometryOf(pits);
+        List<Game> newGames = new ArrayList<>(numberOfGames);
+        for (int game = 0; game < numberOfGames; game++) {
+            newGames.add(newBoardGame(geometry));
         }
-        if (validateGame.get().getCurrentGameStats().stream()
-                                                .filter(p->p.getEntityType()==EntityType.PIT)
-                                                .map(e->e.getEntityCount())
-                                                .reduce(Integer::sum).get()==0){
-            logger.info("Game "+ gameId+ "has ended already. Please start a new game ");
-            throw new KalahValidationException("Game has ended already ");
+        return newGames;
+    }
+
+    /**
+     * @param pits - pits per player asked for, application.kalah.initialize.pits if null.
+     * @return the shared geometry of the board.
+     */
+    private BoardGeometry geometryOf(Integer pits){
+        int pitsPerPlayer = pits == null ? initialPits : pits;
+        if (pitsPerPlayer < BoardGeometry.MIN_PITS_PER_PLAYER || pitsPerPlayer > BoardGeometry.MAX_PITS_PER_PLAYER){
+            throw new KalahValidationException(KalahValidationException.Reason.INVALID_BOARD, "Pits per player must be between "
+                    + BoardGeometry.MIN_PITS_PER_PLAYER + " and " + BoardGeometry.MAX_PITS_PER_PLAYER + " : " + pitsPerPlayer);
         }
-        if (pitId < 0 || pitId >14 ){
-            throw new KalahValidationException("Invalid Pit Id used.");
+        return BoardGeometry.of(pitsPerPlayer);
+    }
+
+    /**
+     * Validates the move against the game read from DB and plays it on that game. Shared by the blocking and the
+     * reactive stack, which only differ in how the game is read and saved.
+     * 1. Game has not ended already.
+     * 2. pitId is within range.
+     * 3. Move is valid as per {@link KalahRules#isMoveValid}.
+     * In a game against the computer the computer's answer is played straight after the move.
+     * @param onGoingGame - game as read from DB.
+     * @param pitId - pitId from where the movement begins.
+     * @return the game after the move. Else throws an {@link KalahValidationException}.
+     */
+    public Game playMove(Game onGoingGame,Integer pitId){
+        long startedAt = kalahMetrics.start();
+        validGameInPlay(onGoingGame);
+        validPitId(onGoingGame, pitId);
+        KalahRules.applyMove(onGoingGame, pitId, kalahMetrics, startedAt);
+        answerAsComputer(onGoingGame);
+        return onGoingGame;
+    }
+
+    /**
+     * Validates and plays a sequence of moves on the game read from DB, up to the first move that is not valid.
+     * Shared by the blocking and the reactive stack.
+     * @param onGoingGame - game as read from DB.
+     * @param pitIds - pitIds of the moves, in the order they are to be played.
+     * @return the game after the moves that were applied and how many were applied. If not even the first move is
+     * valid the {@link KalahValidationException} of that move is thrown.
+     */
+    public MoveBatchResponse playMoves(Game onGoingGame, List<Integer> pitIds){
+        validPitIds(pitIds);
+        validGameInPlay(onGoingGame);
+        int movesApplied = 0;
+        String rejectedMove = null;
+        for (Integer pitId : pitIds) {
+            try {
+                long startedAt = kalahMetrics.start();
+                if (onGoingGame.getWinnerPlayer() != null) {
+                    throw KalahRules.GAME_ENDED;
+                }
+                validPitId(onGoingGame, pitId);
+                KalahRules.applyMove(onGoingGame, pitId, kalahMetrics, startedAt);
+                answerAsComputer(onGoingGame);
+            } catch (KalahValidationException e) {
+                if (movesApplied == 0) {
+                    throw e;
+                }
+                kalahMetrics.validationFailed(e.getReason());
+                rejectedMove = "Move " + (movesApplied + 1) + " from pit " + pitId + " : " + e.getMessage();
+                break;
+            }
+            movesApplied++;
         }
-        return validateGame.get();
+        return new MoveBatchResponse(onGoingGame, movesApplied, rejectedMove);
     }
 
     /**
-     * Validates the move that is being made.
-     * 1. Current player owns the Pit chosen for the move.
-     * 2. The move begins from a Pit and NOT from Kalah.
-     * 3. If the Pit contains stones for any movement to happen.
-     * @param chosenEntity
-     * @param currentPlayer
-     * @return number of stones (number of moves) that are available in the chosen Pit.
+     * Plays the moves of the computer, extra turns included, for as long as it is the computer's turn. The moves
+     * are recorded like any other, so they are journaled and saved with the move they answer.
+     * @param onGoingGame - game after a move of the human player.
      */
-    private Integer isMoveValid(Entity chosenEntity,Player currentPlayer){
-        if(chosenEntity.getOwnerPlayer()!=currentPlayer){
-            throw new KalahValidationException("Current Player doesn't own the pit.Owned by : "+currentPlayer);
+    private void answerAsComputer(Game onGoingGame){
+        Player computerPlayer = onGoingGame.getComputerPlayer();
+        while (computerPlayer != null && onGoingGame.getWinnerPlayer() == null && KalahRules.currentPlayer(onGoingGame) == computerPlayer) {
+            long startedAt = kalahMetrics.start();
+            int pitId = kalahComputerPlayer.chooseMove(onGoingGame.getBoard(), computerPlayer);
+            kalahMetrics.computerAnswered(startedAt);
+            logger.debug("Computer plays pit " + pitId + " in Game : " + onGoingGame.getId());
+            KalahRules.applyMove(onGoingGame, pitId);
         }
-        if(chosenEntity.getEntityType()!=EntityType.PIT){
-            throw new KalahValidationException("Move not allowed from Kalah : "+currentPlayer);
+    }
+
+    private Game save(Game onGoingGame){
+        long startedAt = kalahMetrics.start();
+        Game savedGame = kalahGameCache.save(onGoingGame);
+        kalahMetrics.persisted(startedAt);
+        return savedGame;
+    }
+
+    /**
+     * Logs the winner, if any, of a game saved after moves and pushes its board to the subscribers of the game.
+     * @param savedGame - game saved after a move.
+     * @return the same game.
+     */
+    public Game movesSaved(Game savedGame){
+        if (savedGame.getWinnerPlayer()!=null){
+            logger.info("We have a winner for Game : "+ savedGame.getId() + " Winner is : "+savedGame.getWinnerPlayer());
+            kalahMetrics.gameFinished(savedGame.getWinnerPlayer());
         }
-        int noOfMoves=chosenEntity.getEntityCount();
-        if (noOfMoves==0){
-            throw new KalahValidationException("Move not allowed from Pit.No stones available ");
+        kalahGameEvents.publish(savedGame);
+        return savedGame;
+    }
+
+    /**
+     * @param gameId
+     * @return the exception reported for a gameId that does not exist.
+     */
+    public static KalahValidationException unknownGame(String gameId){
+        return new KalahValidationException(KalahValidationException.Reason.UNKNOWN_GAME, "GameID does exist : "+gameId);
+    }
+
+    /**
+     * ETag of the move preview of a game, see {@link KalahRules#previewMoves(Game)}. The version of the game moves
+     * on with every saved move, so the preview of a version never changes and can be answered with 304 Not Modified.
+     * @param game
+     * @return quoted version of the game.
+     */
+    public static String previewTag(Game game){
+        return "\"" + game.getVersion() + "\"";
+    }
+
+    /**
+     * Validates that the game has not ended already.
+     * @param onGoingGame
+     */
+    private void validGameInPlay(Game onGoingGame){
+        if (!onGoingGame.getBoard().hasStonesInPits()){
+            logger.info("Game "+ onGoingGame.getId()+ "has ended already. Please start a new game ");
+            throw KalahRules.GAME_ENDED;
         }
-        return noOfMoves;
-    }
-
-    /**
-     * After a move has been completed the board is checked for identifying if we already have a winner.
-     * Validates the PIT stones for any player has all become 0 and then compares their Kalah/House scores.
-     * @param currentBoard
-     * @return Player that may have won else null object is returned.
-     */
-    private Player doWeHaveAWinner(List<Entity> currentBoard){
-        Player winner=null;
-        Map<Player,Integer> playersPitScore=currentBoard.stream().filter(k->k.getEntityType()==EntityType.PIT)
-                .collect(Collectors.groupingBy(Entity::getOwnerPlayer,Collectors.summingInt(Entity::getEntityCount)));
-        Map<Player,Integer> playersHouseScore=currentBoard.stream().filter(k->k.getEntityType()==EntityType.KALAH)
-                .collect(Collectors.groupingBy(Entity::getOwnerPlayer,Collectors.summingInt(Entity::getEntityCount)));
-        //Default a winner(if available) for identifying the top scorer.
-        if (playersPitScore.get(Player.PLAYER1)==0){
-            winner=Player.PLAYER2;
-        }else if(playersPitScore.get(Player.PLAYER2)==0){
-            winner=Player.PLAYER1;
+    }
+
+    private void validPitId(Game onGoingGame, Integer pitId){
+        if (pitId == null || pitId < 1 || pitId > onGoingGame.getBoard().getGeometry().size()){
+            throw KalahRules.INVALID_PIT;
         }
-        if (winner!=null){
-            playersHouseScore.put(winner,playersHouseScore.get(winner)+playersPitScore.get(winner));
-            for (Entity entity:currentBoard){
-                if (entity.getEntityType().equals(EntityType.KALAH) && entity.getOwnerPlayer().equals(winner)){
-                    ((Kalah)entity).setEntityCount(playersHouseScore.get(winner));
-                }else if (entity.getEntityType().equals(EntityType.PIT) && entity.getOwnerPlayer().equals(winner)){
-                    ((Pit)entity).setEntityCount(0);
-                }
-            }
-            //top scorer.
-            winner=playersHouseScore.get(Player.PLAYER1)>playersHouseScore.get(Player.PLAYER2)?Player.PLAYER1:Player.PLAYER2;
+    }
+
+    private void validPitIds(List<Integer> pitIds){
+        if (pitIds == null || pitIds.isEmpty()) {
+            throw KalahRules.NO_PITS;
         }
-        return winner;
     }
 
     /**
@@ -195,11 +339,7 @@ public class KalahBoard {
      * @return Game object with current stats.
      */
     public Game fetchKalahBoardForGameId(String gameId){
-        Optional<Game> fetchedGame= kalahRespository.findById(gameId);
-        if(!fetchedGame.isPresent()){
-            throw new KalahValidationException("GameID does exist : "+gameId);
-        }
-        return fetchedGame.get();
+        return kalahGameCache.findById(gameId).orElseThrow(() -> unknownGame(gameId));
     }
 
     /**
@@ -207,22 +347,26 @@ public class KalahBoard {
      * @param gameId
      */
     public void cleanUpKalahBoard(String gameId){
-        kalahRespository.deleteById(gameId);
+        kalahGameCache.deleteById(gameId);
+        kalahGameEvents.closeGame(gameId);
     }
 
     /**
      * Initializes Pits and Kalah for Player 1 and Player 2
      * using the respective Builder methods.
+     * @param geometry - layout of the board.
      * @return List of Entities (Pits/Kalah)
      */
-    private List<Entity> initializePlayersPitAndKalah(){
+    private List<Entity> initializePlayersPitAndKalah(BoardGeometry geometry){
         List<Entity> boardEntity = new Kalah.KalahBoardBuilder()
                                .ownerPlayer(Player.PLAYER1)
                                .initialStones(initialStones)
+                               .pitsPerPlayer(geometry.pitsPerPlayer())
                                .build();
         boardEntity.addAll(new Kalah.KalahBoardBuilder()
                                     .ownerPlayer(Player.PLAYER2)
                                     .initialStones(initialStones)
+                                    .pitsPerPlayer(geometry.pitsPerPlayer())
                                     .build());
         return boardEntity;
 
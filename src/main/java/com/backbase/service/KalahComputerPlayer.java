@@ -0,0 +1,514 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Player;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Computer opponent. Picks the move of a player by iterative deepening alpha-beta (negamax) search over the compact
+ * {@link Board}, every move of the search being played by the rules of {@link KalahRules}: capture, extra turn and
+ * the end of game sweep of {@link KalahRules#doWeHaveAWinner}. An extra turn is searched as a further move of the
+ * same player.
+ * Positions are hashed with Zobrist keys into a bounded, lock free transposition table of
+ * 2^application.kalah.computer.table.bits entries, shared by every search. At the root the best move of the previous
+ * iteration is searched first, the other moves then in parallel on a fork-join pool of
+ * application.kalah.computer.threads threads against the score of the first one.
+ * Iterations go one ply deeper each, up to application.kalah.computer.max.depth, until
+ * application.kalah.computer.move.millis is used up; the move of the deepest completed iteration is played.
+ * Positions found in the {@link KalahEndgameTables} are scored exactly instead of being searched further.
+ * Boards of every {@link BoardGeometry} are searched, the geometry being part of the key of a position.
+ */
+@Component
+public class KalahComputerPlayer {
+
+    /**
+     * Deepest search the scratch boards of a search are sized for.
+     */
+    static final int MAX_DEPTH = 64;
+
+    /**
+     * Score of a finished game, plus the difference of the Kalah/Houses. Above any score of a game in play.
+     */
+    static final int WIN_SCORE = 1000000;
+
+    private static final int INFINITY = 2 * WIN_SCORE;
+
+    private static final int EXACT = 0;
+
+    private static final int LOWER_BOUND = 1;
+
+    private static final int UPPER_BOUND = 2;
+
+    /**
+     * Nodes searched between two looks at the clock.
+     */
+    private static final int CLOCK_CHECK_NODES = 1024;
+
+    private static final int ZOBRIST_STONES = 256;
+
+    private static final long[][] ZOBRIST = new long[BoardGeometry.MAX_SIZE][ZOBRIST_STONES];
+
+    private static final long ZOBRIST_PLAYER2;
+
+    private static final long[] ZOBRIST_PITS = new long[BoardGeometry.MAX_PITS_PER_PLAYER + 1];
+
+    static {
+        Random random = new Random(0x4b616c6168L);
+        for (int index = 0; index < BoardGeometry.MAX_SIZE; index++) {
+            for (int stones = 0; stones < ZOBRIST_STONES; stones++) {
+                ZOBRIST[index][stones] = random.nextLong();
+            }
+        }
+        ZOBRIST_PLAYER2 = random.nextLong();
+        for (int pits = BoardGeometry.MIN_PITS_PER_PLAYER; pits <= BoardGeometry.MAX_PITS_PER_PLAYER; pits++) {
+            ZOBRIST_PITS[pits] = random.nextLong();
+        }
+    }
+
+    @Resource
+    KalahEndgameTables kalahEndgameTables;
+
+    @Value("${application.kalah.computer.move.millis}")
+    Long moveMillis;
+
+    @Value("${application.kalah.computer.max.depth}")
+    Integer maxDepth;
+
+    @Value("${application.kalah.computer.threads}")
+    Integer searchThreads;
+
+    @Value("${application.kalah.computer.table.bits}")
+    Integer tableBits;
+
+    private ForkJoinPool searchPool;
+
+    /**
+     * Transposition table. An entry is stored as its data and its key xor its data, so an entry torn by two threads
+     * writing at the same time does not match its key and is ignored.
+     */
+    private long[] tableKeys;
+
+    private long[] tableEntries;
+
+    private int tableMask;
+
+    private final LongAdder searchedNodes = new LongAdder();
+
+    private final LongAdder searches = new LongAdder();
+
+    @PostConstruct
+    public void startSearchPool() {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("application.kalah.computer.max.depth must be between 1 and " + MAX_DEPTH + " : " + maxDepth);
+        }
+        if (tableBits < 1 || tableBits > 30) {
+            throw new IllegalArgumentException("application.kalah.computer.table.bits must be between 1 and 30 : " + tableBits);
+        }
+        tableKeys = new long[1 << tableBits];
+        tableEntries = new long[1 << tableBits];
+        tableMask = (1 << tableBits) - 1;
+        searchPool = new ForkJoinPool(searchThreads);
+    }
+
+    @PreDestroy
+    public void stopSearchPool() {
+        searchPool.shutdownNow();
+    }
+
+    /**
+     * @param board - board of a game in play.
+     * @param player - player to move.
+     * @return pitId of the move the player should make.
+     */
+    public int chooseMove(Board board, Player player) {
+        return search(board, player, maxDepth, moveMillis).getPitId();
+    }
+
+    /**
+     * Iterative deepening search of the best move.
+     * @param board - board of a game in play, not changed by the search.
+     * @param player - player to move.
+     * @param depthLimit - deepest iteration, in moves.
+     * @param budgetMillis - time after which no further iteration is completed. The first iteration always is.
+     * @return best move of the deepest completed iteration.
+     */
+    public Search search(Board board, Player player, int depthLimit, long budgetMillis) {
+        SearchRun run = new SearchRun(board, System.nanoTime() + budgetMillis * 1000000L);
+        int[] rootMoves = new int[board.getGeometry().pitsPerPlayer()];
+        int rootMoveCount = orderMoves(board, player, -1, rootMoves);
+        Search best = null;
+        for (int depth = 1; depth <= Math.min(depthLimit, MAX_DEPTH); depth++) {
+            Search iteration = searchRoot(run, player, depth, rootMoves, rootMoveCount);
+            if (run.aborted) {
+                break;
+            }
+            best = iteration;
+            run.deadlineArmed = true;
+            // The best move is searched first in the next iteration.
+            for (int move = indexOf(rootMoves, best.pitId - 1); move > 0; move--) {
+                rootMoves[move] = rootMoves[move - 1];
+            }
+            rootMoves[0] = best.pitId - 1;
+            if (Math.abs(best.score) > WIN_SCORE / 2) {
+                // The outcome of the game is known, deeper iterations cannot change it.
+                break;
+            }
+        }
+        long nodes = run.nodes.sum();
+        searchedNodes.add(nodes);
+        searches.increment();
+        return new Search(best.pitId, best.depth, best.score, nodes);
+    }
+
+    /**
+     * Searches the first root move on its own and the others in parallel, each against the score of the first one.
+     */
+    private Search searchRoot(SearchRun run, Player player, int depth, int[] rootMoves, int rootMoveCount) {
+        Worker first = new Worker(run);
+        int bestScore = first.scoreMove(0, rootMoves[0], player, depth, -INFINITY, INFINITY);
+        first.finish();
+        int bestMove = rootMoves[0];
+        if (rootMoveCount > 1 && !run.aborted) {
+            List<RootMove> others = new ArrayList<>(rootMoveCount - 1);
+            for (int move = 1; move < rootMoveCount; move++) {
+                others.add(new RootMove(run, rootMoves[move], player, depth, bestScore));
+            }
+            searchPool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(others);
+                }
+            });
+            for (RootMove other : others) {
+                if (other.score > bestScore) {
+                    bestScore = other.score;
+                    bestMove = other.pitIndex;
+                }
+            }
+        }
+        return new Search(bestMove + 1, depth, bestScore, 0);
+    }
+
+    private static int indexOf(int[] moves, int pitIndex) {
+        int index = 0;
+        while (moves[index] != pitIndex) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Legal moves of the player, best candidates first: the move of the transposition table, then moves ending in
+     * the own Kalah/House (extra turn), then the other pits from the Kalah/House backwards.
+     * @return number of moves written.
+     */
+    private static int orderMoves(Board board, Player player, int tableMove, int[] moves) {
+        BoardGeometry geometry = board.getGeometry();
+        int kalah = geometry.kalahOf(player);
+        int count = 0;
+        if (tableMove >= 0 && geometry.ownerOf(tableMove) == player && !geometry.isKalah(tableMove) && board.stones(tableMove) != 0) {
+            moves[count++] = tableMove;
+        }
+        int extraTurns = count;
+        for (int pitIndex = kalah - 1; pitIndex >= kalah - geometry.pitsPerPlayer(); pitIndex--) {
+            int stones = board.stones(pitIndex);
+            if (stones == 0 || pitIndex == tableMove) {
+                continue;
+            }
+            if (stones % (geometry.size() - 1) == kalah - pitIndex) {
+                // Shift the other moves to keep the extra turns in front.
+                System.arraycopy(moves, extraTurns, moves, extraTurns + 1, count - extraTurns);
+                moves[extraTurns++] = pitIndex;
+                count++;
+            } else {
+                moves[count++] = pitIndex;
+            }
+        }
+        return count;
+    }
+
+    private static long hash(Board board, Player player) {
+        BoardGeometry geometry = board.getGeometry();
+        long key = (player == Player.PLAYER2 ? ZOBRIST_PLAYER2 : 0) ^ ZOBRIST_PITS[geometry.pitsPerPlayer()];
+        for (int index = 0; index < geometry.size(); index++) {
+            int stones = board.stones(index);
+            key ^= stones < ZOBRIST_STONES ? ZOBRIST[index][stones] : mix(ZOBRIST[index][stones & (ZOBRIST_STONES - 1)] + stones);
+        }
+        return key;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Score of a game in play for the player to move: stones in his/her Kalah/House over the opponent's.
+     */
+    private static int evaluate(Board board, Player player) {
+        BoardGeometry geometry = board.getGeometry();
+        return board.stones(geometry.kalahOf(player)) - board.stones(geometry.kalahOf(opponentOf(player)));
+    }
+
+    /**
+     * Score of a finished game for the player, the tie going to the winner decided by {@link KalahRules#doWeHaveAWinner}.
+     */
+    private static int finalScore(Board board, Player player, Player winner) {
+        return (winner == player ? WIN_SCORE : -WIN_SCORE) + evaluate(board, player);
+    }
+
+    /**
+     * Score of a position found in the endgame tables, as {@link #finalScore} of the game it ends in.
+     * @param pitStonesWon - stones the player ends up with from the pits over the opponent.
+     */
+    private static int endgameScore(Board board, Player player, int pitStonesWon) {
+        int kalahDifference = evaluate(board, player) + pitStonesWon;
+        // Player 1 only wins with more stones than Player 2, see Board#sweepIfFinished.
+        boolean won = player == Player.PLAYER1 ? kalahDifference > 0 : kalahDifference >= 0;
+        return (won ? WIN_SCORE : -WIN_SCORE) + kalahDifference;
+    }
+
+    private static Player opponentOf(Player player) {
+        return player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+    }
+
+    private long probe(long key) {
+        int slot = (int) key & tableMask;
+        long entry = tableEntries[slot];
+        return entry != 0 && (tableKeys[slot] ^ entry) == key ? entry : 0;
+    }
+
+    private void store(long key, int depth, int bound, int score, int move) {
+        int slot = (int) key & tableMask;
+        long current = tableEntries[slot];
+        if (current != 0 && (tableKeys[slot] ^ current) == key && entryDepth(current) > depth) {
+            return;
+        }
+        long entry = (score & 0xFFFFFFFFL) | ((long) depth << 32) | ((long) bound << 40) | ((long) (move + 1) << 42) | (1L << 47);
+        tableEntries[slot] = entry;
+        tableKeys[slot] = key ^ entry;
+    }
+
+    private static int entryScore(long entry) {
+        return (int) entry;
+    }
+
+    private static int entryDepth(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    private static int entryBound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    private static int entryMove(long entry) {
+        return ((int) (entry >>> 42) & 0x1F) - 1;
+    }
+
+    public long getSearchedNodes() {
+        return searchedNodes.sum();
+    }
+
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    /**
+     * Result of a search.
+     */
+    public static final class Search {
+        private final int pitId;
+        private final int depth;
+        private final int score;
+        private final long nodes;
+
+        private Search(int pitId, int depth, int score, long nodes) {
+            this.pitId = pitId;
+            this.depth = depth;
+            this.score = score;
+            this.nodes = nodes;
+        }
+
+        /**
+         * @return pitId of the best move.
+         */
+        public int getPitId() {
+            return pitId;
+        }
+
+        /**
+         * @return depth of the deepest completed iteration, in moves.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return score of the best move for the player to move, above {@link #WIN_SCORE} / 2 once the game is won.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * @return positions searched, over all iterations and threads.
+         */
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    /**
+     * State shared by the threads of one search.
+     */
+    private static final class SearchRun {
+        private final Board root;
+        private final long deadlineNanos;
+        private final LongAdder nodes = new LongAdder();
+        private volatile boolean deadlineArmed;
+        private volatile boolean aborted;
+
+        private SearchRun(Board root, long deadlineNanos) {
+            this.root = root;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /**
+     * A root move searched on the fork-join pool.
+     */
+    private final class RootMove extends RecursiveAction {
+        private final SearchRun run;
+        private final int pitIndex;
+        private final Player player;
+        private final int depth;
+        private final int alpha;
+        private int score;
+
+        private RootMove(SearchRun run, int pitIndex, Player player, int depth, int alpha) {
+            this.run = run;
+            this.pitIndex = pitIndex;
+            this.player = player;
+            this.depth = depth;
+            this.alpha = alpha;
+        }
+
+        @Override
+        protected void compute() {
+            Worker worker = new Worker(run);
+            score = worker.scoreMove(0, pitIndex, player, depth, alpha, INFINITY);
+            worker.finish();
+        }
+    }
+
+    /**
+     * Alpha-beta search by one thread, on its own scratch board per ply.
+     */
+    private final class Worker {
+        private final SearchRun run;
+        private final Board[] boards = new Board[MAX_DEPTH + 1];
+        private final int[][] moves = new int[MAX_DEPTH + 1][BoardGeometry.MAX_PITS_PER_PLAYER];
+        private long nodes;
+
+        private Worker(SearchRun run) {
+            this.run = run;
+            boards[0] = run.root.copy();
+            for (int ply = 1; ply <= MAX_DEPTH; ply++) {
+                boards[ply] = boards[0].copy();
+            }
+        }
+
+        private void finish() {
+            run.nodes.add(nodes);
+        }
+
+        /**
+         * @return score of the position on the board of the ply for the player to move, from his/her side.
+         */
+        private int negamax(int ply, Player player, int depth, int alpha, int beta) {
+            if (++nodes % CLOCK_CHECK_NODES == 0 && run.deadlineArmed && System.nanoTime() > run.deadlineNanos) {
+                run.aborted = true;
+            }
+            if (run.aborted) {
+                return 0;
+            }
+            int pitStonesWon = kalahEndgameTables.lookup(boards[ply], player);
+            if (pitStonesWon != KalahEndgameTables.NO_RESULT) {
+                return endgameScore(boards[ply], player, pitStonesWon);
+            }
+            if (depth == 0) {
+                return evaluate(boards[ply], player);
+            }
+            long key = hash(boards[ply], player);
+            long entry = probe(key);
+            int tableMove = -1;
+            if (entry != 0) {
+                tableMove = entryMove(entry);
+                if (entryDepth(entry) >= depth) {
+                    int score = entryScore(entry);
+                    int bound = entryBound(entry);
+                    if (bound == EXACT || (bound == LOWER_BOUND && score >= beta) || (bound == UPPER_BOUND && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+            int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = -1;
+            int moveCount = orderMoves(boards[ply], player, tableMove, moves[ply]);
+            for (int move = 0; move < moveCount; move++) {
+                int score = scoreMove(ply, moves[ply][move], player, depth, alpha, beta);
+                if (run.aborted) {
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = moves[ply][move];
+                }
+                if (bestScore > alpha) {
+                    alpha = bestScore;
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+            int bound = bestScore <= originalAlpha ? UPPER_BOUND : bestScore >= beta ? LOWER_BOUND : EXACT;
+            store(key, depth, bound, bestScore, bestMove);
+            return bestScore;
+        }
+
+        /**
+         * Plays the move on the board of the next ply and scores it for the player making it.
+         */
+        private int scoreMove(int ply, int pitIndex, Player player, int depth, int alpha, int beta) {
+            Board child = boards[ply + 1];
+            child.copyFrom(boards[ply]);
+            int lastIndex = child.sow(pitIndex, player);
+            Player nextPlayer = KalahRules.captureOrExtraTurn(child, lastIndex, player);
+            Player winner = KalahRules.doWeHaveAWinner(child);
+            if (winner != null) {
+                nodes++;
+                return finalScore(child, player, winner);
+            }
+            if (nextPlayer == player) {
+                return negamax(ply + 1, player, depth - 1, alpha, beta);
+            }
+            return -negamax(ply + 1, nextPlayer, depth - 1, -beta, -alpha);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Entity;
+import com.backbase.model.EntityType;
+import com.backbase.model.Kalah;
+import com.backbase.model.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Offline builder of the tables of {@link KalahEndgameTables}, for every number of stones up to the given one.
+ * Command line: KalahEndgameGenerator &lt;stones&gt; &lt;directory&gt;
+ * Tables are solved backwards from the end of the game. Stones never come back from a Kalah/House, and a move
+ * that puts none there only moves stones of the mover's side closer to his/her Kalah/House, so every position
+ * leads either to a smaller table, already built, or to positions of the same table closer to the end. Moves are
+ * played by {@link KalahRules} on a board laid out by {@link Kalah.KalahBoardBuilder}, exactly as in a game.
+ * All tables being built are held in memory, the table of 20 stones alone takes 85 MB.
+ */
+public final class KalahEndgameGenerator {
+
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+    private final byte[][] tables;
+
+    /**
+     * Board indices of the pits, as laid out by the board builder.
+     */
+    private final int[] pitIndices;
+
+    private KalahEndgameGenerator(int maxStones) {
+        List<Entity> entities = new Kalah.KalahBoardBuilder().ownerPlayer(Player.PLAYER1).initialStones(0).build();
+        entities.addAll(new Kalah.KalahBoardBuilder().ownerPlayer(Player.PLAYER2).initialStones(0).build());
+        // Fails if the builder's layout is not the one of Board.
+        Board.fromEntities(entities);
+        pitIndices = new int[2 * Board.PITS_PER_PLAYER];
+        int pit = 0;
+        for (int index = 0; index < entities.size(); index++) {
+            if (entities.get(index).getEntityType() == EntityType.PIT) {
+                pitIndices[pit++] = index;
+            }
+        }
+        tables = new byte[maxStones + 1][];
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: KalahEndgameGenerator <stones> <directory>");
+            System.exit(1);
+        }
+        generate(Integer.parseInt(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * Builds and writes the tables of 0 up to maxStones stones. A table is written to a temporary file first and then
+     * moved in place, so that a running service never maps a partly written table.
+     * @param maxStones - stones of the largest table, at most {@link KalahEndgameTables#MAX_STONES}.
+     * @param directory - directory of the tables, created if missing.
+     */
+    public static void generate(int maxStones, Path directory) throws IOException {
+        if (maxStones < 0 || maxStones > KalahEndgameTables.MAX_STONES) {
+            throw new IllegalArgumentException("Endgame tables can be built for 0 to " + KalahEndgameTables.MAX_STONES + " stones : " + maxStones);
+        }
+        Files.createDirectories(directory);
+        KalahEndgameGenerator generator = new KalahEndgameGenerator(maxStones);
+        for (int stones = 0; stones <= maxStones; stones++) {
+            long startedAt = System.currentTimeMillis();
+            generator.solveTable(stones);
+            generator.writeTable(stones, directory);
+            System.out.println("Endgame table for " + stones + " stones : " + generator.tables[stones].length + " positions in "
+                    + (System.currentTimeMillis() - startedAt) + " ms");
+        }
+    }
+
+    private void solveTable(int stones) {
+        tables[stones] = new byte[(int) KalahEndgameTables.positions(stones)];
+        Arrays.fill(tables[stones], UNSOLVED);
+        solvePositions(new int[Board.SIZE], 0, stones);
+    }
+
+    /**
+     * Spreads the stones left over the pits from the given one on, solving every position once all are placed.
+     */
+    private void solvePositions(int[] stones, int pit, int stonesLeft) {
+        if (pit == pitIndices.length - 1) {
+            stones[pitIndices[pit]] = stonesLeft;
+            solve(Board.fromStones(stones), Player.PLAYER1);
+            return;
+        }
+        for (int count = 0; count <= stonesLeft; count++) {
+            stones[pitIndices[pit]] = count;
+            solvePositions(stones, pit + 1, stonesLeft - count);
+        }
+    }
+
+    /**
+     * @return stones the player to move ends up with from the pits over the opponent under best play.
+     */
+    private int solve(Board board, Player player) {
+        Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+        int stones = board.pitStones(player) + board.pitStones(opponent);
+        int index = KalahEndgameTables.positionIndex(board, player, stones);
+        byte known = tables[stones][index];
+        if (known != UNSOLVED) {
+            return known;
+        }
+        int value;
+        if (board.pitStones(player) == 0 || board.pitStones(opponent) == 0) {
+            // Game over, each player keeps the stones in his/her pits.
+            value = board.pitStones(player) - board.pitStones(opponent);
+        } else {
+            value = Integer.MIN_VALUE;
+            int kalah = Board.kalahOf(player);
+            for (int pitIndex = kalah - Board.PITS_PER_PLAYER; pitIndex < kalah; pitIndex++) {
+                if (board.stones(pitIndex) == 0) {
+                    continue;
+                }
+                Board next = board.copy();
+                int lastIndex = next.sow(pitIndex, player);
+                Player nextPlayer = KalahRules.captureOrExtraTurn(next, lastIndex, player);
+                Player winner = KalahRules.doWeHaveAWinner(next);
+                int gained = kalahDifference(next, player) - kalahDifference(board, player);
+                int moveValue;
+                if (winner != null) {
+                    moveValue = gained;
+                } else if (nextPlayer == player) {
+                    moveValue = gained + solve(next, player);
+                } else {
+                    moveValue = gained - solve(next, nextPlayer);
+                }
+                value = Math.max(value, moveValue);
+            }
+        }
+        tables[stones][index] = (byte) value;
+        return value;
+    }
+
+    private static int kalahDifference(Board board, Player player) {
+        Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+        return board.stones(Board.kalahOf(player)) - board.stones(Board.kalahOf(opponent));
+    }
+
+    private void writeTable(int stones, Path directory) throws IOException {
+        Path file = directory.resolve(KalahEndgameTables.fileName(stones));
+        Path partFile = directory.resolve(KalahEndgameTables.fileName(stones) + ".part");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partFile)))) {
+            out.writeInt(KalahEndgameTables.MAGIC);
+            out.writeInt(KalahEndgameTables.FORMAT_VERSION);
+            out.writeInt(Board.PITS_PER_PLAYER);
+            out.writeInt(stones);
+            out.write(tables[stones]);
+        }
+        Files.move(partFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
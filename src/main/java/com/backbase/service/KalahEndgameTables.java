@@ -0,0 +1,169 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Player;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Exact endgame results, as built offline by {@link KalahEndgameGenerator}. There is one table per number of stones
+ * left in the pits; for every position it holds the stones the player to move ends up with from the pits over the
+ * opponent, under best play of both. Stones already in the Kalah/Houses do not change the play, so they are not part
+ * of the position.
+ * A table is a file kalah-endgame-&lt;stones&gt;.bin in application.kalah.endgame.directory: a header of
+ * {@link #HEADER_BYTES} bytes, then one signed byte per position at its {@link #positionIndex}. Tables of up to
+ * application.kalah.endgame.max.stones stones are memory-mapped on their first lookup, so lookups do no I/O and
+ * allocate nothing. A missing or foreign table is logged once and its positions are left to the search.
+ * Tables are built for the standard board only, positions of other geometries are always searched.
+ */
+@Component
+public class KalahEndgameTables {
+
+    Logger logger = LoggerFactory.getLogger(KalahEndgameTables.class);
+
+    /**
+     * Returned by {@link #lookup} for a position without a table.
+     */
+    public static final int NO_RESULT = Integer.MIN_VALUE;
+
+    /**
+     * Most stones a table can be built for, so that its positions can be indexed by an int.
+     */
+    public static final int MAX_STONES = 28;
+
+    static final int MAGIC = 0x4b4c4845;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_BYTES = 16;
+
+    private static final int PITS = 2 * Board.PITS_PER_PLAYER;
+
+    private static final long[][] BINOMIAL = new long[MAX_STONES + PITS][PITS];
+
+    static {
+        for (int n = 0; n < BINOMIAL.length; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k < PITS && k <= n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private static final ByteBuffer MISSING = ByteBuffer.allocate(0);
+
+    @Value("${application.kalah.endgame.directory}")
+    String directory;
+
+    @Value("${application.kalah.endgame.max.stones}")
+    Integer maxStones;
+
+    private final AtomicReferenceArray<ByteBuffer> tables = new AtomicReferenceArray<>(MAX_STONES + 1);
+
+    @PostConstruct
+    public void checkMaxStones() {
+        if (maxStones < 0 || maxStones > MAX_STONES) {
+            throw new IllegalArgumentException("application.kalah.endgame.max.stones must be between 0 and " + MAX_STONES + " : " + maxStones);
+        }
+    }
+
+    /**
+     * @param board - board of a game in play.
+     * @param player - player to move.
+     * @return stones the player ends up with from the pits over the opponent under best play, or {@link #NO_RESULT}
+     * if there is no table for the stones left in the pits or for the geometry of the board.
+     */
+    public int lookup(Board board, Player player) {
+        if (directory == null || directory.isEmpty() || board.getGeometry() != BoardGeometry.STANDARD) {
+            return NO_RESULT;
+        }
+        int stones = board.pitStones(Player.PLAYER1) + board.pitStones(Player.PLAYER2);
+        if (stones > maxStones) {
+            return NO_RESULT;
+        }
+        ByteBuffer table = tables.get(stones);
+        if (table == null) {
+            table = load(stones);
+        }
+        if (table == MISSING) {
+            return NO_RESULT;
+        }
+        return table.get(HEADER_BYTES + positionIndex(board, player, stones));
+    }
+
+    private synchronized ByteBuffer load(int stones) {
+        ByteBuffer table = tables.get(stones);
+        if (table != null) {
+            return table;
+        }
+        Path file = Paths.get(directory, fileName(stones));
+        table = MISSING;
+        if (!Files.isRegularFile(file)) {
+            logger.info("No endgame table for " + stones + " stones at " + file + ", positions are searched");
+        } else {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (channel.size() != HEADER_BYTES + positions(stones) || mapped.getInt(0) != MAGIC || mapped.getInt(4) != FORMAT_VERSION
+                        || mapped.getInt(8) != Board.PITS_PER_PLAYER || mapped.getInt(12) != stones) {
+                    logger.warn("Endgame table " + file + " is not a table for " + stones + " stones on this board, positions are searched");
+                } else {
+                    table = mapped;
+                    logger.info("Mapped endgame table " + file + " with " + positions(stones) + " positions");
+                }
+            } catch (IOException e) {
+                logger.warn("Could not map endgame table " + file + ", positions are searched", e);
+            }
+        }
+        tables.set(stones, table);
+        return table;
+    }
+
+    static String fileName(int stones) {
+        return "kalah-endgame-" + stones + ".bin";
+    }
+
+    /**
+     * @return number of positions with the stones spread over the pits of both players.
+     */
+    static long positions(int stones) {
+        return BINOMIAL[stones + PITS - 1][PITS - 1];
+    }
+
+    /**
+     * Combinatorial index of a position among all positions of the same stones: the pits of the player to move in
+     * sowing order and then those of the opponent, ranked in lexicographic order of their stone counts. Both players
+     * share a table, as the board is the same from either side.
+     * @param board - board of a game in play.
+     * @param player - player to move.
+     * @param stones - stones left in the pits of the board.
+     * @return index between 0 and {@link #positions} - 1.
+     */
+    static int positionIndex(Board board, Player player, int stones) {
+        int moverFrom = Board.kalahOf(player) - Board.PITS_PER_PLAYER;
+        int opponentFrom = Board.kalahOf(player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1) - Board.PITS_PER_PLAYER;
+        long index = 0;
+        int rest = stones;
+        for (int pit = 0; pit < PITS - 1; pit++) {
+            int count = board.stones(pit < Board.PITS_PER_PLAYER ? moverFrom + pit : opponentFrom + pit - Board.PITS_PER_PLAYER);
+            // Positions whose pit holds fewer stones, with the same counts in the pits before it, come first.
+            int laterPits = PITS - 1 - pit;
+            index += BINOMIAL[rest + laterPits][laterPits] - BINOMIAL[rest - count + laterPits][laterPits];
+            rest -= count;
+        }
+        return (int) index;
+    }
+}
@@ -0,0 +1,293 @@
+package com.backbase.service;
+
+import com.backbase.model.Game;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Server push of board updates. Clients subscribe to a game as Server-Sent Events and receive the board once when
+ * they subscribe and then every new board once its move is saved, instead of polling the game.
+ * A board update is serialized once into a complete SSE frame and the same bytes are queued to every subscriber of
+ * the game; nothing is serialized for a game without subscribers. Frames are handed to the subscribers by a pool of
+ * application.kalah.events.threads threads, never by the thread that played the move, so a slow subscriber cannot
+ * stall the game. Connections take frames without blocking, so a slow subscriber cannot stall the pool and with it
+ * the other subscribers either. A subscriber that falls application.kalah.events.subscriber.buffer frames behind is
+ * disconnected; it resumes from the current board when it subscribes again.
+ * Subscribers only receive the moves played on this node. The stream of a game ends once the game has a winner or
+ * is deleted.
+ */
+@Component
+public class KalahGameEvents {
+
+    Logger logger = LoggerFactory.getLogger(KalahGameEvents.class);
+
+    private static final byte[] FRAME_ID = "id: ".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] FRAME_DATA = "\ndata: ".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] FRAME_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Connection to one subscriber, on the servlet or the reactive stack.
+     */
+    public interface FrameSink {
+        /**
+         * Hands a complete SSE frame to the connection of the subscriber without blocking, queueing it while the
+         * client is not reading. The bytes are shared with the other subscribers and must not be changed.
+         * @return false if the subscriber is too far behind to take the frame and has to be disconnected.
+         */
+        boolean send(byte[] frame) throws Exception;
+
+        /**
+         * Ends the stream of the subscriber.
+         */
+        void close();
+    }
+
+    @Resource
+    ObjectMapper objectMapper;
+
+    @Value("${application.kalah.events.threads}")
+    Integer eventThreads;
+
+    @Value("${application.kalah.events.subscriber.buffer}")
+    Integer subscriberBuffer;
+
+    private ExecutorService eventPool;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger activeSubscribers = new AtomicInteger();
+
+    private final LongAdder publishedFrames = new LongAdder();
+
+    private final LongAdder deliveredFrames = new LongAdder();
+
+    private final LongAdder laggingSubscribers = new LongAdder();
+
+    @PostConstruct
+    public void startEventPool() {
+        eventPool = Executors.newFixedThreadPool(eventThreads, new CustomizableThreadFactory("kalah-events-"));
+    }
+
+    @PreDestroy
+    public void stopEventPool() {
+        subscribers.keySet().forEach(this::closeGame);
+        eventPool.shutdown();
+    }
+
+    /**
+     * Subscribes to the board updates of a game. The current board is to be read after subscribing and sent with
+     * {@link #sendCurrent}, so that no move saved in between is missed.
+     * @param gameId
+     * @param sink - connection to the subscriber.
+     * @return handle to send the current board with and to unsubscribe with once the connection ends.
+     */
+    public Object subscribe(String gameId, FrameSink sink) {
+        Subscriber subscriber = new Subscriber(gameId, sink);
+        subscribers.computeIfAbsent(gameId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        activeSubscribers.incrementAndGet();
+        return subscriber;
+    }
+
+    /**
+     * Sends the current board, read after subscribing, as the first frame. Ignored if a newer board was pushed meanwhile.
+     * @param subscription - handle returned by {@link #subscribe}.
+     * @param game - current game.
+     */
+    public void sendCurrent(Object subscription, Game game) {
+        ((Subscriber) subscription).offer(frameOf(game));
+    }
+
+    /**
+     * @param subscription - handle returned by {@link #subscribe}.
+     */
+    public void unsubscribe(Object subscription) {
+        Subscriber subscriber = (Subscriber) subscription;
+        if (subscriber.closed.compareAndSet(false, true)) {
+            activeSubscribers.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.gameId, (gameId, gameSubscribers) -> {
+                gameSubscribers.remove(subscriber);
+                return gameSubscribers.isEmpty() ? null : gameSubscribers;
+            });
+        }
+    }
+
+    /**
+     * Pushes the board of a game just saved to its subscribers. Serializes the game only if it has subscribers.
+     * @param game - game saved after a move.
+     */
+    public void publish(Game game) {
+        Set<Subscriber> gameSubscribers = subscribers.get(game.getId());
+        if (gameSubscribers == null || gameSubscribers.isEmpty()) {
+            return;
+        }
+        Frame frame = frameOf(game);
+        publishedFrames.increment();
+        for (Subscriber subscriber : gameSubscribers) {
+            subscriber.offer(frame);
+        }
+    }
+
+    /**
+     * Ends the streams of every subscriber of a game, e.g. once it is deleted.
+     * @param gameId
+     */
+    public void closeGame(String gameId) {
+        Set<Subscriber> gameSubscribers = subscribers.get(gameId);
+        if (gameSubscribers != null) {
+            for (Subscriber subscriber : gameSubscribers) {
+                subscriber.offer(Frame.CLOSE);
+            }
+        }
+    }
+
+    private Frame frameOf(Game game) {
+        try {
+            ByteArrayOutputStream frame = new ByteArrayOutputStream(512);
+            frame.write(FRAME_ID);
+            frame.write(String.valueOf(game.getVersion()).getBytes(StandardCharsets.UTF_8));
+            frame.write(FRAME_DATA);
+            frame.write(objectMapper.writeValueAsBytes(game));
+            frame.write(FRAME_END);
+            return new Frame(game.getVersion(), game.getWinnerPlayer() != null, frame.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Game " + game.getId() + " could not be serialized", e);
+        }
+    }
+
+    public int getActiveSubscribers() {
+        return activeSubscribers.get();
+    }
+
+    public long getPublishedFrames() {
+        return publishedFrames.sum();
+    }
+
+    public long getDeliveredFrames() {
+        return deliveredFrames.sum();
+    }
+
+    public long getLaggingSubscribers() {
+        return laggingSubscribers.sum();
+    }
+
+    /**
+     * A board update, serialized once for all subscribers of the game.
+     */
+    private static final class Frame {
+        private static final Frame CLOSE = new Frame(Long.MAX_VALUE, true, null);
+
+        private final long version;
+        private final boolean last;
+        private final byte[] bytes;
+
+        private Frame(long version, boolean last, byte[] bytes) {
+            this.version = version;
+            this.last = last;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Bounded queue of the frames of one subscriber, drained by one pool thread at a time.
+     */
+    private final class Subscriber implements Runnable {
+        private final String gameId;
+        private final FrameSink sink;
+        private final Queue<Frame> frames = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queuedFrames = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private long lastVersion = Long.MIN_VALUE;
+        private boolean streamEnded;
+
+        private Subscriber(String gameId, FrameSink sink) {
+            this.gameId = gameId;
+            this.sink = sink;
+        }
+
+        private void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (queuedFrames.incrementAndGet() > subscriberBuffer && frame != Frame.CLOSE) {
+                laggingSubscribers.increment();
+                logger.info("Disconnecting subscriber of Game : " + gameId + ", it is " + subscriberBuffer + " board updates behind");
+                frame = Frame.CLOSE;
+                // Frames still queued are skipped, the stream is ended straight away.
+                unsubscribe(this);
+            }
+            frames.add(frame);
+            if (scheduled.compareAndSet(false, true)) {
+                eventPool.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Frame frame;
+                while ((frame = frames.poll()) != null) {
+                    queuedFrames.decrementAndGet();
+                    if (frame == Frame.CLOSE || (!closed.get() && !deliver(frame))) {
+                        endStream();
+                    }
+                }
+                scheduled.set(false);
+            } while (!frames.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private void endStream() {
+            unsubscribe(this);
+            if (!streamEnded) {
+                streamEnded = true;
+                sink.close();
+            }
+        }
+
+        /**
+         * @return false once the stream of the subscriber has ended.
+         */
+        private boolean deliver(Frame frame) {
+            // Frames of concurrent moves may be queued out of order, only newer boards are sent.
+            if (frame.version <= lastVersion) {
+                return true;
+            }
+            try {
+                if (!sink.send(frame.bytes)) {
+                    laggingSubscribers.increment();
+                    return false;
+                }
+            } catch (Exception e) {
+                logger.debug("Subscriber of Game : " + gameId + " went away : " + e.getMessage());
+                return false;
+            }
+            lastVersion = frame.version;
+            deliveredFrames.increment();
+            return !frame.last;
+        }
+    }
+}
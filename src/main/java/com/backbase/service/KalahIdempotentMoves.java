@@ -0,0 +1,184 @@
+package com.backbase.service;
+
+import com.backbase.exception.KalahValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * @author nandk on 18/10/2026.
+ * De-duplication of move requests retried by clients, e.g. on a timeout. A move sent with an Idempotency-Key header
+ * is played once; a request repeating the key gets the response of the first one, or waits for it while it is still
+ * being played, without the move being played again or the game being read.
+ * Keys are remembered on this node for application.kalah.idempotency.ttl.millis, up to
+ * application.kalah.idempotency.max.keys keys, the oldest being dropped first. Validation failures are remembered
+ * like responses, since a retry would fail the same way, and answered as replayed so that they are counted once;
+ * any other failure, e.g. a concurrent move, forgets the key so that the retry plays the move.
+ */
+@Component
+public class KalahIdempotentMoves {
+
+    @Value("${application.kalah.idempotency.max.keys}")
+    Integer maxKeys;
+
+    @Value("${application.kalah.idempotency.ttl.millis}")
+    long ttlMillis;
+
+    /**
+     * Keys in the order they were first seen, so the oldest ones are expired and evicted from the head.
+     */
+    private final Map<String, Response> responses = new LinkedHashMap<String, Response>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Response> eldest) {
+            if (size() <= maxKeys) {
+                return false;
+            }
+            evictions.incrementAndGet();
+            return true;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Response of the first request with a key.
+     */
+    private static final class Response {
+
+        final String request;
+
+        final long expiresAtMillis;
+
+        final CompletableFuture<?> response;
+
+        Response(String request, long expiresAtMillis, CompletableFuture<?> response) {
+            this.request = request;
+            this.expiresAtMillis = expiresAtMillis;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Plays the move once per idempotency key.
+     * @param idempotencyKey - key sent by the client, null to always play the move.
+     * @param gameId - game of the move.
+     * @param pitIds - pitIds of the move(s), a key repeated for other moves is rejected.
+     * @param move - plays the move, only called for a key not seen before.
+     * @return response of the first request with the key.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String idempotencyKey, String gameId, List<Integer> pitIds, Supplier<CompletableFuture<T>> move) {
+        if (idempotencyKey == null) {
+            return move.get();
+        }
+        String key = gameId + '/' + idempotencyKey;
+        String request = pitIds.toString();
+        long now = System.currentTimeMillis();
+        CompletableFuture<T> response;
+        synchronized (responses) {
+            expire(now);
+            Response known = responses.get(key);
+            if (known != null) {
+                if (!known.request.equals(request)) {
+                    throw new KalahValidationException(KalahValidationException.Reason.IDEMPOTENCY_KEY_REUSED, "Idempotency key "
+                            + idempotencyKey + " was used for moves " + known.request + " of Game " + gameId + ", not " + request);
+                }
+                hits.incrementAndGet();
+                return replay((CompletableFuture<T>) known.response);
+            }
+            misses.incrementAndGet();
+            response = new CompletableFuture<>();
+            responses.put(key, new Response(request, now + ttlMillis, response));
+        }
+        CompletableFuture<T> played;
+        try {
+            played = move.get();
+        } catch (RuntimeException e) {
+            played = new CompletableFuture<>();
+            played.completeExceptionally(e);
+        }
+        played.whenComplete((result, failure) -> {
+            if (failure == null) {
+                response.complete(result);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (!(cause instanceof KalahValidationException)) {
+                synchronized (responses) {
+                    responses.remove(key);
+                }
+            }
+            response.completeExceptionally(cause);
+        });
+        return response;
+    }
+
+    /**
+     * @return the response of the first request for a retry. A validation failure is answered as
+     * {@link KalahValidationException#replayed()}, so that it is only counted for the first request.
+     */
+    private static <T> CompletableFuture<T> replay(CompletableFuture<T> response) {
+        CompletableFuture<T> replayed = new CompletableFuture<>();
+        response.whenComplete((result, failure) -> {
+            if (failure == null) {
+                replayed.complete(result);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            replayed.completeExceptionally(cause instanceof KalahValidationException ? ((KalahValidationException) cause).replayed() : cause);
+        });
+        return replayed;
+    }
+
+    /**
+     * Drops the keys past their time to live, all at the head of the map.
+     */
+    private void expire(long now) {
+        Iterator<Response> oldest = responses.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAtMillis <= now) {
+            oldest.remove();
+        }
+    }
+
+    /**
+     * @return requests answered with the response of an earlier request.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return requests with a key not seen before.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return keys dropped before their time to live to stay within application.kalah.idempotency.max.keys.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return keys remembered.
+     */
+    public int getKeys() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.backbase.service;
+
+import com.backbase.repository.KalahActiveGames;
+import com.backbase.repository.KalahGameArchiver;
+import com.backbase.repository.KalahGameCache;
+import com.backbase.repository.MappedGameStore;
+import com.backbase.repository.MappedKalahRespository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Exposes the counters the cache, the move mailboxes, the game events, the computer player, the archiver and the
+ * idempotency keys already keep as
+ * gauges and function counters. They are only read when the registry is scraped, the components keep counting
+ * exactly as before.
+ * kalah.games.active is the number of games in play, as last counted by {@link KalahActiveGames}, kalah.cache.games
+ * the number of games held in the cache of this node. The archive meters are only bound on MongoDB,
+ * kalah.store.games only on the mapped game store.
+ */
+@Component
+public class KalahMeterBinder implements MeterBinder {
+
+    @Resource
+    KalahGameCache kalahGameCache;
+
+    @Resource
+    KalahMoveMailboxes kalahMoveMailboxes;
+
+    @Resource
+    KalahGameEvents kalahGameEvents;
+
+    @Resource
+    KalahComputerPlayer kalahComputerPlayer;
+
+    @Autowired(required = false)
+    KalahGameArchiver kalahGameArchiver;
+
+    @Autowired(required = false)
+    MappedKalahRespository mappedKalahRespository;
+
+    @Resource
+    KalahIdempotentMoves kalahIdempotentMoves;
+
+    @Resource
+    KalahActiveGames kalahActiveGames;
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        gauge(meterRegistry, "kalah.games.active", "Games in play, stored without a winner", kalahActiveGames, KalahActiveGames::getActiveGames);
+        gauge(meterRegistry, "kalah.cache.games", "Games held in the cache of this node", kalahGameCache, KalahGameCache::getCachedGames);
+        gauge(meterRegistry, "kalah.cache.dirty", "Games saved but not yet written to DB", kalahGameCache, KalahGameCache::getDirtyGames);
+        gauge(meterRegistry, "kalah.cache.flush.lag", "Time the oldest game of the last flush waited to be written, in ms", kalahGameCache, KalahGameCache::getLastFlushLagMillis);
+        counter(meterRegistry, "kalah.cache.hits", "Reads served by the cache", kalahGameCache, KalahGameCache::getHits);
+        counter(meterRegistry, "kalah.cache.misses", "Reads that went to DB", kalahGameCache, KalahGameCache::getMisses);
+        counter(meterRegistry, "kalah.cache.evictions", "Games evicted from the cache", kalahGameCache, KalahGameCache::getEvictions);
+        counter(meterRegistry, "kalah.cache.flushed", "Games written to DB", kalahGameCache, KalahGameCache::getFlushedGames);
+        counter(meterRegistry, "kalah.cache.conflicts", "Saves rejected as the game was changed by another move", kalahGameCache, KalahGameCache::getConflicts);
+
+        gauge(meterRegistry, "kalah.mailbox.queued", "Moves waiting in their mailbox", kalahMoveMailboxes, KalahMoveMailboxes::getQueuedMoves);
+        gauge(meterRegistry, "kalah.mailbox.active", "Mailboxes with moves queued", kalahMoveMailboxes, KalahMoveMailboxes::getActiveMailboxes);
+        gauge(meterRegistry, "kalah.mailbox.wait", "Average time a move waited in its mailbox, in us", kalahMoveMailboxes, KalahMoveMailboxes::getAverageWaitMicros);
+        gauge(meterRegistry, "kalah.mailbox.service", "Average time a move took once started, in us", kalahMoveMailboxes, KalahMoveMailboxes::getAverageServiceMicros);
+        counter(meterRegistry, "kalah.mailbox.completed", "Moves run by the mailboxes", kalahMoveMailboxes, KalahMoveMailboxes::getCompletedMoves);
+
+        gauge(meterRegistry, "kalah.events.subscribers", "Subscribers to board updates", kalahGameEvents, KalahGameEvents::getActiveSubscribers);
+        counter(meterRegistry, "kalah.events.published", "Board updates serialized for subscribers", kalahGameEvents, KalahGameEvents::getPublishedFrames);
+        counter(meterRegistry, "kalah.events.delivered", "Board updates written to subscribers", kalahGameEvents, KalahGameEvents::getDeliveredFrames);
+        counter(meterRegistry, "kalah.events.lagging", "Subscribers disconnected for falling behind", kalahGameEvents, KalahGameEvents::getLaggingSubscribers);
+
+        counter(meterRegistry, "kalah.computer.searches", "Moves searched by the computer", kalahComputerPlayer, KalahComputerPlayer::getSearches);
+        counter(meterRegistry, "kalah.computer.nodes", "Positions searched by the computer", kalahComputerPlayer, KalahComputerPlayer::getSearchedNodes);
+
+        if (kalahGameArchiver != null) {
+            gauge(meterRegistry, "kalah.archive.batch", "Games archived by the last batch", kalahGameArchiver, KalahGameArchiver::getLastBatchSize);
+            gauge(meterRegistry, "kalah.archive.lag", "Time the oldest game of the last batch waited past its archive time, in ms", kalahGameArchiver, KalahGameArchiver::getLastLagMillis);
+            counter(meterRegistry, "kalah.archive.games", "Finished games moved to the archive", kalahGameArchiver, KalahGameArchiver::getArchivedGames);
+        }
+        if (mappedKalahRespository != null) {
+            gauge(meterRegistry, "kalah.store.games", "Games held by the mapped game store", mappedKalahRespository.getStore(), MappedGameStore::size);
+        }
+
+        gauge(meterRegistry, "kalah.idempotency.keys", "Idempotency keys remembered", kalahIdempotentMoves, KalahIdempotentMoves::getKeys);
+        counter(meterRegistry, "kalah.idempotency.hits", "Move requests answered with the response of an earlier request with the same key", kalahIdempotentMoves, KalahIdempotentMoves::getHits);
+        counter(meterRegistry, "kalah.idempotency.misses", "Move requests with a key not seen before", kalahIdempotentMoves, KalahIdempotentMoves::getMisses);
+        counter(meterRegistry, "kalah.idempotency.evictions", "Idempotency keys dropped before their time to live", kalahIdempotentMoves, KalahIdempotentMoves::getEvictions);
+    }
+
+    private static <T> void gauge(MeterRegistry meterRegistry, String name, String description, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).description(description).register(meterRegistry);
+    }
+
+    private static <T> void counter(MeterRegistry meterRegistry, String name, String description, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, source, count).description(description).register(meterRegistry);
+    }
+}
@@ -0,0 +1,176 @@
+package com.backbase.service;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Player;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Micrometer meters of the game service, exported in Prometheus format on /actuator/prometheus:
+ * kalah.move - latency of a move request (type single or batch), from reading the game until it is saved, retries included.
+ * kalah.move.phase - time of each phase of a move: validation, sowing, winner (the end of game sweep included) and persistence.
+ * kalah.computer.search - time the computer takes to answer a move.
+ * kalah.games.created and kalah.games.finished (by winner) - games started and won.
+ * kalah.validation.failures - requests rejected, by {@link KalahValidationException.Reason}.
+ * kalah.board.serialization - time to write a Game as JSON.
+ * Every meter is registered up front, so recording only reads the clock and updates a meter that is already there,
+ * cheap enough to stay on under full load. Histogram buckets of the kalah timers are set in application.properties.
+ * Repository calls are timed by RepositoryMetrics, the counters of the cache, the mailboxes, the game events and the
+ * computer player are bound by {@link KalahMeterBinder}.
+ */
+@Component
+public class KalahMetrics implements KalahRules.MoveClock {
+
+    private final Timer singleMove;
+
+    private final Timer batchMove;
+
+    private final Timer validation;
+
+    private final Timer sowing;
+
+    private final Timer winner;
+
+    private final Timer persistence;
+
+    private final Timer computerSearch;
+
+    private final Timer boardSerialization;
+
+    private final Counter gamesCreated;
+
+    private final Counter[] gamesFinished = new Counter[Player.values().length];
+
+    private final Counter[] validationFailures = new Counter[KalahValidationException.Reason.values().length];
+
+    public KalahMetrics(MeterRegistry meterRegistry) {
+        singleMove = moveTimer(meterRegistry, "single");
+        batchMove = moveTimer(meterRegistry, "batch");
+        validation = phaseTimer(meterRegistry, "validation");
+        sowing = phaseTimer(meterRegistry, "sowing");
+        winner = phaseTimer(meterRegistry, "winner");
+        persistence = phaseTimer(meterRegistry, "persistence");
+        computerSearch = Timer.builder("kalah.computer.search")
+                .description("Time the computer takes to answer a move")
+                .register(meterRegistry);
+        boardSerialization = Timer.builder("kalah.board.serialization")
+                .description("Time to write a Game with its board as JSON")
+                .tag("format", "json")
+                .register(meterRegistry);
+        gamesCreated = Counter.builder("kalah.games.created")
+                .description("Games started")
+                .register(meterRegistry);
+        for (Player player : new Player[]{Player.PLAYER1, Player.PLAYER2}) {
+            gamesFinished[player.ordinal()] = Counter.builder("kalah.games.finished")
+                    .description("Games won")
+                    .tag("winner", player.name())
+                    .register(meterRegistry);
+        }
+        for (KalahValidationException.Reason reason : KalahValidationException.Reason.values()) {
+            validationFailures[reason.ordinal()] = Counter.builder("kalah.validation.failures")
+                    .description("Requests rejected by validation")
+                    .tag("reason", reason.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static Timer moveTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("kalah.move")
+                .description("Latency of a move request, from reading the game until it is saved")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("kalah.move.phase")
+                .description("Time of a phase of a move")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long start() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long validated(long startedAt) {
+        return lap(validation, startedAt);
+    }
+
+    @Override
+    public long sown(long startedAt) {
+        return lap(sowing, startedAt);
+    }
+
+    @Override
+    public long winnerChecked(long startedAt) {
+        return lap(winner, startedAt);
+    }
+
+    public long persisted(long startedAt) {
+        return lap(persistence, startedAt);
+    }
+
+    public void movePlayed(long startedAt) {
+        lap(singleMove, startedAt);
+    }
+
+    public void movesPlayed(long startedAt) {
+        lap(batchMove, startedAt);
+    }
+
+    public void computerAnswered(long startedAt) {
+        lap(computerSearch, startedAt);
+    }
+
+    public void boardSerialized(long startedAt) {
+        lap(boardSerialization, startedAt);
+    }
+
+    public void gameCreated() {
+        gamesCreated.increment();
+    }
+
+    public void gameFinished(Player winnerPlayer) {
+        gamesFinished[winnerPlayer.ordinal()].increment();
+    }
+
+    public void validationFailed(KalahValidationException.Reason reason) {
+        validationFailures[reason.ordinal()].increment();
+    }
+
+    /**
+     * Times a move of the reactive stack from subscription until it is saved.
+     * @param move - the move, from reading the game until it is saved.
+     * @param batch - true for a batch of moves.
+     */
+    public <T> Mono<T> timeMove(Mono<T> move, boolean batch) {
+        return Mono.defer(() -> {
+            long startedAt = start();
+            return move.doOnSuccess(played -> lap(batch ? batchMove : singleMove, startedAt));
+        });
+    }
+
+    /**
+     * Times the save of a move of the reactive stack from subscription until it completes.
+     */
+    public <T> Mono<T> timePersistence(Mono<T> save) {
+        return Mono.defer(() -> {
+            long startedAt = start();
+            return save.doOnSuccess(saved -> persisted(startedAt));
+        });
+    }
+
+    private static long lap(Timer timer, long startedAt) {
+        long endedAt = System.nanoTime();
+        timer.record(endedAt - startedAt, TimeUnit.NANOSECONDS);
+        return endedAt;
+    }
+}
@@ -0,0 +1,202 @@
+package com.backbase.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Single writer execution of moves. Every game has its own mailbox: moves for a game are queued there and run one
+ * after the other, while the mailboxes of different games run in parallel on a shared pool of
+ * application.kalah.mailbox.threads threads. Moves of the same game therefore never race each other, without locks.
+ * A mailbox only lives while it has moves queued, it is reclaimed as soon as it runs empty.
+ * Queue depth, wait time and service time of moves are kept for sizing the pool.
+ */
+@Component
+public class KalahMoveMailboxes {
+
+    /**
+     * Moves run per turn of a busy mailbox before its thread is handed to the other mailboxes.
+     */
+    private static final int MAX_MOVES_PER_RUN = 32;
+
+    @Value("${application.kalah.mailbox.threads}")
+    Integer mailboxThreads;
+
+    private ExecutorService movePool;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queuedMoves = new AtomicInteger();
+
+    private final LongAdder completedMoves = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAdder serviceNanos = new LongAdder();
+
+    @PostConstruct
+    public void startMovePool() {
+        movePool = Executors.newFixedThreadPool(mailboxThreads, new CustomizableThreadFactory("kalah-move-"));
+    }
+
+    @PreDestroy
+    public void stopMovePool() {
+        movePool.shutdown();
+    }
+
+    /**
+     * Queues a move in the mailbox of the game.
+     * @param gameId - game the move belongs to.
+     * @param move - the move, run once all moves queued before it for the same game are done.
+     * @return future completed with the result of the move, or exceptionally with the exception it threw.
+     */
+    public <T> CompletableFuture<T> submit(String gameId, Supplier<T> move) {
+        QueuedMove<T> task = new QueuedMove<>(move);
+        queuedMoves.incrementAndGet();
+        boolean[] schedule = new boolean[1];
+        Mailbox mailbox = mailboxes.compute(gameId, (id, current) -> {
+            Mailbox target = current == null ? new Mailbox(id) : current;
+            target.moves.add(task);
+            schedule[0] = !target.scheduled;
+            target.scheduled = true;
+            return target;
+        });
+        if (schedule[0]) {
+            execute(mailbox);
+        }
+        return task.result;
+    }
+
+    /**
+     * Hands the mailbox to the pool. Once the pool is shut down the mailbox is reclaimed and its queued moves fail
+     * with the {@link RejectedExecutionException}, rather than waiting for a run that never comes.
+     */
+    private void execute(Mailbox mailbox) {
+        try {
+            movePool.execute(mailbox);
+        } catch (RejectedExecutionException e) {
+            List<QueuedMove<?>> rejected = new ArrayList<>();
+            mailboxes.compute(mailbox.gameId, (id, current) -> {
+                for (QueuedMove<?> move = mailbox.moves.poll(); move != null; move = mailbox.moves.poll()) {
+                    rejected.add(move);
+                }
+                mailbox.scheduled = false;
+                return null;
+            });
+            for (QueuedMove<?> move : rejected) {
+                queuedMoves.decrementAndGet();
+                move.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    public int getQueuedMoves() {
+        return queuedMoves.get();
+    }
+
+    public int getActiveMailboxes() {
+        return mailboxes.size();
+    }
+
+    public long getCompletedMoves() {
+        return completedMoves.sum();
+    }
+
+    /**
+     * @return average time in microseconds a move waited in its mailbox before it started.
+     */
+    public double getAverageWaitMicros() {
+        long moves = completedMoves.sum();
+        return moves == 0 ? 0 : waitNanos.sum() / 1000.0 / moves;
+    }
+
+    /**
+     * @return average time in microseconds a move took to run once started.
+     */
+    public double getAverageServiceMicros() {
+        long moves = completedMoves.sum();
+        return moves == 0 ? 0 : serviceNanos.sum() / 1000.0 / moves;
+    }
+
+    /**
+     * A move waiting in its mailbox, with the future of its result.
+     */
+    private final class QueuedMove<T> implements Runnable {
+        private final Supplier<T> move;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+
+        private QueuedMove(Supplier<T> move) {
+            this.move = move;
+        }
+
+        @Override
+        public void run() {
+            queuedMoves.decrementAndGet();
+            long startedAt = System.nanoTime();
+            waitNanos.add(startedAt - queuedAt);
+            try {
+                result.complete(move.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                serviceNanos.add(System.nanoTime() - startedAt);
+                completedMoves.increment();
+            }
+        }
+    }
+
+    /**
+     * Queue of the moves of one game. Only ever run by one pool thread at a time; whether it is scheduled is only
+     * changed inside {@link ConcurrentHashMap#compute}, which makes queueing and reclaiming atomic per game.
+     */
+    private final class Mailbox implements Runnable {
+        private final String gameId;
+        private final Queue<QueuedMove<?>> moves = new ConcurrentLinkedQueue<>();
+        private boolean scheduled;
+
+        private Mailbox(String gameId) {
+            this.gameId = gameId;
+        }
+
+        @Override
+        public void run() {
+            for (int run = 0; run < MAX_MOVES_PER_RUN; run++) {
+                QueuedMove<?> move = moves.poll();
+                if (move == null) {
+                    break;
+                }
+                move.run();
+            }
+            boolean[] reschedule = new boolean[1];
+            mailboxes.compute(gameId, (id, current) -> {
+                if (moves.isEmpty()) {
+                    scheduled = false;
+                    return null;
+                }
+                reschedule[0] = true;
+                return current;
+            });
+            if (reschedule[0]) {
+                execute(this);
+            }
+        }
+    }
+}
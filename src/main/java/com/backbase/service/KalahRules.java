@@ -0,0 +1,250 @@
+package com.backbase.service;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.MoveOutcome;
+import com.backbase.model.MovePreview;
+import com.backbase.model.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Rules of a single Kalah move, applied on the {@link Board} of a {@link Game}. Kept free of persistence so the
+ * same rules serve live moves in {@link KalahBoard} and the replay of journaled moves.
+ */
+public final class KalahRules {
+
+    static final KalahValidationException GAME_ENDED = KalahValidationException.shared(KalahValidationException.Reason.GAME_ENDED, "Game has ended already ");
+
+    static final KalahValidationException INVALID_PIT = KalahValidationException.shared(KalahValidationException.Reason.INVALID_PIT, "Invalid Pit Id used.");
+
+    static final KalahValidationException NO_PITS = KalahValidationException.shared(KalahValidationException.Reason.NO_PITS, "No pits given for the moves.");
+
+    private static final KalahValidationException EMPTY_PIT = KalahValidationException.shared(KalahValidationException.Reason.EMPTY_PIT, "Move not allowed from Pit.No stones available ");
+
+    /**
+     * Per player (by ordinal) making the move.
+     */
+    private static final KalahValidationException[] NOT_OWN_PIT = new KalahValidationException[2];
+
+    private static final KalahValidationException[] KALAH_PIT = new KalahValidationException[2];
+
+    static {
+        for (Player player : new Player[]{Player.PLAYER1, Player.PLAYER2}) {
+            NOT_OWN_PIT[player.ordinal()] = KalahValidationException.shared(KalahValidationException.Reason.NOT_OWN_PIT, "Current Player doesn't own the pit.Owned by : "+player);
+            KALAH_PIT[player.ordinal()] = KalahValidationException.shared(KalahValidationException.Reason.KALAH_PIT, "Move not allowed from Kalah : "+player);
+        }
+    }
+
+    private KalahRules() {
+    }
+
+    /**
+     * @param game
+     * @return Player who makes the next move. Default start with player 1.
+     */
+    public static Player currentPlayer(Game game) {
+        return game.getNextPlayer() != Player.ANY ? game.getNextPlayer() : Player.PLAYER1;
+    }
+
+    /**
+     * Plays a move of the current player from the given pit and records it on the game.
+     * Sets the next player and, once the game is over, the winner.
+     * @param game - game to play the move on.
+     * @param pitId - pitId from where the movement begins.
+     * @return board index where the last stone landed.
+     */
+    public static int applyMove(Game game, int pitId) {
+        return applyMove(game, pitId, MoveClock.NONE, 0);
+    }
+
+    /**
+     * Plays a move as {@link #applyMove(Game, int)}, reporting the time taken by each phase of the move to the clock.
+     * @param game - game to play the move on.
+     * @param pitId - pitId from where the movement begins.
+     * @param clock - clock receiving the phases of the move.
+     * @param startedAt - time the validation of the move started at, as read from the clock.
+     * @return board index where the last stone landed.
+     */
+    public static int applyMove(Game game, int pitId, MoveClock clock, long startedAt) {
+        Player currentPlayer = currentPlayer(game);
+        Board currentBoard = game.getBoard();
+        int pitIndex = pitId - 1;//Convert to our indexing
+        isMoveValid(currentBoard, pitIndex, currentPlayer);
+        long sowingAt = clock.validated(startedAt);
+        // Make moves to release stones on each pit/kalah
+        int lastIndex = currentBoard.sow(pitIndex, currentPlayer);
+        game.setNextPlayer(captureOrExtraTurn(currentBoard, lastIndex, currentPlayer));
+        long winnerCheckAt = clock.sown(sowingAt);
+        //After the move is complete check if we already have a winner
+        Player winnerPlayer=doWeHaveAWinner(currentBoard);
+        if (winnerPlayer!=null){
+            game.setNextPlayer(null);
+            game.setWinnerPlayer(winnerPlayer);
+        }
+        clock.winnerChecked(winnerCheckAt);
+        game.recordMove(currentPlayer, pitId);
+        return lastIndex;
+    }
+
+    /**
+     * Works out what a move from every pit of the current player would do, by the same rules as {@link #applyMove},
+     * without changing the game. Every move is played on one scratch copy of the board, reset from the game's board
+     * before each pit. In a game against the computer the outcome is before the computer's answer.
+     * @param game - game to preview the moves of.
+     * @return outcome of the move from each pit of the current player, none once the game has ended.
+     */
+    public static MovePreview previewMoves(Game game) {
+        Board currentBoard = game.getBoard();
+        if (game.getWinnerPlayer() != null || !currentBoard.hasStonesInPits()) {
+            return new MovePreview(game.getId(), game.getVersion(), null, Collections.emptyList());
+        }
+        Player currentPlayer = currentPlayer(game);
+        BoardGeometry geometry = currentBoard.getGeometry();
+        int firstPit = geometry.firstPitOf(currentPlayer);
+        List<MoveOutcome> moves = new ArrayList<>(geometry.pitsPerPlayer());
+        Board scratch = null;
+        for (int pitIndex = firstPit; pitIndex < firstPit + geometry.pitsPerPlayer(); pitIndex++) {
+            if (currentBoard.stones(pitIndex) == 0) {
+                moves.add(MoveOutcome.rejected(pitIndex + 1, EMPTY_PIT.getMessage()));
+                continue;
+            }
+            if (scratch == null) {
+                scratch = currentBoard.copy();
+            } else {
+                scratch.copyFrom(currentBoard);
+            }
+            int lastIndex = scratch.sow(pitIndex, currentPlayer);
+            boolean capture = scratch.captureAt(lastIndex, currentPlayer);
+            Player nextPlayer = nextPlayer(scratch, lastIndex, currentPlayer, capture);
+            Player winnerPlayer = doWeHaveAWinner(scratch);
+            moves.add(MoveOutcome.legal(pitIndex + 1, scratch.toStones(), nextPlayer == currentPlayer && winnerPlayer == null,
+                    capture, winnerPlayer));
+        }
+        return new MovePreview(game.getId(), game.getVersion(), currentPlayer, moves);
+    }
+
+    /**
+     * Completes a move once its stones are sown. Shared by the moves of a game and the search of the
+     * {@link KalahComputerPlayer}, so both play by exactly the same rules.
+     * @param currentBoard - board the stones were sown on.
+     * @param lastIndex - board index where the last stone landed.
+     * @param currentPlayer - player making the move.
+     * @return Player who makes the next move.
+     */
+    public static Player captureOrExtraTurn(Board currentBoard, int lastIndex, Player currentPlayer) {
+        //If the move ends at players own empty pit  opposite players stone are also captured and moved to current players house/kalah.
+        return nextPlayer(currentBoard, lastIndex, currentPlayer, currentBoard.captureAt(lastIndex, currentPlayer));
+    }
+
+    /**
+     * @param currentBoard - board the stones were sown on.
+     * @param lastIndex - board index where the last stone landed.
+     * @param currentPlayer - player making the move.
+     * @param captured - whether {@link Board#captureAt} captured at the last index.
+     * @return Player who makes the next move.
+     */
+    private static Player nextPlayer(Board currentBoard, int lastIndex, Player currentPlayer, boolean captured) {
+        if (captured) {
+            return currentPlayer != Player.PLAYER1 ? Player.PLAYER1 : Player.PLAYER2;
+        }
+        //If the players last stone lands in his own Kalah/House, he gets another turn
+        else if(lastIndex==currentBoard.getGeometry().kalahOf(currentPlayer)){
+            return currentPlayer;
+        }else{
+            return currentPlayer!=Player.PLAYER1?Player.PLAYER1:Player.PLAYER2;
+        }
+    }
+
+    /**
+     * Validates the move that is being made.
+     * 1. Current player owns the Pit chosen for the move.
+     * 2. The move begins from a Pit and NOT from Kalah.
+     * 3. If the Pit contains stones for any movement to happen.
+     * @param currentBoard
+     * @param pitIndex
+     * @param currentPlayer
+     * @return number of stones (number of moves) that are available in the chosen Pit.
+     */
+    public static int isMoveValid(Board currentBoard,int pitIndex,Player currentPlayer){
+        BoardGeometry geometry = currentBoard.getGeometry();
+        if(geometry.ownerOf(pitIndex)!=currentPlayer){
+            throw NOT_OWN_PIT[currentPlayer.ordinal()];
+        }
+        if(geometry.isKalah(pitIndex)){
+            throw KALAH_PIT[currentPlayer.ordinal()];
+        }
+        int noOfMoves=currentBoard.stones(pitIndex);
+        if (noOfMoves==0){
+            throw EMPTY_PIT;
+        }
+        return noOfMoves;
+    }
+
+    /**
+     * After a move has been completed the board is checked for identifying if we already have a winner.
+     * Validates the PIT stones for any player has all become 0 and then compares their Kalah/House scores.
+     * @param currentBoard
+     * @return Player that may have won else null object is returned.
+     */
+    public static Player doWeHaveAWinner(Board currentBoard){
+        return currentBoard.sweepIfFinished();
+    }
+
+    /**
+     * Receives the time taken by each phase of a move, e.g. {@link KalahMetrics}. Every phase is given the time it
+     * started at and returns the time it ended at, which is the start of the next phase.
+     */
+    public interface MoveClock {
+
+        /**
+         * Clock of moves that are not timed, it never reads the time.
+         */
+        MoveClock NONE = new MoveClock() {
+            @Override
+            public long start() {
+                return 0;
+            }
+
+            @Override
+            public long validated(long startedAt) {
+                return 0;
+            }
+
+            @Override
+            public long sown(long startedAt) {
+                return 0;
+            }
+
+            @Override
+            public long winnerChecked(long startedAt) {
+                return 0;
+            }
+        };
+
+        /**
+         * @return current time, as start of a move.
+         */
+        long start();
+
+        /**
+         * Validation of the game, the pitId and the move by {@link #isMoveValid}.
+         */
+        long validated(long startedAt);
+
+        /**
+         * Sowing of the stones, capture and extra turn included.
+         */
+        long sown(long startedAt);
+
+        /**
+         * Winner check by {@link #doWeHaveAWinner}, the end of game sweep included.
+         */
+        long winnerChecked(long startedAt);
+    }
+}
@@ -0,0 +1,290 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Player;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Headless self-play, e.g. for balancing tests and analytics. Plays games on the board with the rules of
+ * {@link KalahRules} on all cores, each player with its own {@link Strategy}, and streams every finished game (moves,
+ * winner and final Kalah/House scores) to an NDJSON file, or a CSV file if its name ends with .csv. No Game is built
+ * and nothing is stored in DB. Games per second are reported while the games are played and at the end.
+ * Games are numbered from 0 and written in the order they finish. A game of random and greedy players plays the
+ * same with the same seed, whatever the number of threads.
+ * Usage: KalahSimulation &lt;games&gt; &lt;output file&gt; [player 1 strategy] [player 2 strategy] [initial stones] [threads] [search depth] [seed]
+ */
+public final class KalahSimulation {
+
+    /**
+     * How a player picks his/her move.
+     */
+    public enum Strategy {
+        /**
+         * Any pit with stones.
+         */
+        RANDOM,
+        /**
+         * The pit that puts most stones in the own Kalah/House, preferring an extra turn, ties broken at random.
+         */
+        GREEDY,
+        /**
+         * The move of the {@link KalahComputerPlayer}, searched to the given depth.
+         */
+        SEARCH
+    }
+
+    /**
+     * Games a thread plays before writing them out.
+     */
+    private static final int GAMES_PER_CHUNK = 256;
+
+    /**
+     * Longest search of the search strategy. Searches go to a fixed depth, this only stops a runaway one.
+     */
+    private static final long SEARCH_BUDGET_MILLIS = 60000;
+
+    private static final long REPORT_INTERVAL_MILLIS = 5000;
+
+    private final long games;
+
+    private final Strategy[] strategies;
+
+    private final int initialStones;
+
+    private final int threads;
+
+    private final int searchDepth;
+
+    private final long seed;
+
+    private final boolean csv;
+
+    private KalahComputerPlayer kalahComputerPlayer;
+
+    private final AtomicLong nextGame = new AtomicLong();
+
+    private final LongAdder finishedGames = new LongAdder();
+
+    private final LongAdder playedMoves = new LongAdder();
+
+    private final LongAdder player1Wins = new LongAdder();
+
+    KalahSimulation(long games, Strategy player1Strategy, Strategy player2Strategy, int initialStones, int threads, int searchDepth, long seed, boolean csv) {
+        this.games = games;
+        this.strategies = new Strategy[]{player1Strategy, player2Strategy};
+        this.initialStones = initialStones;
+        this.threads = threads;
+        this.searchDepth = searchDepth;
+        this.seed = seed;
+        this.csv = csv;
+    }
+
+    public static void main(String args[]) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: KalahSimulation <games> <output file> [player 1 strategy] [player 2 strategy] [initial stones] [threads] [search depth] [seed]");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        Path output = Paths.get(args[1]);
+        Strategy player1Strategy = args.length > 2 ? Strategy.valueOf(args[2].toUpperCase()) : Strategy.RANDOM;
+        Strategy player2Strategy = args.length > 3 ? Strategy.valueOf(args[3].toUpperCase()) : Strategy.RANDOM;
+        int initialStones = args.length > 4 ? Integer.parseInt(args[4]) : 6;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+        int searchDepth = args.length > 6 ? Integer.parseInt(args[6]) : 6;
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+        new KalahSimulation(games, player1Strategy, player2Strategy, initialStones, threads, searchDepth, seed,
+                output.getFileName().toString().toLowerCase().endsWith(".csv")).run(output);
+    }
+
+    /**
+     * Plays all games and writes them to the output file.
+     * @param output - file to write, replaced if it exists.
+     * @return number of games played.
+     */
+    long run(Path output) throws Exception {
+        if (strategies[0] == Strategy.SEARCH || strategies[1] == Strategy.SEARCH) {
+            kalahComputerPlayer = new KalahComputerPlayer();
+            kalahComputerPlayer.moveMillis = SEARCH_BUDGET_MILLIS;
+            kalahComputerPlayer.maxDepth = searchDepth;
+            kalahComputerPlayer.searchThreads = threads;
+            kalahComputerPlayer.tableBits = 20;
+            kalahComputerPlayer.kalahEndgameTables = new KalahEndgameTables();
+            kalahComputerPlayer.startSearchPool();
+        }
+        ExecutorService simulationThreads = Executors.newFixedThreadPool(threads);
+        long startedAt = System.nanoTime();
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            if (csv) {
+                writer.write("game,player1Strategy,player2Strategy,winner,player1Score,player2Score,moves\n");
+            }
+            Future<?>[] workers = new Future<?>[threads];
+            for (int thread = 0; thread < threads; thread++) {
+                workers[thread] = simulationThreads.submit(() -> {
+                    playGames(writer);
+                    return null;
+                });
+            }
+            simulationThreads.shutdown();
+            while (!simulationThreads.awaitTermination(REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                report(startedAt);
+            }
+            for (Future<?> worker : workers) {
+                // Fails the run with the first error of a worker.
+                worker.get();
+            }
+        } finally {
+            simulationThreads.shutdownNow();
+            if (kalahComputerPlayer != null) {
+                kalahComputerPlayer.stopSearchPool();
+            }
+        }
+        report(startedAt);
+        return finishedGames.sum();
+    }
+
+    private void report(long startedAt) {
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+        long finished = finishedGames.sum();
+        System.out.printf("games %d of %d in %.1f s (%.0f games/s, %.0f moves/s), player 1 won %d%n", finished, games,
+                elapsedSeconds, finished / elapsedSeconds, playedMoves.sum() / elapsedSeconds, player1Wins.sum());
+    }
+
+    /**
+     * Claims chunks of games until all are played, writing each chunk at once.
+     */
+    private void playGames(Writer writer) throws IOException {
+        StringBuilder chunk = new StringBuilder(GAMES_PER_CHUNK * 256);
+        int[] moves = new int[256];
+        Board scratch = Board.withInitialStones(0);
+        for (long first = nextGame.getAndAdd(GAMES_PER_CHUNK); first < games; first = nextGame.getAndAdd(GAMES_PER_CHUNK)) {
+            long last = Math.min(first + GAMES_PER_CHUNK, games);
+            for (long game = first; game < last; game++) {
+                Board board = Board.withInitialStones(initialStones);
+                moves = playGame(board, moves, scratch, new SplittableRandom(seed + game * 0x9E3779B97F4A7C15L));
+                writeGame(chunk, game, board, moves);
+            }
+            synchronized (writer) {
+                writer.append(chunk);
+            }
+            chunk.setLength(0);
+            finishedGames.add(last - first);
+        }
+    }
+
+    /**
+     * Plays a game to the end, Player 1 first.
+     * @return pitIds of the moves, the first element holding their number; grown if needed.
+     */
+    private int[] playGame(Board board, int[] moves, Board scratch, SplittableRandom random) {
+        int moveCount = 0;
+        Player player = Player.PLAYER1;
+        Player winner = null;
+        while (winner == null) {
+            int pitIndex = choosePit(board, player, scratch, random);
+            KalahRules.isMoveValid(board, pitIndex, player);
+            int lastIndex = board.sow(pitIndex, player);
+            player = KalahRules.captureOrExtraTurn(board, lastIndex, player);
+            winner = KalahRules.doWeHaveAWinner(board);
+            if (moveCount + 2 > moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+            }
+            moves[++moveCount] = pitIndex + 1;
+        }
+        moves[0] = moveCount;
+        playedMoves.add(moveCount);
+        if (winner == Player.PLAYER1) {
+            player1Wins.increment();
+        }
+        return moves;
+    }
+
+    private int choosePit(Board board, Player player, Board scratch, SplittableRandom random) {
+        switch (strategies[player.ordinal()]) {
+            case GREEDY:
+                return greedyPit(board, player, scratch, random);
+            case SEARCH:
+                return kalahComputerPlayer.search(board, player, searchDepth, SEARCH_BUDGET_MILLIS).getPitId() - 1;
+            default:
+                return randomPit(board, player, random);
+        }
+    }
+
+    private static int randomPit(Board board, Player player, SplittableRandom random) {
+        int kalah = Board.kalahOf(player);
+        int chosen = -1;
+        int legalPits = 0;
+        for (int pitIndex = kalah - Board.PITS_PER_PLAYER; pitIndex < kalah; pitIndex++) {
+            if (board.stones(pitIndex) != 0 && random.nextInt(++legalPits) == 0) {
+                chosen = pitIndex;
+            }
+        }
+        return chosen;
+    }
+
+    private static int greedyPit(Board board, Player player, Board scratch, SplittableRandom random) {
+        int kalah = Board.kalahOf(player);
+        int chosen = -1;
+        int bestScore = Integer.MIN_VALUE;
+        int ties = 0;
+        for (int pitIndex = kalah - Board.PITS_PER_PLAYER; pitIndex < kalah; pitIndex++) {
+            if (board.stones(pitIndex) == 0) {
+                continue;
+            }
+            scratch.copyFrom(board);
+            int lastIndex = scratch.sow(pitIndex, player);
+            Player nextPlayer = KalahRules.captureOrExtraTurn(scratch, lastIndex, player);
+            KalahRules.doWeHaveAWinner(scratch);
+            int score = 2 * (scratch.stones(kalah) - board.stones(kalah)) + (nextPlayer == player ? 1 : 0);
+            if (score > bestScore) {
+                bestScore = score;
+                chosen = pitIndex;
+                ties = 1;
+            } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                chosen = pitIndex;
+            }
+        }
+        return chosen;
+    }
+
+    private void writeGame(StringBuilder out, long game, Board board, int[] moves) {
+        int player1Score = board.stones(Board.PLAYER1_KALAH);
+        int player2Score = board.stones(Board.PLAYER2_KALAH);
+        // Same rule as Board#sweepIfFinished, a tie goes to Player 2.
+        Player winner = player1Score > player2Score ? Player.PLAYER1 : Player.PLAYER2;
+        if (csv) {
+            out.append(game).append(',').append(strategies[0]).append(',').append(strategies[1]).append(',').append(winner)
+                    .append(',').append(player1Score).append(',').append(player2Score).append(',');
+            for (int move = 1; move <= moves[0]; move++) {
+                out.append(move == 1 ? "" : " ").append(moves[move]);
+            }
+        } else {
+            out.append("{\"game\":").append(game)
+                    .append(",\"player1Strategy\":\"").append(strategies[0])
+                    .append("\",\"player2Strategy\":\"").append(strategies[1])
+                    .append("\",\"winner\":\"").append(winner)
+                    .append("\",\"player1Score\":").append(player1Score)
+                    .append(",\"player2Score\":").append(player2Score)
+                    .append(",\"moves\":[");
+            for (int move = 1; move <= moves[0]; move++) {
+                out.append(move == 1 ? "" : ",").append(moves[move]);
+            }
+            out.append("]}");
+        }
+        out.append('\n');
+    }
+}
@@ -0,0 +1,165 @@
+package com.backbase.service;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Game;
+import com.backbase.model.MoveBatchResponse;
+import com.backbase.repository.KalahGameExporter;
+import com.backbase.repository.KalahMoveJournal;
+import com.backbase.repository.ReactiveKalahRespository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Non blocking counterpart of {@link KalahBoard} for the reactive stack, opted into with
+ * spring.main.web-application-type=reactive. Games are read and written through the {@link ReactiveKalahRespository}
+ * so no thread waits on DB; the validation and rules of a move are the ones of {@link KalahBoard}.
+ * A move is saved with a compare-and-set update on the version of the game read, so concurrent moves on the same
+ * game cannot overwrite each other, and is retried up to application.kalah.move.retries times as in {@link KalahBoard}.
+ * Games are written straight to DB, without the in-memory cache or the move journal.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveKalahBoard {
+
+    @Resource
+    KalahBoard kalahBoard;
+
+    @Resource
+    ReactiveKalahRespository reactiveKalahRespository;
+
+    @Resource
+    KalahGameEvents kalahGameEvents;
+
+    @Resource
+    KalahMetrics kalahMetrics;
+
+    @Value("${application.kalah.move.retries}")
+    Integer moveRetries;
+
+    @Value("${application.kalah.persistence.mode}")
+    KalahMoveJournal.PersistenceMode persistenceMode;
+
+    @Value("${application.kalah.export.batch}")
+    Integer exportBatch;
+
+    @PostConstruct
+    public void validatePersistenceMode() {
+        if (persistenceMode != KalahMoveJournal.PersistenceMode.DOCUMENT) {
+            throw new IllegalStateException("The reactive stack writes games without the move journal, application.kalah.persistence.mode must be DOCUMENT");
+        }
+    }
+
+    /**
+     * @see KalahBoard#initializeNewBoardGame(String, Integer)
+     */
+    public Mono<Game> initializeNewBoardGame(String opponent, Integer pits) {
+        return Mono.fromCallable(() -> {
+            Game newGame = kalahBoard.newBoardGame(opponent, pits);
+            newGame.setVersion(newGame.getVersion() + 1);
+            return newGame;
+        }).flatMap(reactiveKalahRespository::insert);
+    }
+
+    /**
+     * @see KalahBoard#initializeNewBoardGames(Integer, Integer)
+     */
+    public Flux<Game> initializeNewBoardGames(Integer numberOfGames, Integer pits) {
+        return Mono.fromCallable(() -> {
+            List<Game> newGames = kalahBoard.newBoardGames(numberOfGames, pits);
+            newGames.forEach(newGame -> newGame.setVersion(newGame.getVersion() + 1));
+            return newGames;
+        }).flatMapMany(reactiveKalahRespository::insert);
+    }
+
+    /**
+     * @see KalahBoard#makeMyMove(String, Integer)
+     */
+    public Mono<Game> makeMyMove(String gameId, Integer pitId) {
+        return kalahMetrics.timeMove(fetchKalahBoardForGameId(gameId)
+                .flatMap(onGoingGame -> play(onGoingGame, () -> kalahBoard.playMove(onGoingGame, pitId)))
+                .flatMap(this::save)
+                .retryWhen(retryConcurrentMoves()), false)
+                .map(kalahBoard::movesSaved);
+    }
+
+    /**
+     * @see KalahBoard#makeMyMoves(String, List)
+     */
+    public Mono<MoveBatchResponse> makeMyMoves(String gameId, List<Integer> pitIds) {
+        return kalahMetrics.timeMove(fetchKalahBoardForGameId(gameId)
+                .flatMap(onGoingGame -> play(onGoingGame, () -> kalahBoard.playMoves(onGoingGame, pitIds)))
+                .flatMap(movesPlayed -> save(movesPlayed.getGame()).thenReturn(movesPlayed))
+                .retryWhen(retryConcurrentMoves()), true)
+                .doOnNext(movesPlayed -> kalahBoard.movesSaved(movesPlayed.getGame()));
+    }
+
+    /**
+     * @see KalahBoard#fetchKalahBoardForGameId(String)
+     */
+    public Mono<Game> fetchKalahBoardForGameId(String gameId) {
+        return reactiveKalahRespository.findById(gameId)
+                .switchIfEmpty(Mono.error(() -> KalahBoard.unknownGame(gameId)));
+    }
+
+    /**
+     * @see KalahBoard#cleanUpKalahBoard(String)
+     */
+    public Mono<Void> cleanUpKalahBoard(String gameId) {
+        return reactiveKalahRespository.deleteById(gameId)
+                .doOnSuccess(deleted -> kalahGameEvents.closeGame(gameId));
+    }
+
+    /**
+     * NDJSON export of the games of the query, as in {@link KalahGameExporter}: the cursor is read
+     * application.kalah.export.batch games at a time, each batch written out as it is requested by the connection.
+     * @return NDJSON lines of every batch.
+     */
+    public Flux<byte[]> exportKalahBoards(Query games) {
+        return reactiveKalahRespository.export(games.cursorBatchSize(exportBatch))
+                .buffer(exportBatch)
+                .map(KalahGameExporter::lines);
+    }
+
+    /**
+     * Plays the moves on the calling thread, or off the event loop in a game against the computer, whose answer
+     * searches for up to application.kalah.computer.move.millis.
+     */
+    private <T> Mono<T> play(Game onGoingGame, Callable<T> moves) {
+        Mono<T> played = Mono.fromCallable(moves);
+        return onGoingGame.getComputerPlayer() == null ? played : played.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Updates the game in DB only if it is still at the version that was read, moving it on to the next version.
+     * @param game - game read from DB, after the move.
+     * @return the saved game, or an {@link OptimisticLockingFailureException} if the game was saved by someone else since it was read.
+     */
+    private Mono<Game> save(Game game) {
+        long readVersion = game.getVersion();
+        game.setVersion(readVersion + 1);
+        return kalahMetrics.timePersistence(reactiveKalahRespository.saveMove(game, readVersion));
+    }
+
+    /**
+     * Plays the move again on a fresh read of the game after a concurrent move, reporting the conflict once
+     * application.kalah.move.retries is used up. Invalid moves ({@link KalahValidationException}) are never retried.
+     */
+    private Retry retryConcurrentMoves() {
+        return Retry.max(moveRetries)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((retrySpec, retrySignal) -> retrySignal.failure());
+    }
+}
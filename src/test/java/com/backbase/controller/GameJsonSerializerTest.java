@@ -0,0 +1,85 @@
+package com.backbase.controller;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.backbase.service.KalahMetrics;
+import com.backbase.service.KalahRules;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests that {@link GameJsonSerializer} writes the same JSON as the bean serialization of {@link Game} by a plain
+ * ObjectMapper, for new, running, finished and computer games, and only adds the pits with a structured status.
+ */
+public class GameJsonSerializerTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    private final ObjectMapper beanMapper = new ObjectMapper();
+
+    @Test
+    public void gamesAreWrittenAsBeans() throws Exception {
+        ObjectMapper streamingMapper = mapper(false);
+        for (Game game : games()) {
+            JsonNode written = streamingMapper.readTree(streamingMapper.writeValueAsString(game));
+            JsonNode bean = beanMapper.readTree(beanMapper.writeValueAsString(game));
+            Assert.isTrue(written.equals(bean), "Game " + game.getId() + " written as " + written + " instead of " + bean);
+        }
+    }
+
+    @Test
+    public void structuredStatusOnlyAddsThePits() throws Exception {
+        ObjectMapper streamingMapper = mapper(true);
+        for (Game game : games()) {
+            ObjectNode written = (ObjectNode) streamingMapper.readTree(streamingMapper.writeValueAsString(game));
+            JsonNode pits = written.remove("pits");
+            Assert.isTrue(written.equals(beanMapper.readTree(beanMapper.writeValueAsString(game))), "Game " + game.getId() + " written as " + written);
+            Assert.isTrue(pits.size() == Board.SIZE, "Pits of game " + game.getId() + " written as " + pits);
+            for (int index = 0; index < Board.SIZE; index++) {
+                Assert.isTrue(pits.get(String.valueOf(index + 1)).asInt() == game.getBoard().stones(index), "Pit " + (index + 1) + " of game " + game.getId() + " written wrong");
+            }
+        }
+    }
+
+    private static ObjectMapper mapper(boolean structuredStatus) {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Game.class, new GameJsonSerializer(structuredStatus, new KalahMetrics(new SimpleMeterRegistry())));
+        return new ObjectMapper().registerModule(module);
+    }
+
+    private static List<Game> games() {
+        Game newGame = new Game("new", Board.withInitialStones(6), Player.ANY, URL + "new");
+
+        Game runningGame = new Game("running", Board.withInitialStones(6), Player.ANY, URL + "running");
+        for (int pitId : new int[]{1, 2, 8}) {
+            KalahRules.applyMove(runningGame, pitId);
+        }
+
+        Game finishedGame = new Game("finished", Board.withInitialStones(6), Player.ANY, URL + "finished");
+        Random random = new Random(7);
+        while (finishedGame.getWinnerPlayer() == null) {
+            try {
+                KalahRules.applyMove(finishedGame, 1 + random.nextInt(Board.SIZE));
+            } catch (KalahValidationException e) {
+                // Not a pit the current player can play, pick another.
+            }
+        }
+
+        Game computerGame = new Game("computer", Board.withInitialStones(6), Player.ANY, URL + "computer");
+        computerGame.setComputerPlayer(Player.PLAYER2);
+        KalahRules.applyMove(computerGame, 3);
+        return Arrays.asList(newGame, runningGame, finishedGame, computerGame);
+    }
+}
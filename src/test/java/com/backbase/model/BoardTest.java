@@ -0,0 +1,226 @@
+package com.backbase.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Differential tests of the closed form sowing in {@link Board} against the stone by stone sowing loop it replaced,
+ * on the standard board and on every other {@link BoardGeometry}.
+ */
+public class BoardTest {
+
+    private static final int RANDOM_BOARDS = 20000;
+
+    private final Random random = new Random(7);
+
+    /**
+     * Every pit of both players, on boards ranging from nearly empty to marathon stone counts, has to end on the
+     * same board with the last stone on the same index as the stone by stone loop.
+     */
+    @Test
+    public void closedFormSowingMatchesStoneByStoneLoop() {
+        for (int i = 0; i < RANDOM_BOARDS; i++) {
+            int[] stones = randomStones(i % 4 == 0 ? 200 : 15);
+            for (int pitIndex = 0; pitIndex < Board.SIZE; pitIndex++) {
+                if (Board.isKalah(pitIndex) || stones[pitIndex] == 0) {
+                    continue;
+                }
+                Player player = Board.ownerOf(pitIndex);
+                Board board = boardOf(stones);
+                int[] expected = stones.clone();
+                int expectedLastIndex = sowStoneByStone(expected, pitIndex, player);
+
+                int lastIndex = board.sow(pitIndex, player);
+
+                Assert.isTrue(lastIndex == expectedLastIndex, "Last stone landed on " + lastIndex + " instead of " + expectedLastIndex + " for " + Arrays.toString(stones) + " pit " + pitIndex);
+                Assert.isTrue(board.equals(boardOf(expected)), "Board " + board + " instead of " + Arrays.toString(expected) + " for " + Arrays.toString(stones) + " pit " + pitIndex);
+            }
+        }
+    }
+
+    /**
+     * Exact multiples of a full lap end in the emptied pit itself, which then holds a single stone per lap.
+     */
+    @Test
+    public void fullLapsEndInTheStartingPit() {
+        for (int laps = 1; laps <= 5; laps++) {
+            int[] stones = new int[Board.SIZE];
+            stones[2] = laps * (Board.SIZE - 1);
+            Board board = boardOf(stones);
+            int lastIndex = board.sow(2, Player.PLAYER1);
+            Assert.isTrue(lastIndex == 2, "Full laps must end in the starting pit");
+            Assert.isTrue(board.stones(2) == laps, "Starting pit must hold one stone per lap");
+            Assert.isTrue(board.stones(Board.PLAYER2_KALAH) == 0, "Opponent's Kalah must be skipped");
+        }
+    }
+
+    /**
+     * Packed stones read back to the same board, taking one byte per slot on ordinary boards and more only for
+     * slots holding 128 stones or more.
+     */
+    @Test
+    public void packedStonesReadBackToTheSameBoard() {
+        Board initialBoard = Board.withInitialStones(6);
+        Assert.isTrue(initialBoard.toPackedStones().length == Board.SIZE, "Ordinary board must pack to one byte per slot");
+        for (int i = 0; i < RANDOM_BOARDS; i++) {
+            int[] stones = randomStones(i % 4 == 0 ? Integer.MAX_VALUE - 1 : 200);
+            Board board = boardOf(stones);
+            Assert.isTrue(Board.fromPackedStones(board.toPackedStones()).equals(board), "Board " + Arrays.toString(stones) + " not read back");
+        }
+        byte[] truncated = Arrays.copyOf(initialBoard.toPackedStones(), Board.SIZE - 1);
+        try {
+            Board.fromPackedStones(truncated);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new IllegalStateException("Truncated board accepted");
+    }
+
+    /**
+     * Boards of every geometry sow like the stone by stone loop on a board of that size, capture from the opposite
+     * pit of their own layout and read back from their packed stones to the same geometry.
+     */
+    @Test
+    public void everyGeometryPlaysByItsOwnLayout() {
+        for (int pits = BoardGeometry.MIN_PITS_PER_PLAYER; pits <= BoardGeometry.MAX_PITS_PER_PLAYER; pits++) {
+            BoardGeometry geometry = BoardGeometry.of(pits);
+            Assert.isTrue(geometry.kalahOf(Player.PLAYER1) == pits && geometry.kalahOf(Player.PLAYER2) == 2 * pits + 1, "Kalah/Houses misplaced for " + geometry);
+            for (int i = 0; i < RANDOM_BOARDS / 10; i++) {
+                int[] stones = new int[geometry.size()];
+                for (int index = 0; index < stones.length; index++) {
+                    stones[index] = random.nextInt(i % 4 == 0 ? 200 : 15);
+                }
+                Board packed = Board.fromPackedStones(Board.fromStones(stones).toPackedStones());
+                Assert.isTrue(packed.getGeometry() == geometry && packed.equals(Board.fromStones(stones)), "Board of " + geometry + " not read back");
+                int pitIndex = random.nextInt(stones.length);
+                if (geometry.isKalah(pitIndex) || stones[pitIndex] == 0) {
+                    continue;
+                }
+                Player player = geometry.ownerOf(pitIndex);
+                Board board = Board.fromStones(stones);
+                int[] expected = stones.clone();
+                int expectedLastIndex = sowStoneByStone(expected, pitIndex, player, pits);
+
+                int lastIndex = board.sow(pitIndex, player);
+
+                Assert.isTrue(lastIndex == expectedLastIndex, "Last stone landed on " + lastIndex + " instead of " + expectedLastIndex + " on " + geometry);
+                Assert.isTrue(board.equals(Board.fromStones(expected)), "Board " + board + " instead of " + Arrays.toString(expected) + " on " + geometry);
+            }
+            int[] stones = new int[geometry.size()];
+            stones[0] = 1;
+            stones[2 * pits] = 5;
+            Board board = Board.fromStones(stones);
+            Assert.isTrue(board.captureAt(0, Player.PLAYER1) && board.stones(pits) == 6 && board.stones(2 * pits) == 0, "Capture from the wrong pit on " + geometry);
+        }
+    }
+
+    /**
+     * The running pit totals match the stones in the pits after every sowing, capture and end of game sweep of
+     * random games, also on copies, whatever the geometry and number of stones.
+     */
+    @Test
+    public void pitTotalsFollowTheStones() {
+        for (int game = 0; game < RANDOM_BOARDS / 10; game++) {
+            BoardGeometry geometry = BoardGeometry.of(BoardGeometry.MIN_PITS_PER_PLAYER
+                    + random.nextInt(BoardGeometry.MAX_PITS_PER_PLAYER - BoardGeometry.MIN_PITS_PER_PLAYER + 1));
+            Board board = Board.withInitialStones(geometry, 1 + random.nextInt(game % 4 == 0 ? 60 : 8));
+            Board scratch = Board.withInitialStones(geometry, 0);
+            Player player = Player.PLAYER1;
+            while (board.sweepIfFinished() == null) {
+                assertPitTotals(board);
+                int from = geometry.firstPitOf(player);
+                int pitIndex;
+                do {
+                    pitIndex = from + random.nextInt(geometry.pitsPerPlayer());
+                } while (board.stones(pitIndex) == 0);
+                int lastIndex = board.sow(pitIndex, player);
+                assertPitTotals(board);
+                boolean captured = board.captureAt(lastIndex, player);
+                assertPitTotals(board);
+                scratch.copyFrom(board);
+                assertPitTotals(scratch);
+                assertPitTotals(board.copy());
+                if (captured || lastIndex != geometry.kalahOf(player)) {
+                    player = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+                }
+            }
+            assertPitTotals(board);
+            Assert.isTrue(!board.hasStonesInPits(), "Stones left in the pits of a finished game " + board);
+        }
+    }
+
+    private void assertPitTotals(Board board) {
+        BoardGeometry geometry = board.getGeometry();
+        for (Player player : new Player[]{Player.PLAYER1, Player.PLAYER2}) {
+            int sum = 0;
+            for (int index = geometry.firstPitOf(player); index < geometry.kalahOf(player); index++) {
+                sum += board.stones(index);
+            }
+            Assert.isTrue(board.pitStones(player) == sum, "Pit total of " + player + " is " + board.pitStones(player) + " instead of " + sum + " on " + board);
+        }
+        Assert.isTrue(board.hasStonesInPits() == (board.pitStones(Player.PLAYER1) + board.pitStones(Player.PLAYER2) != 0), "Stones in pits misread on " + board);
+    }
+
+    /**
+     * The stone by stone loop on a board of any number of pits, Kalah/Houses after the pits of each player.
+     */
+    private int sowStoneByStone(int[] stones, int pitIndex, Player currentPlayer, int pits) {
+        int opponentKalah = currentPlayer == Player.PLAYER1 ? 2 * pits + 1 : pits;
+        int noOfMoves = stones[pitIndex];
+        stones[pitIndex] = 0;
+        while (noOfMoves != 0) {
+            pitIndex = pitIndex == stones.length - 1 ? 0 : pitIndex + 1;
+            if (pitIndex == opponentKalah) {
+                continue;
+            }
+            stones[pitIndex]++;
+            noOfMoves--;
+        }
+        return pitIndex;
+    }
+
+    /**
+     * The sowing loop as it was in KalahBoard.makeMyMove before the closed form.
+     */
+    private int sowStoneByStone(int[] stones, int pitIndex, Player currentPlayer) {
+        int noOfMoves = stones[pitIndex];
+        stones[pitIndex] = 0;
+        while (noOfMoves != 0) {
+            pitIndex = pitIndex == stones.length - 1 ? 0 : pitIndex + 1;
+            if (Board.isKalah(pitIndex) && Board.ownerOf(pitIndex) != currentPlayer) {
+                continue;
+            }
+            stones[pitIndex]++;
+            noOfMoves--;
+        }
+        return pitIndex;
+    }
+
+    private int[] randomStones(int maxStones) {
+        int[] stones = new int[Board.SIZE];
+        for (int index = 0; index < Board.SIZE; index++) {
+            stones[index] = random.nextInt(maxStones + 1);
+        }
+        return stones;
+    }
+
+    private Board boardOf(int[] stones) {
+        List<Entity> entities = new ArrayList<>(Board.SIZE);
+        for (int index = 0; index < Board.SIZE; index++) {
+            if (Board.isKalah(index)) {
+                Kalah kalah = new Kalah(Board.ownerOf(index));
+                kalah.setEntityCount(stones[index]);
+                entities.add(kalah);
+            } else {
+                entities.add(new Pit(Board.ownerOf(index), stones[index]));
+            }
+        }
+        return Board.fromEntities(entities);
+    }
+}
@@ -0,0 +1,59 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests that {@link KalahActiveGames} counts the stored games without a winner, on a {@link MappedKalahRespository}
+ * of a temporary directory.
+ */
+public class KalahActiveGamesTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    @TempDir
+    Path directory;
+
+    private MappedKalahRespository kalahRespository;
+
+    @AfterEach
+    public void closeStore() throws IOException {
+        if (kalahRespository != null) {
+            kalahRespository.close();
+        }
+    }
+
+    @Test
+    public void gamesInPlayAreCounted() throws IOException {
+        kalahRespository = new MappedKalahRespository();
+        kalahRespository.storeFile = directory.resolve("games.store").toString();
+        kalahRespository.maxGames = 100;
+        kalahRespository.kalahApplicationEndPoint = URL;
+        kalahRespository.open();
+        KalahActiveGames kalahActiveGames = new KalahActiveGames();
+        kalahActiveGames.kalahRespository = kalahRespository;
+        for (String gameId : new String[]{"first", "second", "third"}) {
+            kalahRespository.insert(new Game(gameId, Board.withInitialStones(6), Player.ANY, URL + gameId));
+        }
+        kalahActiveGames.count();
+        Assert.isTrue(kalahActiveGames.getActiveGames() == 3, "Games in play counted : " + kalahActiveGames.getActiveGames());
+
+        Game finished = kalahRespository.findById("second").get();
+        finished.setWinnerPlayer(Player.PLAYER2);
+        finished.setNextPlayer(null);
+        kalahRespository.save(finished);
+        kalahRespository.deleteById("third");
+        Assert.isTrue(kalahActiveGames.getActiveGames() == 3, "Games counted before the schedule");
+        kalahActiveGames.count();
+        Assert.isTrue(kalahActiveGames.getActiveGames() == 1, "Finished or deleted game counted : " + kalahActiveGames.getActiveGames());
+    }
+}
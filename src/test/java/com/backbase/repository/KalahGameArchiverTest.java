@@ -0,0 +1,100 @@
+package com.backbase.repository;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.ArchivedGame;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Move;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import javax.annotation.Resource;
+import java.util.Date;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Integration test of {@link KalahGameArchiver} against NoSQL MongoDB: finished games are moved to the archive with
+ * their journaled moves and dropped from the cache, games still played or finished recently stay where they are.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class KalahGameArchiverTest {
+
+    @Resource
+    private MongoTemplate mongoTemplate;
+
+    @Resource
+    private KalahRespository kalahRespository;
+
+    @Resource
+    private KalahMoveRepository kalahMoveRepository;
+
+    @Resource
+    private KalahGameArchiver kalahGameArchiver;
+
+    @Resource
+    private KalahGameCache kalahGameCache;
+
+    @Resource
+    private KalahMoveJournal kalahMoveJournal;
+
+    @Test
+    public void finishedGameIsArchivedWithItsMoves() {
+        Date longAgo = new Date(System.currentTimeMillis() - kalahGameArchiver.archiveAfterMillis - 60000);
+        Game finishedGame = game("finishedGame", Player.PLAYER2, longAgo);
+        Game recentGame = game("recentlyFinishedGame", Player.PLAYER1, new Date());
+        Game liveGame = game("liveGame", null, longAgo);
+        kalahMoveRepository.insert(new Move(finishedGame.getId(), 1, Player.PLAYER1, 3, longAgo));
+        kalahMoveRepository.insert(new Move(finishedGame.getId(), 2, Player.PLAYER1, 9, longAgo));
+        try {
+            Assert.isTrue(kalahGameCache.findById(finishedGame.getId()).isPresent(), "Finished game not cached");
+            long archivedGames = kalahGameArchiver.getArchivedGames();
+            kalahGameArchiver.archive();
+            Assert.isTrue(kalahGameArchiver.getArchivedGames() > archivedGames, "Finished game not counted");
+
+            ArchivedGame archivedGame = mongoTemplate.findById(finishedGame.getId(), ArchivedGame.class);
+            Assert.isTrue(archivedGame != null, "Finished game not archived");
+            Assert.isTrue(archivedGame.getWinnerPlayer() == Player.PLAYER2, "Winner not archived : " + archivedGame);
+            Assert.isTrue(archivedGame.getBoard().equals(finishedGame.getBoard()), "Board not archived : " + archivedGame);
+            Assert.isTrue(archivedGame.getMoves().length == 2 && archivedGame.getMoves()[0] == 3 && archivedGame.getMoves()[1] == 9,
+                    "Moves not archived in order : " + archivedGame);
+            Assert.isTrue(!kalahRespository.findById(finishedGame.getId()).isPresent(), "Archived game still live");
+            Assert.isTrue(!kalahGameCache.findById(finishedGame.getId()).isPresent(), "Archived game still cached");
+            Assert.isTrue(kalahMoveRepository.findByGameIdAndSequenceGreaterThanOrderBySequenceAsc(finishedGame.getId(), 0).isEmpty(),
+                    "Moves of the archived game still journaled");
+
+            Assert.isTrue(kalahRespository.findById(recentGame.getId()).isPresent(), "Game archived before it was due");
+            Assert.isTrue(kalahRespository.findById(liveGame.getId()).isPresent(), "Game without a winner archived");
+        } finally {
+            kalahRespository.deleteById(recentGame.getId());
+            kalahRespository.deleteById(liveGame.getId());
+            mongoTemplate.remove(mongoTemplate.findById(finishedGame.getId(), ArchivedGame.class));
+        }
+    }
+
+    @Test
+    public void inactiveGamesExpireByTtlIndex() {
+        boolean indexed = false;
+        long ttlSeconds = kalahGameArchiver.expirySeconds + kalahMoveJournal.getExpirySlackSeconds();
+        for (IndexInfo indexInfo : mongoTemplate.indexOps(Game.class).getIndexInfo()) {
+            if (KalahGameArchiver.TTL_INDEX.equals(indexInfo.getName())) {
+                indexed = true;
+                Assert.isTrue(indexInfo.getExpireAfter().get().getSeconds() == ttlSeconds, "TTL of games not as configured : " + indexInfo);
+            }
+        }
+        Assert.isTrue(indexed == kalahGameArchiver.expirySeconds > 0, "TTL index of games not as configured");
+    }
+
+    private Game game(String gameId, Player winnerPlayer, Date lastActivity) {
+        Game game = new Game(gameId, Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        game.setWinnerPlayer(winnerPlayer);
+        game.setLastActivity(lastActivity);
+        return kalahRespository.save(game);
+    }
+}
@@ -0,0 +1,222 @@
+package com.backbase.repository;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.backbase.service.KalahBoard;
+import com.backbase.service.KalahRules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahGameCache} on a {@link MappedKalahRespository} of a temporary directory in document mode: LRU
+ * eviction, saves coalesced by write behind and flushed at shutdown without overwriting newer games, the version
+ * compare-and-set of saves, also for games no longer cached, and saves that fail to reach DB.
+ */
+public class KalahGameCacheTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    @TempDir
+    Path directory;
+
+    private MappedKalahRespository kalahRespository;
+
+    @AfterEach
+    public void closeStore() throws IOException {
+        if (kalahRespository != null) {
+            kalahRespository.close();
+        }
+    }
+
+    /**
+     * The game used least recently is evicted, not the one cached first, and is read from DB again.
+     */
+    @Test
+    public void leastRecentlyUsedGameIsEvicted() throws IOException {
+        KalahGameCache kalahGameCache = cache(2, KalahGameCache.Durability.WRITE_THROUGH, journal());
+        kalahGameCache.save(newGame("first"));
+        kalahGameCache.save(newGame("second"));
+        kalahGameCache.findById("first");
+        kalahGameCache.save(newGame("third"));
+        Assert.isTrue(kalahGameCache.getEvictions() == 1 && kalahGameCache.getCachedGames() == 2, "Cache not bounded to 2 games");
+
+        long misses = kalahGameCache.getMisses();
+        Assert.isTrue(kalahGameCache.findById("first").isPresent() && kalahGameCache.findById("third").isPresent(), "Recently used games lost");
+        Assert.isTrue(kalahGameCache.getMisses() == misses, "Recently used game evicted");
+        Assert.isTrue(kalahGameCache.findById("second").get().getVersion() == 1, "Evicted game not read from DB");
+        Assert.isTrue(kalahGameCache.getMisses() == misses + 1, "Least recently used game not evicted");
+    }
+
+    /**
+     * Under write behind the saves of a game reach DB as one write of its latest version when the cache is flushed.
+     */
+    @Test
+    public void writeBehindCoalescesSaves() throws IOException {
+        KalahGameCache kalahGameCache = cache(10, KalahGameCache.Durability.WRITE_BEHIND, journal());
+        kalahGameCache.save(newGame("coalesced"));
+        for (int pitId : new int[]{1, 2, 8}) {
+            Game game = kalahGameCache.findById("coalesced").get();
+            KalahRules.applyMove(game, pitId);
+            kalahGameCache.save(game);
+        }
+        Assert.isTrue(!kalahRespository.findById("coalesced").isPresent(), "Saves written before the flush");
+        Assert.isTrue(kalahGameCache.getDirtyGames() == 1, "Saves of the game not coalesced");
+
+        kalahGameCache.flush();
+        Game storedGame = kalahRespository.findById("coalesced").get();
+        Assert.isTrue(storedGame.getVersion() == 4 && storedGame.getMoveSequence() == 3, "Latest version not flushed : " + storedGame.getVersion());
+        Assert.isTrue(kalahGameCache.getFlushedGames() == 1 && kalahGameCache.getDirtyGames() == 0, "Saves written more than once");
+    }
+
+    /**
+     * A flush only writes games DB holds an older version of, a newer version written meanwhile, e.g. by another
+     * node, is kept and the game is read from DB again.
+     */
+    @Test
+    public void writeBehindFlushKeepsANewerGame() throws IOException {
+        KalahGameCache kalahGameCache = cache(10, KalahGameCache.Durability.WRITE_BEHIND, journal());
+        kalahGameCache.save(newGame("newer"));
+        kalahGameCache.flush();
+        Game game = kalahGameCache.findById("newer").get();
+        KalahRules.applyMove(game, 1);
+        kalahGameCache.save(game);
+
+        Game otherNode = kalahRespository.findById("newer").get();
+        KalahRules.applyMove(otherNode, 3);
+        otherNode.setVersion(3);
+        kalahRespository.saveMove(otherNode);
+
+        kalahGameCache.flush();
+        Assert.isTrue(kalahGameCache.getConflicts() == 1 && kalahGameCache.getDirtyGames() == 0, "Conflicting flush not dropped");
+        Game storedGame = kalahRespository.findById("newer").get();
+        Assert.isTrue(storedGame.getVersion() == 3 && storedGame.getBoard().equals(otherNode.getBoard()), "Flush overwrote a newer game : " + storedGame.getVersion());
+        Assert.isTrue(kalahGameCache.findById("newer").get().getBoard().equals(otherNode.getBoard()), "Stale game still cached");
+    }
+
+    /**
+     * Moves saved behind are written when the application shuts down, before the store is closed.
+     */
+    @Test
+    public void writeBehindIsFlushedAtShutdown() throws IOException {
+        Path storeFile = directory.resolve("shutdown.store");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GameOnApplication.class)
+                .web(WebApplicationType.NONE).profiles("mapped")
+                .run("--application.kalah.store.file=" + storeFile, "--application.kalah.store.max.games=100",
+                        "--application.kalah.cache.durability=WRITE_BEHIND", "--application.kalah.cache.flush.interval.millis=3600000");
+        String gameId;
+        try {
+            KalahBoard kalahBoard = context.getBean(KalahBoard.class);
+            gameId = kalahBoard.initializeNewBoardGame().getId();
+            kalahBoard.makeMyMove(gameId, 1);
+            Assert.isTrue(context.getBean(KalahGameCache.class).getDirtyGames() == 1, "Move not saved behind");
+        } finally {
+            context.close();
+        }
+        try (MappedGameStore store = MappedGameStore.open(storeFile, 100, URL)) {
+            Game storedGame = store.find(gameId);
+            Assert.isTrue(storedGame != null && storedGame.getMoveSequence() == 1, "Move saved behind lost at shutdown");
+        }
+    }
+
+    /**
+     * A game evicted after it was read is checked against DB, so a stale copy cannot overwrite the moves saved meanwhile.
+     */
+    @Test
+    public void staleSaveOfEvictedGameIsRejected() throws IOException {
+        KalahGameCache kalahGameCache = cache(1, KalahGameCache.Durability.WRITE_BEHIND, journal());
+        kalahGameCache.save(newGame("evicted"));
+        Game firstClient = kalahGameCache.findById("evicted").get();
+        Game secondClient = kalahGameCache.findById("evicted").get();
+        KalahRules.applyMove(firstClient, 1);
+        kalahGameCache.save(firstClient);
+        // The only other cached game evicts the first one, which is flushed on eviction.
+        kalahGameCache.save(newGame("other"));
+        Assert.isTrue(kalahRespository.findById("evicted").get().getVersion() == 2, "Evicted game not flushed");
+
+        KalahRules.applyMove(secondClient, 2);
+        try {
+            kalahGameCache.save(secondClient);
+        } catch (OptimisticLockingFailureException e) {
+            Assert.isTrue(kalahGameCache.findById("evicted").get().getBoard().equals(firstClient.getBoard()), "Stale save overwrote the game");
+            return;
+        }
+        throw new IllegalStateException("Stale save of an evicted game accepted");
+    }
+
+    /**
+     * A save that fails to reach the journal leaves the game at the version read, and the retry reads the game
+     * as stored.
+     */
+    @Test
+    public void failedAppendKeepsTheVersionRead() throws IOException {
+        KalahMoveJournal failingJournal = new KalahMoveJournal() {
+            private boolean failed;
+
+            @Override
+            public boolean append(Game game) {
+                if (!game.getPendingMoves().isEmpty() && !failed) {
+                    failed = true;
+                    throw new DataAccessResourceFailureException("Journal not reachable");
+                }
+                return super.append(game);
+            }
+        };
+        KalahGameCache kalahGameCache = cache(10, KalahGameCache.Durability.WRITE_THROUGH, journal(failingJournal));
+        kalahGameCache.save(newGame("failed"));
+        Game game = kalahGameCache.findById("failed").get();
+        KalahRules.applyMove(game, 1);
+        try {
+            kalahGameCache.save(game);
+            throw new IllegalStateException("Failed append not reported");
+        } catch (DataAccessResourceFailureException e) {
+            Assert.isTrue(game.getVersion() == 1, "Version moved on without the move saved : " + game.getVersion());
+        }
+        Game retry = kalahGameCache.findById("failed").get();
+        Assert.isTrue(retry.getVersion() == 1 && retry.getMoveSequence() == 0, "Move of the failed save cached");
+        KalahRules.applyMove(retry, 1);
+        kalahGameCache.save(retry);
+        Assert.isTrue(kalahRespository.findById("failed").get().getVersion() == 2, "Retry not saved");
+    }
+
+    private KalahGameCache cache(int maxGames, KalahGameCache.Durability durability, KalahMoveJournal kalahMoveJournal) throws IOException {
+        kalahRespository = new MappedKalahRespository();
+        kalahRespository.storeFile = directory.resolve("games.store").toString();
+        kalahRespository.maxGames = 100;
+        kalahRespository.kalahApplicationEndPoint = URL;
+        kalahRespository.open();
+        kalahMoveJournal.kalahRespository = kalahRespository;
+        KalahGameCache kalahGameCache = new KalahGameCache();
+        kalahGameCache.kalahRespository = kalahRespository;
+        kalahGameCache.kalahMoveJournal = kalahMoveJournal;
+        kalahGameCache.maxGames = maxGames;
+        kalahGameCache.durability = durability;
+        return kalahGameCache;
+    }
+
+    private static KalahMoveJournal journal() {
+        return journal(new KalahMoveJournal());
+    }
+
+    private static KalahMoveJournal journal(KalahMoveJournal kalahMoveJournal) {
+        kalahMoveJournal.persistenceMode = KalahMoveJournal.PersistenceMode.DOCUMENT;
+        kalahMoveJournal.snapshotMoves = 20;
+        return kalahMoveJournal;
+    }
+
+    private static Game newGame(String gameId) {
+        return new Game(gameId, Board.withInitialStones(6), Player.ANY, URL);
+    }
+}
@@ -0,0 +1,151 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of the NDJSON export of {@link KalahGameExporter} on synthetic games, without DB: the lines written, an
+ * export resumed from its checkpoint after a failure and the memory taken by a large export.
+ */
+public class KalahGameExporterTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void gameIsWrittenAsOneLine() {
+        Game game = new Game("game-1", Board.withInitialStones(BoardGeometry.of(4), 3), Player.PLAYER2, URL);
+        game.setWinnerPlayer(Player.PLAYER1);
+        game.setComputerPlayer(Player.PLAYER2);
+        game.setMoveSequence(12);
+        game.setLastActivity(new Date(0));
+        String line = KalahGameExporter.writeLine(new StringBuilder(), game).toString();
+        Assert.isTrue(line.equals("{\"id\":\"game-1\",\"pitsPerPlayer\":4,\"board\":[3,3,3,3,0,3,3,3,3,0],\"nextPlayer\":\"PLAYER2\","
+                + "\"winnerPlayer\":\"PLAYER1\",\"computerPlayer\":\"PLAYER2\",\"moves\":12,\"lastActivity\":\"1970-01-01T00:00:00Z\"}\n"), "Line written as " + line);
+    }
+
+    /**
+     * An export failing half way is resumed from its checkpoint, the file ending up with every game exactly once.
+     */
+    @Test
+    public void failedExportResumesFromCheckpoint() throws IOException {
+        Path output = directory.resolve("games.ndjson.gz");
+        int games = 10500;
+        int failAfterBatches = 4;
+        try (KalahGameExporter.FileSink fileSink = KalahGameExporter.FileSink.open(output, true)) {
+            int[] batches = new int[1];
+            KalahGameExporter.exportGames(new SyntheticGames(0, games), 1000, (batch, lastGameId) -> {
+                fileSink.write(batch, lastGameId);
+                if (++batches[0] == failAfterBatches) {
+                    // Half of the next batch reaches the file before the export fails.
+                    Files.write(output, new byte[]{31, -117, 8, 0, 1, 2}, StandardOpenOption.APPEND);
+                    throw new IOException("Connection lost");
+                }
+            });
+            Assert.isTrue(false, "Export did not fail");
+        } catch (IOException e) {
+            Assert.isTrue(e.getMessage().equals("Connection lost"), e.getMessage());
+        }
+        try (KalahGameExporter.FileSink fileSink = KalahGameExporter.FileSink.open(output, true)) {
+            Assert.isTrue(SyntheticGames.gameId(failAfterBatches * 1000 - 1).equals(fileSink.resumeAfter()), "Resumed after " + fileSink.resumeAfter());
+            long exported = KalahGameExporter.exportGames(new SyntheticGames(failAfterBatches * 1000, games), 1000, fileSink);
+            fileSink.finish();
+            Assert.isTrue(exported == games - failAfterBatches * 1000, exported + " games exported on resume");
+        }
+        Assert.isTrue(!Files.exists(directory.resolve("games.ndjson.gz.checkpoint")), "Checkpoint left after a complete export");
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(output)), StandardCharsets.UTF_8))) {
+            int game = 0;
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+                Assert.isTrue(line.startsWith("{\"id\":\"" + SyntheticGames.gameId(game) + "\""), "Line " + game + " is " + line);
+                game++;
+            }
+            Assert.isTrue(game == games, game + " games in the export");
+        }
+    }
+
+    /**
+     * Heap in use stays flat while a large data set is exported, far below the size of the export.
+     */
+    @Test
+    public void memoryStaysFlatWhileExporting() throws IOException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int games = 500000;
+        int batchSize = 1000;
+        long[] exportedBytes = new long[1];
+        long[] heap = {Long.MAX_VALUE, 0};
+        int[] batches = new int[1];
+        long exported = KalahGameExporter.exportGames(new SyntheticGames(0, games), batchSize, (batch, lastGameId) -> {
+            exportedBytes[0] += batch.size();
+            if (++batches[0] % 50 == 0) {
+                System.gc();
+                long used = memory.getHeapMemoryUsage().getUsed();
+                heap[0] = Math.min(heap[0], used);
+                heap[1] = Math.max(heap[1], used);
+            }
+        });
+        Assert.isTrue(exported == games, exported + " games exported");
+        long growth = heap[1] - heap[0];
+        Assert.isTrue(growth < 16 * 1024 * 1024 && growth < exportedBytes[0] / 4,
+                "Heap grew by " + growth + " bytes exporting " + exportedBytes[0] + " bytes");
+    }
+
+    /**
+     * Games made up as they are read, like a DB cursor, with ids in order.
+     */
+    private static class SyntheticGames implements Iterator<Game> {
+
+        private int next;
+
+        private final int end;
+
+        SyntheticGames(int from, int end) {
+            this.next = from;
+            this.end = end;
+        }
+
+        static String gameId(int game) {
+            return String.format("game-%09d", game);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public Game next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Game game = new Game(gameId(next), Board.withInitialStones(6), next % 2 == 0 ? Player.PLAYER1 : Player.PLAYER2, URL);
+            game.setMoveSequence(next % 60);
+            if (next % 3 == 0) {
+                game.setWinnerPlayer(Player.PLAYER2);
+            }
+            next++;
+            return game;
+        }
+    }
+}
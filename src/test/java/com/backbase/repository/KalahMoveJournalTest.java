@@ -0,0 +1,168 @@
+package com.backbase.repository;
+
+import com.backbase.exception.KalahValidationException;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Move;
+import com.backbase.model.Player;
+import com.backbase.service.KalahRules;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahMoveJournal}: games played in journal mode, reloaded from their snapshot and journaled moves
+ * at random points, are the same games as played in document mode. Games are stored in {@link MappedKalahRespository}
+ * files of a temporary directory and moves in an in-memory journal.
+ */
+public class KalahMoveJournalTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    private static final int SNAPSHOT_MOVES = 5;
+
+    @TempDir
+    Path directory;
+
+    private final List<MappedKalahRespository> stores = new ArrayList<>();
+
+    @AfterEach
+    public void closeStores() throws IOException {
+        for (MappedKalahRespository store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void reloadedJournalGamesMatchDocumentGames() throws IOException {
+        KalahMoveJournal documentJournal = journal(KalahMoveJournal.PersistenceMode.DOCUMENT, store("document.store"), null);
+        List<Move> journaledMoves = new ArrayList<>();
+        KalahMoveJournal journal = journal(KalahMoveJournal.PersistenceMode.JOURNAL, store("journal.store"), moveRepository(journaledMoves));
+        KalahGameCache documentGames = cache(documentJournal);
+        KalahGameCache journalGames = cache(journal);
+        Random random = new Random(42);
+        int reloads = 0;
+        for (int gameNumber = 0; gameNumber < 200; gameNumber++) {
+            String gameId = "game" + gameNumber;
+            documentGames.save(new Game(gameId, Board.withInitialStones(6), Player.ANY, URL));
+            journalGames.save(new Game(gameId, Board.withInitialStones(6), Player.ANY, URL));
+            while (true) {
+                Game documentGame = documentGames.findById(gameId).get();
+                Game journalGame = journalGames.findById(gameId).get();
+                if (documentGame.getWinnerPlayer() != null) {
+                    break;
+                }
+                // Up to two moves per save, e.g. a move and its extra turn.
+                int moves = 1 + random.nextInt(2);
+                for (int move = 0; move < moves && documentGame.getWinnerPlayer() == null; move++) {
+                    int pitId = legalPit(documentGame, random);
+                    KalahRules.applyMove(documentGame, pitId);
+                    KalahRules.applyMove(journalGame, pitId);
+                }
+                documentGames.save(documentGame);
+                journalGames.save(journalGame);
+                if (random.nextInt(7) == 0) {
+                    // Games are read back from DB as after a restart.
+                    documentGames = cache(documentJournal);
+                    journalGames = cache(journal);
+                    Game reloadedGame = journalGames.findById(gameId).get();
+                    assertSameGame(documentGames.findById(gameId).get(), reloadedGame);
+                    Assert.isTrue(Objects.equals(reloadedGame.getLastActivity(), journalGame.getLastActivity()), "Last activity of " + gameId + " replayed as " + reloadedGame.getLastActivity());
+                    Assert.isTrue(reloadedGame.getVersion() >= journalGame.getVersion(), "Version of " + gameId + " replayed behind : " + reloadedGame.getVersion());
+                    reloads++;
+                }
+            }
+            assertSameGame(documentJournal.load(gameId).get(), journal.load(gameId).get());
+        }
+        Assert.isTrue(reloads > 100, "Games reloaded only " + reloads + " times");
+        Assert.isTrue(!journaledMoves.isEmpty(), "No move journaled");
+    }
+
+    private static void assertSameGame(Game documentGame, Game journalGame) {
+        String gameId = documentGame.getId();
+        Assert.isTrue(journalGame.getBoard().equals(documentGame.getBoard()), "Board of " + gameId + " replayed as " + journalGame.getBoard());
+        Assert.isTrue(journalGame.getNextPlayer() == documentGame.getNextPlayer()
+                && journalGame.getWinnerPlayer() == documentGame.getWinnerPlayer(), "Players of " + gameId + " replayed differently");
+        Assert.isTrue(journalGame.getMoveSequence() == documentGame.getMoveSequence(), "Moves of " + gameId + " replayed : " + journalGame.getMoveSequence());
+    }
+
+    private static int legalPit(Game game, Random random) {
+        while (true) {
+            int pitId = 1 + random.nextInt(Board.SIZE);
+            try {
+                KalahRules.isMoveValid(game.getBoard(), pitId - 1, KalahRules.currentPlayer(game));
+                return pitId;
+            } catch (KalahValidationException e) {
+                // Not a pit the current player can play, pick another.
+            }
+        }
+    }
+
+    private MappedKalahRespository store(String file) throws IOException {
+        MappedKalahRespository store = new MappedKalahRespository();
+        store.storeFile = directory.resolve(file).toString();
+        store.maxGames = 1000;
+        store.kalahApplicationEndPoint = URL;
+        store.open();
+        stores.add(store);
+        return store;
+    }
+
+    private static KalahMoveJournal journal(KalahMoveJournal.PersistenceMode persistenceMode, KalahRespository kalahRespository,
+                                            KalahMoveRepository kalahMoveRepository) {
+        KalahMoveJournal kalahMoveJournal = new KalahMoveJournal();
+        kalahMoveJournal.kalahRespository = kalahRespository;
+        kalahMoveJournal.kalahMoveRepository = kalahMoveRepository;
+        kalahMoveJournal.persistenceMode = persistenceMode;
+        kalahMoveJournal.snapshotMoves = SNAPSHOT_MOVES;
+        kalahMoveJournal.expirySeconds = 604800;
+        return kalahMoveJournal;
+    }
+
+    private static KalahGameCache cache(KalahMoveJournal kalahMoveJournal) {
+        KalahGameCache kalahGameCache = new KalahGameCache();
+        kalahGameCache.kalahRespository = kalahMoveJournal.kalahRespository;
+        kalahGameCache.kalahMoveJournal = kalahMoveJournal;
+        kalahGameCache.maxGames = 100;
+        kalahGameCache.durability = KalahGameCache.Durability.WRITE_THROUGH;
+        return kalahGameCache;
+    }
+
+    /**
+     * Journal of moves kept in a list, answering the calls {@link KalahMoveJournal} makes.
+     */
+    private static KalahMoveRepository moveRepository(List<Move> moves) {
+        return (KalahMoveRepository) Proxy.newProxyInstance(KalahMoveRepository.class.getClassLoader(), new Class[]{KalahMoveRepository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "insert":
+                            for (Object move : (Iterable<?>) args[0]) {
+                                moves.add((Move) move);
+                            }
+                            return args[0];
+                        case "findByGameIdAndSequenceGreaterThanOrderBySequenceAsc":
+                            return moves.stream()
+                                    .filter(move -> move.getGameId().equals(args[0]) && move.getSequence() > (Long) args[1])
+                                    .sorted(Comparator.comparingLong(Move::getSequence))
+                                    .collect(Collectors.toList());
+                        case "deleteByGameId":
+                            moves.removeIf(move -> move.getGameId().equals(args[0]));
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,135 @@
+package com.backbase.repository;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.backbase.service.KalahRules;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import javax.annotation.Resource;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Integration test of the targeted move writes of {@link KalahRespositoryCustom#saveMove} against NoSQL MongoDB.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class KalahRespositoryTest {
+
+    @Resource
+    private MongoTemplate mongoTemplate;
+
+    @Resource
+    private KalahRespository kalahRespository;
+
+    @Resource
+    private ReactiveKalahRespository reactiveKalahRespository;
+
+    /**
+     * A game is inserted by its first write and then only has the fields of each move set, version after version.
+     */
+    @Test
+    public void movesAreWrittenVersionAfterVersion() {
+        Game game = new Game("savedMoves", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        try {
+            game.setVersion(1);
+            kalahRespository.saveMove(game);
+            for (int pitId : new int[]{1, 2, 8}) {
+                KalahRules.applyMove(game, pitId);
+                game.setVersion(game.getVersion() + 1);
+                kalahRespository.saveMove(game);
+            }
+            Game stored = kalahRespository.findById(game.getId()).get();
+            Assert.isTrue(stored.getBoard().equals(game.getBoard()), "Board of the last move not stored : " + stored.getBoard());
+            Assert.isTrue(stored.getVersion() == 4 && stored.getMoveSequence() == 3, "Version or move sequence not stored");
+            Assert.isTrue(stored.getNextPlayer() == game.getNextPlayer(), "Next player not stored");
+            Assert.isTrue(game.getUrl().equals(stored.getUrl()), "Url of the inserted game lost");
+        } finally {
+            kalahRespository.deleteById(game.getId());
+        }
+    }
+
+    /**
+     * Two writers of the same version, e.g. two nodes playing the same turn, cannot both succeed, and an older
+     * version never overwrites a newer one.
+     */
+    @Test
+    public void sameOrOlderVersionIsRejected() {
+        Game game = new Game("conflictingMoves", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        try {
+            game.setVersion(1);
+            kalahRespository.saveMove(game);
+            Game otherWriter = game.copy();
+            KalahRules.applyMove(game, 1);
+            game.setVersion(2);
+            kalahRespository.saveMove(game);
+
+            KalahRules.applyMove(otherWriter, 2);
+            otherWriter.setVersion(2);
+            assertConflict(otherWriter);
+            otherWriter.setVersion(1);
+            assertConflict(otherWriter);
+
+            Document stored = mongoTemplate.getCollection("game").find(new Document("_id", game.getId())).first();
+            Assert.isTrue(kalahRespository.findById(game.getId()).get().getBoard().equals(game.getBoard()), "Rejected move overwrote the game : " + stored.toJson());
+        } finally {
+            kalahRespository.deleteById(game.getId());
+        }
+    }
+
+    /**
+     * A game stored before versioning has no version field. It is read as version 0 and its next move is written,
+     * by the blocking and by the reactive repository, instead of being rejected as a conflict forever.
+     */
+    @Test
+    public void gameWithoutVersionIsPlayed() {
+        Game game = new Game("unversionedGame", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        try {
+            storeWithoutVersion(game);
+            Game read = kalahRespository.findById(game.getId()).get();
+            Assert.isTrue(read.getVersion() == 0, "Missing version read as " + read.getVersion());
+            KalahRules.applyMove(read, 1);
+            read.setVersion(1);
+            kalahRespository.saveMove(read);
+            Game stored = kalahRespository.findById(game.getId()).get();
+            Assert.isTrue(stored.getVersion() == 1 && stored.getBoard().equals(read.getBoard()), "Move on a game without version not stored");
+
+            storeWithoutVersion(game);
+            read = reactiveKalahRespository.findById(game.getId()).block();
+            KalahRules.applyMove(read, 2);
+            read.setVersion(1);
+            reactiveKalahRespository.saveMove(read, 0).block();
+            stored = kalahRespository.findById(game.getId()).get();
+            Assert.isTrue(stored.getVersion() == 1 && stored.getBoard().equals(read.getBoard()), "Reactive move on a game without version not stored");
+        } finally {
+            kalahRespository.deleteById(game.getId());
+        }
+    }
+
+    private void storeWithoutVersion(Game game) {
+        kalahRespository.save(game);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(game.getId())), new Update().unset("version"), Game.class);
+        Document stored = mongoTemplate.getCollection("game").find(new Document("_id", game.getId())).first();
+        Assert.isTrue(!stored.containsKey("version"), "Version still stored : " + stored.toJson());
+    }
+
+    private void assertConflict(Game game) {
+        try {
+            kalahRespository.saveMove(game);
+        } catch (OptimisticLockingFailureException e) {
+            return;
+        }
+        throw new IllegalStateException("Version " + game.getVersion() + " written over a newer version");
+    }
+}
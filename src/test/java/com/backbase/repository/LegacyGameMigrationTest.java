@@ -0,0 +1,97 @@
+package com.backbase.repository;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Board;
+import com.backbase.model.Entity;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Integration test of the packed board format against NoSQL MongoDB: games are stored packed, and games stored
+ * before it in the legacy Pit/Kalah format are still read and rewritten packed by {@link LegacyGameMigration}.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LegacyGameMigrationTest {
+
+    @Resource
+    private MongoTemplate mongoTemplate;
+
+    @Resource
+    private KalahRespository kalahRespository;
+
+    @Resource
+    private LegacyGameMigration legacyGameMigration;
+
+    @Test
+    public void gameIsStoredWithPackedBoard() {
+        Game game = new Game("packedGame", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        kalahRespository.save(game);
+        try {
+            Document stored = storedDocument(game.getId());
+            Assert.isTrue(stored.get("board") instanceof Binary, "Board not stored packed : " + stored.toJson());
+            Assert.isTrue(!stored.containsKey(LegacyGameMigration.LEGACY_BOARD_FIELD), "Legacy board stored : " + stored.toJson());
+            Assert.isTrue(kalahRespository.findById(game.getId()).get().getBoard().equals(game.getBoard()), "Packed board not read back");
+        } finally {
+            kalahRespository.deleteById(game.getId());
+        }
+    }
+
+    @Test
+    public void legacyGameIsReadAndMigrated() {
+        Board board = Board.withInitialStones(6);
+        board.sow(2, Player.PLAYER1);
+        String gameId = "legacyGame";
+        mongoTemplate.getCollection("game").insertOne(legacyDocument(gameId, board));
+        try {
+            long legacyReads = legacyGameMigration.getLegacyReads();
+            Game game = kalahRespository.findById(gameId).get();
+            Assert.isTrue(game.getBoard().equals(board), "Legacy board read as " + game.getBoard());
+            Assert.isTrue(game.getLegacyGameStats() == null, "Legacy board not moved into the board");
+            Assert.isTrue(legacyGameMigration.getLegacyReads() == legacyReads + 1, "Legacy read not counted");
+
+            Assert.isTrue(legacyGameMigration.migrateAll() >= 1, "Legacy game not migrated");
+            Document stored = storedDocument(gameId);
+            Assert.isTrue(stored.get("board") instanceof Binary && !stored.containsKey(LegacyGameMigration.LEGACY_BOARD_FIELD),
+                    "Legacy game not rewritten packed : " + stored.toJson());
+            Assert.isTrue(kalahRespository.findById(gameId).get().getBoard().equals(board), "Migrated board changed");
+            Assert.isTrue(!stored.containsKey("version"), "Version of the game changed by its migration : " + stored.toJson());
+        } finally {
+            kalahRespository.deleteById(gameId);
+        }
+    }
+
+    private Document storedDocument(String gameId) {
+        return mongoTemplate.getCollection("game").find(new Document("_id", gameId)).first();
+    }
+
+    /**
+     * Game as stored before the packed board format, and before moves were counted and games versioned.
+     */
+    private Document legacyDocument(String gameId, Board board) {
+        List<Document> currentGameStats = new ArrayList<>();
+        for (Entity entity : board.toEntities()) {
+            currentGameStats.add(new Document("entityCount", entity.getEntityCount())
+                    .append("ownerPlayer", entity.getOwnerPlayer().name())
+                    .append("_class", entity.getClass().getName()));
+        }
+        return new Document("_id", gameId)
+                .append("url", "http://localhost:8080/games/" + gameId)
+                .append("currentGameStats", currentGameStats)
+                .append("nextPlayer", Player.PLAYER2.name())
+                .append("_class", Game.class.getName());
+    }
+}
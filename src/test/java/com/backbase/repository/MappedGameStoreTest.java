@@ -0,0 +1,159 @@
+package com.backbase.repository;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link MappedGameStore} on a file of a temporary directory: games read back as written, versions, slots
+ * reused once freed, the index against a map under many inserts and deletes, recovery from the file and allocation
+ * of writes.
+ */
+public class MappedGameStoreTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void gameIsReadAsWritten() throws IOException {
+        Board board = Board.withInitialStones(BoardGeometry.of(8), 4);
+        board.sow(3, Player.PLAYER1);
+        Game game = new Game("07mEJAPxgfo", board, Player.PLAYER2, URL);
+        game.setWinnerPlayer(Player.PLAYER1);
+        game.setComputerPlayer(Player.PLAYER2);
+        game.setMoveSequence(41);
+        game.setVersion(7);
+        game.setLastActivity(new Date(1792281600000L));
+        try (MappedGameStore store = MappedGameStore.open(directory.resolve("games.store"), 100, URL)) {
+            Assert.isTrue(store.insert(game), "Game not inserted");
+            Assert.isTrue(!store.insert(game), "Game inserted twice");
+            Game storedGame = store.find(game.getId());
+            Assert.isTrue(storedGame.getBoard().equals(board), "Board read as " + storedGame.getBoard());
+            Assert.isTrue(storedGame.getNextPlayer() == Player.PLAYER2 && storedGame.getWinnerPlayer() == Player.PLAYER1
+                    && storedGame.getComputerPlayer() == Player.PLAYER2, "Players read as " + storedGame);
+            Assert.isTrue(storedGame.getMoveSequence() == 41 && storedGame.getVersion() == 7, "Versions read as " + storedGame);
+            Assert.isTrue(storedGame.getLastActivity().equals(game.getLastActivity()), "Last activity read as " + storedGame.getLastActivity());
+            Assert.isTrue((URL + game.getId()).equals(storedGame.getUrl()), "Url read as " + storedGame.getUrl());
+            Assert.isTrue(store.find("unknown") == null && store.find(null) == null, "Unknown game found");
+        }
+    }
+
+    @Test
+    public void olderVersionIsNotSaved() throws IOException {
+        try (MappedGameStore store = MappedGameStore.open(directory.resolve("games.store"), 100, URL)) {
+            Game game = game("game", 2);
+            Assert.isTrue(store.saveIfNewer(game), "New game not saved");
+            game.setMoveSequence(1);
+            Assert.isTrue(!store.saveIfNewer(game), "Same version saved twice");
+            game.setVersion(1);
+            Assert.isTrue(!store.saveIfNewer(game), "Older version saved");
+            game.setVersion(3);
+            Assert.isTrue(store.saveIfNewer(game) && store.find("game").getMoveSequence() == 1, "Newer version not saved");
+        }
+    }
+
+    @Test
+    public void freedSlotsAreReused() throws IOException {
+        try (MappedGameStore store = MappedGameStore.open(directory.resolve("games.store"), 10, URL)) {
+            for (int game = 0; game < 10; game++) {
+                store.insert(game("game-" + game, 1));
+            }
+            try {
+                store.insert(game("game-10", 1));
+                Assert.isTrue(false, "Game inserted into a full store");
+            } catch (IllegalStateException e) {
+                Assert.isTrue(store.size() == 10, store.size() + " games in a full store");
+            }
+            Assert.isTrue(store.delete("game-3") && store.delete("game-7") && !store.delete("game-7"), "Games not deleted");
+            store.insert(game("game-10", 1));
+            store.insert(game("game-11", 1));
+            Assert.isTrue(store.getUsedSlots() == 10 && store.size() == 10, "Freed slots not reused");
+            Assert.isTrue(store.find("game-3") == null && store.find("game-11") != null, "Freed slot still holds its game");
+        }
+    }
+
+    /**
+     * Inserts, saves and deletes at random on a small store, so that ids collide in the index and deletes move
+     * entries back, against a map of the games that should be stored. The store is reopened half way.
+     */
+    @Test
+    public void storeFollowsAMapAcrossRestarts() throws IOException {
+        Path file = directory.resolve("games.store");
+        Random random = new Random(25);
+        Map<String, Long> versions = new HashMap<>();
+        MappedGameStore store = MappedGameStore.open(file, 2000, URL);
+        try {
+            for (int operation = 0; operation < 200000; operation++) {
+                if (operation == 100000) {
+                    store.close();
+                    store = MappedGameStore.open(file, 2000, URL);
+                    Assert.isTrue(store.size() == versions.size(), store.size() + " games recovered, not " + versions.size());
+                }
+                String gameId = "g" + random.nextInt(3000);
+                if (random.nextInt(3) == 0) {
+                    Assert.isTrue(store.delete(gameId) == (versions.remove(gameId) != null), "Delete of " + gameId);
+                } else if (versions.containsKey(gameId) || versions.size() < 2000) {
+                    long version = versions.getOrDefault(gameId, 0L) + 1;
+                    store.save(game(gameId, version));
+                    versions.put(gameId, version);
+                }
+            }
+            for (int game = 0; game < 3000; game++) {
+                Game storedGame = store.find("g" + game);
+                Long version = versions.get("g" + game);
+                Assert.isTrue(version == null ? storedGame == null : storedGame != null && storedGame.getVersion() == version,
+                        "Game g" + game + " stored as " + storedGame + ", expected version " + version);
+            }
+            Assert.isTrue(store.size() == versions.size() && store.findAll().size() == versions.size(), store.size() + " games stored");
+        } finally {
+            store.close();
+        }
+    }
+
+    /**
+     * Saving moves of resident games allocates nothing on the heap.
+     */
+    @Test
+    public void savingMovesDoesNotAllocate() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        try (MappedGameStore store = MappedGameStore.open(directory.resolve("games.store"), 100000, URL)) {
+            Game[] games = new Game[100000];
+            for (int game = 0; game < games.length; game++) {
+                games[game] = game(String.format("game-%06d", game), 1);
+                store.insert(games[game]);
+            }
+            for (Game game : games) {
+                game.setVersion(2);
+                store.saveIfNewer(game);
+            }
+            long allocatedAt = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            for (Game game : games) {
+                game.setVersion(3);
+                store.saveIfNewer(game);
+            }
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedAt;
+            Assert.isTrue(allocated < 64 * 1024, allocated + " bytes allocated saving " + games.length + " moves");
+        }
+    }
+
+    private static Game game(String gameId, long version) {
+        Game game = new Game(gameId, Board.withInitialStones(6), Player.PLAYER1, URL);
+        game.setVersion(version);
+        return game;
+    }
+}
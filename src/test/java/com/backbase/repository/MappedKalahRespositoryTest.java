@@ -0,0 +1,113 @@
+package com.backbase.repository;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import javax.annotation.Resource;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Smoke test of the Spring profile mapped: the application starts without MongoDB on the {@link MappedKalahRespository}
+ * and a game started and played over REST is stored in the mapped file, of a temporary directory. Queries by
+ * example, sort and page are answered from the games stored.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "spring.profiles.active=mapped", "application.kalah.store.max.games=1000" })
+public class MappedKalahRespositoryTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storeFile(DynamicPropertyRegistry registry) {
+        registry.add("application.kalah.store.file", () -> directory.resolve("games.store").toString());
+    }
+
+    @LocalServerPort
+    private Integer randomPort;
+
+    @Resource
+    private KalahRespository kalahRespository;
+
+    @Resource
+    private KalahGameCache kalahGameCache;
+
+    @Test
+    public void gameIsPlayedOnTheMappedStore() {
+        Assert.isTrue(kalahRespository instanceof MappedKalahRespository, "Games stored by " + kalahRespository.getClass());
+        TestRestTemplate restTemplate = new TestRestTemplate();
+        String games = "http://localhost:" + randomPort + "/games";
+        ResponseEntity<Game> started = restTemplate.postForEntity(games, null, Game.class);
+        Assert.isTrue(started.getStatusCode() == HttpStatus.OK, "Game not started : " + started.getStatusCode());
+        String gameId = started.getBody().getId();
+        try {
+            ResponseEntity<Game> moved = restTemplate.exchange(games + "/" + gameId + "/pits/1", HttpMethod.PUT, null, Game.class);
+            Assert.isTrue(moved.getStatusCode() == HttpStatus.OK, "Move not played : " + moved.getStatusCode());
+            Assert.isTrue(moved.getBody().getNextPlayer() == Player.PLAYER1, "Extra turn not given");
+
+            kalahGameCache.flush();
+            Optional<Game> storedGame = kalahRespository.findById(gameId);
+            Assert.isTrue(storedGame.isPresent(), "Game not in the mapped store");
+            Assert.isTrue(storedGame.get().getMoveSequence() == 1 && storedGame.get().getBoard().stones(0) == 0,
+                    "Move not stored : " + storedGame.get());
+        } finally {
+            restTemplate.delete(games + "/" + gameId);
+        }
+        Assert.isTrue(!kalahRespository.findById(gameId).isPresent(), "Deleted game still in the mapped store");
+    }
+
+    @Test
+    public void queriesAreAnsweredFromTheStore() {
+        List<String> gameIds = Arrays.asList("query-3", "query-1", "query-2");
+        for (String gameId : gameIds) {
+            Player nextPlayer = gameId.equals("query-2") ? Player.PLAYER1 : Player.PLAYER2;
+            kalahRespository.insert(new Game(gameId, Board.withInitialStones(6), nextPlayer, "http://localhost:8080/games/" + gameId));
+        }
+        try {
+            Game probe = new Game();
+            probe.setId("QUERY-");
+            probe.setNextPlayer(Player.PLAYER2);
+            ExampleMatcher matcher = ExampleMatcher.matching().withIgnorePaths("moveSequence", "version")
+                    .withMatcher("id", match -> match.startsWith().ignoreCase());
+            List<Game> games = kalahRespository.findAll(Example.of(probe, matcher), Sort.by("id"));
+            Assert.isTrue(games.size() == 2 && games.get(0).getId().equals("query-1") && games.get(1).getId().equals("query-3"),
+                    "Games matched : " + games.size());
+            Assert.isTrue(kalahRespository.count(Example.of(probe, matcher)) == 2 && kalahRespository.exists(Example.of(probe, matcher)), "Games not counted");
+            probe.setNextPlayer(Player.PLAYER1);
+            Assert.isTrue(kalahRespository.findOne(Example.of(probe, matcher)).get().getId().equals("query-2"), "Game not found by example");
+            probe.setId("query-");
+            Assert.isTrue(!kalahRespository.exists(Example.of(probe)), "Id matched exactly on a prefix");
+
+            Page<Game> page = kalahRespository.findAll(PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id")));
+            Assert.isTrue(page.getTotalElements() == 3 && page.getContent().size() == 1 && page.getContent().get(0).getId().equals("query-1"),
+                    "Second page : " + page.getContent().size());
+        } finally {
+            gameIds.forEach(kalahRespository::deleteById);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.backbase.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests that {@link GameIdGenerator} ids are unique across threads and nodes, short and URL safe.
+ */
+public class GameIdGeneratorTest {
+
+    private static final int THREADS = 8;
+
+    private static final int IDS_PER_THREAD = 50000;
+
+    /**
+     * Two nodes generating ids from several threads each, far more than 4096 per millisecond, may never hand out
+     * the same id twice.
+     */
+    @Test
+    public void idsAreUniqueAcrossThreadsAndNodes() throws Exception {
+        GameIdGenerator node1 = generator(1);
+        GameIdGenerator node2 = generator(2);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> generated = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                GameIdGenerator generator = thread % 2 == 0 ? node1 : node2;
+                generated.add(threads.submit(() -> {
+                    for (int id = 0; id < IDS_PER_THREAD; id++) {
+                        Assert.isTrue(ids.add(generator.nextId()), "Game id handed out twice");
+                    }
+                }));
+            }
+            for (Future<?> thread : generated) {
+                thread.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+        Assert.isTrue(ids.size() == THREADS * IDS_PER_THREAD, "Game ids missing");
+    }
+
+    /**
+     * Ids are fixed length alphanumerics and increase within a node, so they sort in creation order.
+     */
+    @Test
+    public void idsAreShortAlphanumericAndIncreasing() {
+        GameIdGenerator generator = generator(GameIdGenerator.MAX_NODE_ID);
+        String previousId = generator.nextId();
+        for (int id = 0; id < 10000; id++) {
+            String nextId = generator.nextId();
+            Assert.isTrue(nextId.matches("[0-9A-Za-z]{" + GameIdGenerator.ID_LENGTH + "}"), "Invalid game id " + nextId);
+            Assert.isTrue(nextId.compareTo(previousId) > 0, "Game id " + nextId + " does not follow " + previousId);
+            previousId = nextId;
+        }
+    }
+
+    @Test
+    public void nodeIdOutOfRangeIsRejected() {
+        try {
+            generator(GameIdGenerator.MAX_NODE_ID + 1);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new IllegalStateException("Node id out of range accepted");
+    }
+
+    @Test
+    public void missingNodeIdIsRejected() {
+        try {
+            new GameIdGenerator().validateNodeId();
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new IllegalStateException("Node started without a node id");
+    }
+
+    private GameIdGenerator generator(int nodeId) {
+        GameIdGenerator generator = new GameIdGenerator();
+        generator.nodeId = nodeId;
+        generator.validateNodeId();
+        return generator;
+    }
+}
@@ -0,0 +1,193 @@
+package com.backbase.service;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Board;
+import com.backbase.model.Entity;
+import com.backbase.model.Game;
+import com.backbase.model.Kalah;
+import com.backbase.model.Pit;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Concurrency stress test. Every turn of a game is submitted by several clients at the same time, as double
+ * submitting clients do. Every accepted move has to follow on from the board of the previously accepted move, so
+ * that no move is lost or applied on a stale board, and the final board has to be the board of the last accepted move.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,properties = { "application.kalah.initialize.stones=6" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class KalahBoardConcurrencyTest {
+
+    private static final String START_GAME_ENDPOINT="/games";
+
+    private static final String GAME_ENDPOINT="/games/{{gameId}}";
+
+    private static final String MAKE_MOVE_ENDPOINT="/games/{{gameId}}/pits/{{pitId}}";
+
+    private static final int PARALLEL_CLIENTS=8;
+
+    private static final int MAX_TURNS=300;
+
+    @LocalServerPort
+    private Integer randomPort;
+
+    private String gameIdForConcurrentPlay;
+
+    private ExecutorService clients;
+
+    TestRestTemplate testRestTemplate = new TestRestTemplate();
+
+    HttpEntity<String> entity = new HttpEntity<>(null, new HttpHeaders());
+
+    @BeforeAll
+    public void initialSetUpBeforeConcurrentPlay(){
+        clients = Executors.newFixedThreadPool(PARALLEL_CLIENTS);
+        ResponseEntity<HashMap> responseEntity = testRestTemplate.exchange(createURLWithPort(START_GAME_ENDPOINT), HttpMethod.POST, entity,HashMap.class);
+        gameIdForConcurrentPlay = (String) responseEntity.getBody().get("id");
+    }
+
+    /**
+     * Plays a game where every turn is submitted by {@link #PARALLEL_CLIENTS} clients at once, half of them picking
+     * the same pit and the others any pit of the player. Responses may only be 200, 400 (move no longer valid) or
+     * 409 (concurrent move), and the accepted moves have to form a single chain of legal moves.
+     */
+    @Test
+    public void parallelMovesKeepTheBoardConsistent() throws Exception {
+        Random random = new Random(11);
+        HashMap<String,Object> initialState = fetchGame();
+        List<AcceptedMove> acceptedMoves = new ArrayList<>();
+        HashMap<String,Object> currentState = initialState;
+        for (int turn = 0; turn < MAX_TURNS && currentState.get("winnerPlayer") == null; turn++) {
+            int firstPitId = Player.valueOf((String) currentState.get("nextPlayer")) == Player.PLAYER2 ? Board.PLAYER1_KALAH + 2 : 1;
+            int doubleSubmittedPitId = firstPitId + random.nextInt(Board.PITS_PER_PLAYER);
+            CountDownLatch startTogether = new CountDownLatch(1);
+            List<Future<AcceptedMove>> responses = new ArrayList<>();
+            for (int client = 0; client < PARALLEL_CLIENTS; client++) {
+                int pitId = client % 2 == 0 ? doubleSubmittedPitId : firstPitId + random.nextInt(Board.PITS_PER_PLAYER);
+                responses.add(clients.submit(() -> {
+                    startTogether.await();
+                    return makeMove(pitId);
+                }));
+            }
+            startTogether.countDown();
+            for (Future<AcceptedMove> response : responses) {
+                if (response.get() != null) {
+                    acceptedMoves.add(response.get());
+                }
+            }
+            currentState = fetchGame();
+        }
+        Assert.notEmpty(acceptedMoves, "No move was accepted");
+
+        // Replay the accepted moves: each one must be a legal move from the board left by another one.
+        Game replayedGame = gameOf(initialState);
+        List<AcceptedMove> movesToChain = new ArrayList<>(acceptedMoves);
+        while (!movesToChain.isEmpty()) {
+            boolean chained = false;
+            for (Iterator<AcceptedMove> iterator = movesToChain.iterator(); iterator.hasNext() && !chained; ) {
+                AcceptedMove acceptedMove = iterator.next();
+                Game nextGame = replayedGame.copy();
+                try {
+                    KalahRules.applyMove(nextGame, acceptedMove.pitId);
+                } catch (RuntimeException invalidMove) {
+                    continue;
+                }
+                Game acceptedGame = gameOf(acceptedMove.state);
+                if (nextGame.getBoard().equals(acceptedGame.getBoard()) && nextGame.getNextPlayer() == acceptedGame.getNextPlayer()) {
+                    replayedGame = acceptedGame;
+                    iterator.remove();
+                    chained = true;
+                }
+            }
+            Assert.isTrue(chained, "Accepted moves do not follow on from each other, a move was lost or applied on a stale board");
+        }
+        Game finalGame = gameOf(currentState);
+        Assert.isTrue(finalGame.getBoard().equals(replayedGame.getBoard()), "Final board is not the board of the last accepted move");
+        int stones = 0;
+        for (int index = 0; index < Board.SIZE; index++) {
+            stones += finalGame.getBoard().stones(index);
+        }
+        Assert.isTrue(stones == 6 * 2 * Board.PITS_PER_PLAYER, "Stones were lost or created");
+    }
+
+    @AfterAll
+    public void cleanUpPostConcurrentPlay(){
+        clients.shutdownNow();
+        testRestTemplate.exchange(createURLWithPort(GAME_ENDPOINT.replace("{{gameId}}",gameIdForConcurrentPlay)), HttpMethod.DELETE, entity,String.class);
+    }
+
+    /**
+     * @return the accepted move, or null if it was rejected as invalid or concurrent.
+     */
+    private AcceptedMove makeMove(int pitId){
+        String makeMove=MAKE_MOVE_ENDPOINT.replace("{{gameId}}",gameIdForConcurrentPlay).replace("{{pitId}}",String.valueOf(pitId));
+        ResponseEntity<HashMap> responseEntity = testRestTemplate.exchange(createURLWithPort(makeMove), HttpMethod.PUT, entity,HashMap.class);
+        HttpStatus statusCode = responseEntity.getStatusCode();
+        Assert.isTrue(statusCode == HttpStatus.OK || statusCode == HttpStatus.BAD_REQUEST || statusCode == HttpStatus.CONFLICT, "Unexpected status code " + statusCode);
+        return statusCode == HttpStatus.OK ? new AcceptedMove(pitId, responseEntity.getBody()) : null;
+    }
+
+    private HashMap<String,Object> fetchGame(){
+        return testRestTemplate.exchange(createURLWithPort(GAME_ENDPOINT.replace("{{gameId}}",gameIdForConcurrentPlay)), HttpMethod.GET, entity,HashMap.class).getBody();
+    }
+
+    /**
+     * Rebuilds the game from a response, reading the board from its status {1=6, 2=6, ..., 14=0}.
+     */
+    private Game gameOf(HashMap<String,Object> state){
+        String[] pits = ((String) state.get("status")).replace("{","").replace("}","").split(",");
+        List<Entity> entities = new ArrayList<>();
+        for (int index = 0; index < Board.SIZE; index++) {
+            int stones = Integer.parseInt(pits[index].split("=")[1].trim());
+            if (Board.isKalah(index)) {
+                Kalah kalah = new Kalah(Board.ownerOf(index));
+                kalah.setEntityCount(stones);
+                entities.add(kalah);
+            } else {
+                entities.add(new Pit(Board.ownerOf(index), stones));
+            }
+        }
+        String nextPlayer = (String) state.get("nextPlayer");
+        return new Game(gameIdForConcurrentPlay, entities, nextPlayer == null ? null : Player.valueOf(nextPlayer), "");
+    }
+
+    private String createURLWithPort(String uri) {
+        return "http://localhost:" + randomPort + uri;
+    }
+
+    private static class AcceptedMove {
+        private final int pitId;
+        private final HashMap<String,Object> state;
+
+        private AcceptedMove(int pitId, HashMap<String,Object> state) {
+            this.pitId = pitId;
+            this.state = state;
+        }
+    }
+}
@@ -23,7 +23,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * @author nandk on 09/03/2021.
@@ -41,6 +44,8 @@ public class KalahBoardTest {
 
     private String MAKE_MOVE_ENDPOINT="/games/{{gameId}}/pits/{{pitId}}";
 
+    private static final String MAKE_MOVES_ENDPOINT="/games/{{gameId}}/pits";
+
     @LocalServerPort
     private Integer randomPort;
 
@@ -159,6 +164,46 @@ public class KalahBoardTest {
         Assert.isTrue(responseEntity.getBody().getWinnerPlayer().toString().equals(WINNER_IS_1),"Game gone wrong");
     }
 
+    /**
+     * Below method plays the same complete board game as a single batch of moves, with one more move after the game
+     * has ended. The batch has to stop at that move, with every move of the game applied and Player1 the winner.
+     */
+    @Test
+    @Order(5)
+    public void completeBoardGameInOneBatch(){
+        String batchGameId=createNewGameForIntegrationTest();
+        List<Integer> pitIds=new ArrayList<>();
+        for (int i=1;i<=schemaMap.size();i++){
+            pitIds.add(Integer.valueOf(schemaMap.get(String.valueOf(i))));
+        }
+        pitIds.add(1);
+        ResponseEntity<HashMap> responseEntity = testRestTemplate.exchange(createURLWithPort(MAKE_MOVES_ENDPOINT.replace("{{gameId}}",batchGameId)), HttpMethod.PUT, new HttpEntity<>(pitIds, headers),HashMap.class);
+        Assert.isTrue(responseEntity.getStatusCode()==HttpStatus.OK,"Invalid status code");
+        Assert.isTrue(responseEntity.getBody().get("movesApplied").equals(schemaMap.size()),"Batch did not stop at the move after the game ended");
+        Assert.notNull(responseEntity.getBody().get("rejectedMove"),"Rejected move not reported");
+        Assert.isTrue(((Map) responseEntity.getBody().get("game")).get("winnerPlayer").equals(WINNER_IS_1),"Game gone wrong");
+        testRestTemplate.exchange(createURLWithPort("/games/"+batchGameId), HttpMethod.DELETE, entity,String.class);
+    }
+
+    /**
+     * Below method plays on a board of 4 pits per player: pitIds only go up to 10, the Kalah/Houses being 5 and 10.
+     * Boards outside 4 to 10 pits per player are refused with HttpCode 400.
+     */
+    @Test
+    @Order(6)
+    public void playOnABoardOfFourPits(){
+        ResponseEntity<HashMap> responseEntity = testRestTemplate.exchange(createURLWithPort(START_GAME_ENDPOINT+"?pits=4"), HttpMethod.POST, entity,HashMap.class);
+        String smallGameId=(String) responseEntity.getBody().get("id");
+        ResponseEntity<Game> outOfBoard = testRestTemplate.exchange(createURLWithPort(MAKE_MOVE_ENDPOINT.replace("{{gameId}}",smallGameId).replace("{{pitId}}","11")), HttpMethod.PUT, entity,Game.class);
+        Assert.isTrue(outOfBoard.getStatusCode()==HttpStatus.BAD_REQUEST,"Pit outside the board accepted");
+        ResponseEntity<HashMap> moved = testRestTemplate.exchange(createURLWithPort(MAKE_MOVE_ENDPOINT.replace("{{gameId}}",smallGameId).replace("{{pitId}}","1")), HttpMethod.PUT, entity,HashMap.class);
+        Assert.isTrue(moved.getStatusCode()==HttpStatus.OK,"Invalid status code");
+        Assert.isTrue(moved.getBody().get("status").equals("{1=0, 2=7, 3=7, 4=7, 5=1, 6=7, 7=7, 8=6, 9=6, 10=0}"),"Board of 4 pits gone wrong : "+moved.getBody().get("status"));
+        testRestTemplate.exchange(createURLWithPort("/games/"+smallGameId), HttpMethod.DELETE, entity,String.class);
+        ResponseEntity<HashMap> tooSmall = testRestTemplate.exchange(createURLWithPort(START_GAME_ENDPOINT+"?pits=3"), HttpMethod.POST, entity,HashMap.class);
+        Assert.isTrue(tooSmall.getStatusCode()==HttpStatus.BAD_REQUEST,"Board of 3 pits accepted");
+    }
+
     /**
      * Remove the game created for integration tests
      */
@@ -0,0 +1,152 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of the search of {@link KalahComputerPlayer}: exact against plain minimax by the same rules, within its
+ * time budget, and stronger than a random player.
+ */
+public class KalahComputerPlayerTest {
+
+    private static final int SEARCH_DEPTH = 4;
+
+    private final Random random = new Random(11);
+
+    /**
+     * Alpha-beta with transposition table and parallel root has to score every position exactly as a plain minimax
+     * search of the same depth, extra turns and captures included. A search stopping early on a decided game has to
+     * agree on the winner.
+     */
+    @Test
+    public void searchScoresPositionsAsMinimax() {
+        for (int position = 0; position < 200; position++) {
+            Game game = randomPosition(position % 40);
+            if (game.getWinnerPlayer() != null) {
+                continue;
+            }
+            Player player = KalahRules.currentPlayer(game);
+            KalahComputerPlayer computerPlayer = computerPlayer(4);
+            try {
+                KalahComputerPlayer.Search search = computerPlayer.search(game.getBoard(), player, SEARCH_DEPTH, 60000);
+                int expected = minimax(game.getBoard(), player, SEARCH_DEPTH);
+                if (search.getDepth() < SEARCH_DEPTH) {
+                    // stopped early on a decided game, minimax has to see the same outcome
+                    Assert.isTrue(Math.abs(expected) > KalahComputerPlayer.WIN_SCORE / 2 && (expected > 0) == (search.getScore() > 0), "Search stopped at depth " + search.getDepth() + " on an undecided game");
+                    continue;
+                }
+                Assert.isTrue(search.getScore() == expected, "Score " + search.getScore() + " instead of " + expected + " on " + game.getBoard() + " for " + player);
+                Assert.isTrue(scoreOfMove(game.getBoard(), player, search.getPitId() - 1, SEARCH_DEPTH) == expected, "Move " + search.getPitId() + " does not reach the score on " + game.getBoard());
+            } finally {
+                computerPlayer.stopSearchPool();
+            }
+        }
+    }
+
+    /**
+     * Deeper iterations stop once the budget is used up, the move of the last completed one is played.
+     */
+    @Test
+    public void searchKeepsToItsTimeBudget() {
+        KalahComputerPlayer computerPlayer = computerPlayer(2);
+        try {
+            long startedAt = System.nanoTime();
+            KalahComputerPlayer.Search search = computerPlayer.search(Board.withInitialStones(6), Player.PLAYER1, KalahComputerPlayer.MAX_DEPTH, 100);
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1000000;
+            Assert.isTrue(elapsedMillis < 1000, "Search took " + elapsedMillis + " ms on a budget of 100 ms");
+            Assert.isTrue(search.getDepth() >= 1 && search.getDepth() < KalahComputerPlayer.MAX_DEPTH, "Unexpected depth " + search.getDepth());
+            Assert.isTrue(Board.ownerOf(search.getPitId() - 1) == Player.PLAYER1 && !Board.isKalah(search.getPitId() - 1), "Illegal move " + search.getPitId());
+        } finally {
+            computerPlayer.stopSearchPool();
+        }
+    }
+
+    @Test
+    public void computerBeatsRandomPlayer() {
+        KalahComputerPlayer computerPlayer = computerPlayer(2);
+        try {
+            for (int round = 0; round < 10; round++) {
+                Game game = new Game("computer" + round, Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+                while (game.getWinnerPlayer() == null) {
+                    Player player = KalahRules.currentPlayer(game);
+                    int pitId = player == Player.PLAYER2
+                            ? computerPlayer.search(game.getBoard(), player, 6, 1000).getPitId()
+                            : randomLegalPit(game.getBoard(), player) + 1;
+                    KalahRules.applyMove(game, pitId);
+                }
+                Assert.isTrue(game.getWinnerPlayer() == Player.PLAYER2, "Computer lost game " + round + " : " + game.getBoard());
+            }
+        } finally {
+            computerPlayer.stopSearchPool();
+        }
+    }
+
+    private KalahComputerPlayer computerPlayer(int threads) {
+        KalahComputerPlayer computerPlayer = new KalahComputerPlayer();
+        computerPlayer.moveMillis = 200L;
+        computerPlayer.maxDepth = KalahComputerPlayer.MAX_DEPTH;
+        computerPlayer.searchThreads = threads;
+        computerPlayer.tableBits = 16;
+        computerPlayer.kalahEndgameTables = new KalahEndgameTables();
+        computerPlayer.startSearchPool();
+        return computerPlayer;
+    }
+
+    private Game randomPosition(int moves) {
+        Game game = new Game("position", Board.withInitialStones(1 + random.nextInt(6)), Player.ANY, "http://localhost:8080/games/");
+        for (int move = 0; move < moves && game.getWinnerPlayer() == null; move++) {
+            KalahRules.applyMove(game, randomLegalPit(game.getBoard(), KalahRules.currentPlayer(game)) + 1);
+        }
+        return game;
+    }
+
+    private int randomLegalPit(Board board, Player player) {
+        List<Integer> legalPits = new ArrayList<>();
+        for (int pitIndex = 0; pitIndex < Board.SIZE; pitIndex++) {
+            if (!Board.isKalah(pitIndex) && Board.ownerOf(pitIndex) == player && board.stones(pitIndex) != 0) {
+                legalPits.add(pitIndex);
+            }
+        }
+        return legalPits.get(random.nextInt(legalPits.size()));
+    }
+
+    /**
+     * Plain minimax, from the side of the player to move.
+     */
+    private int minimax(Board board, Player player, int depth) {
+        if (depth == 0) {
+            return kalahDifference(board, player);
+        }
+        int best = Integer.MIN_VALUE;
+        for (int pitIndex = 0; pitIndex < Board.SIZE; pitIndex++) {
+            if (!Board.isKalah(pitIndex) && Board.ownerOf(pitIndex) == player && board.stones(pitIndex) != 0) {
+                best = Math.max(best, scoreOfMove(board, player, pitIndex, depth));
+            }
+        }
+        return best;
+    }
+
+    private int scoreOfMove(Board board, Player player, int pitIndex, int depth) {
+        Board child = board.copy();
+        int lastIndex = child.sow(pitIndex, player);
+        Player nextPlayer = KalahRules.captureOrExtraTurn(child, lastIndex, player);
+        Player winner = KalahRules.doWeHaveAWinner(child);
+        if (winner != null) {
+            return (winner == player ? KalahComputerPlayer.WIN_SCORE : -KalahComputerPlayer.WIN_SCORE) + kalahDifference(child, player);
+        }
+        return nextPlayer == player ? minimax(child, player, depth - 1) : -minimax(child, nextPlayer, depth - 1);
+    }
+
+    private int kalahDifference(Board board, Player player) {
+        Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+        return board.stones(Board.kalahOf(player)) - board.stones(Board.kalahOf(opponent));
+    }
+}
@@ -0,0 +1,198 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of the tables built by {@link KalahEndgameGenerator} and read by {@link KalahEndgameTables}: exact against a
+ * plain search to the end of the game, and left to the search where a table is missing.
+ */
+public class KalahEndgameTablesTest {
+
+    private static final int TABLE_STONES = 6;
+
+    private final Random random = new Random(5);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Every position of a table has its own index, the same for either player to move.
+     */
+    @Test
+    public void positionIndexIsDense() {
+        int stones = 4;
+        boolean[] seen = new boolean[(int) KalahEndgameTables.positions(stones)];
+        int[] pits = new int[2 * Board.PITS_PER_PLAYER];
+        pits[pits.length - 1] = stones;
+        int positions = 0;
+        do {
+            int index = KalahEndgameTables.positionIndex(boardOf(pits, Player.PLAYER1, 0, 0), Player.PLAYER1, stones);
+            Assert.isTrue(index >= 0 && index < seen.length, "Index " + index + " out of range");
+            Assert.isTrue(!seen[index], "Index " + index + " given twice");
+            Assert.isTrue(KalahEndgameTables.positionIndex(boardOf(pits, Player.PLAYER2, 0, 0), Player.PLAYER2, stones) == index, "Index differs for Player 2 on " + Arrays.toString(pits));
+            seen[index] = true;
+            positions++;
+        } while (nextPosition(pits));
+        Assert.isTrue(positions == seen.length, positions + " positions instead of " + seen.length);
+    }
+
+    /**
+     * Every table has to hold the outcome of a plain search to the end of the game, for either player to move and
+     * whatever the stones already in the Kalah/Houses.
+     */
+    @Test
+    public void tablesMatchSearchToTheEnd() throws IOException {
+        KalahEndgameGenerator.generate(TABLE_STONES, directory);
+        KalahEndgameTables kalahEndgameTables = tables(TABLE_STONES);
+        for (int position = 0; position < 2000; position++) {
+            Player player = random.nextBoolean() ? Player.PLAYER1 : Player.PLAYER2;
+            Board board = randomPosition(2 + random.nextInt(TABLE_STONES - 1), player);
+            int expected = searchToTheEnd(board, player);
+            int found = kalahEndgameTables.lookup(board, player);
+            Assert.isTrue(found == expected, "Table gives " + found + " instead of " + expected + " on " + board + " for " + player);
+        }
+    }
+
+    @Test
+    public void missingTableIsLeftToTheSearch() throws IOException {
+        KalahEndgameGenerator.generate(3, directory);
+        Files.write(directory.resolve(KalahEndgameTables.fileName(4)), new byte[]{1, 2, 3});
+        KalahEndgameTables kalahEndgameTables = tables(TABLE_STONES);
+        Assert.isTrue(kalahEndgameTables.lookup(randomPosition(3, Player.PLAYER1), Player.PLAYER1) != KalahEndgameTables.NO_RESULT, "Table of 3 stones not found");
+        Assert.isTrue(kalahEndgameTables.lookup(randomPosition(4, Player.PLAYER1), Player.PLAYER1) == KalahEndgameTables.NO_RESULT, "Corrupt table of 4 stones used");
+        Assert.isTrue(kalahEndgameTables.lookup(randomPosition(5, Player.PLAYER1), Player.PLAYER1) == KalahEndgameTables.NO_RESULT, "Missing table of 5 stones found");
+
+        KalahComputerPlayer computerPlayer = new KalahComputerPlayer();
+        computerPlayer.moveMillis = 1000L;
+        computerPlayer.maxDepth = KalahComputerPlayer.MAX_DEPTH;
+        computerPlayer.searchThreads = 2;
+        computerPlayer.tableBits = 16;
+        computerPlayer.kalahEndgameTables = kalahEndgameTables;
+        computerPlayer.startSearchPool();
+        try {
+            for (int position = 0; position < 50; position++) {
+                Board board = randomPosition(3 + random.nextInt(4), Player.PLAYER2);
+                int pitIndex = computerPlayer.search(board, Player.PLAYER2, KalahComputerPlayer.MAX_DEPTH, 1000).getPitId() - 1;
+                // The search stops once the outcome is proven, so it wins whenever it can but not always by the most stones.
+                boolean canWin = wins(board, Player.PLAYER2, searchToTheEnd(board, Player.PLAYER2));
+                Assert.isTrue(wins(board, Player.PLAYER2, scoreOfMove(board, Player.PLAYER2, pitIndex)) == canWin, "Move " + (pitIndex + 1) + " misses the win on " + board);
+            }
+        } finally {
+            computerPlayer.stopSearchPool();
+        }
+    }
+
+    private KalahEndgameTables tables(int maxStones) {
+        KalahEndgameTables kalahEndgameTables = new KalahEndgameTables();
+        kalahEndgameTables.directory = directory.toString();
+        kalahEndgameTables.maxStones = maxStones;
+        kalahEndgameTables.checkMaxStones();
+        return kalahEndgameTables;
+    }
+
+    /**
+     * Random position of a game in play, both players having stones in their pits, so at least 2 stones.
+     */
+    private Board randomPosition(int stones, Player player) {
+        int[] pits = new int[2 * Board.PITS_PER_PLAYER];
+        do {
+            Arrays.fill(pits, 0);
+            for (int stone = 0; stone < stones; stone++) {
+                pits[random.nextInt(pits.length)]++;
+            }
+        } while (sum(pits, 0) == 0 || sum(pits, Board.PITS_PER_PLAYER) == 0);
+        return boardOf(pits, player, random.nextInt(20), random.nextInt(20));
+    }
+
+    /**
+     * Board with the pits of the player to move first and then those of the opponent.
+     */
+    private Board boardOf(int[] pits, Player player, int moverKalah, int opponentKalah) {
+        Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+        int[] stones = new int[Board.SIZE];
+        for (int pit = 0; pit < Board.PITS_PER_PLAYER; pit++) {
+            stones[Board.kalahOf(player) - Board.PITS_PER_PLAYER + pit] = pits[pit];
+            stones[Board.kalahOf(opponent) - Board.PITS_PER_PLAYER + pit] = pits[Board.PITS_PER_PLAYER + pit];
+        }
+        stones[Board.kalahOf(player)] = moverKalah;
+        stones[Board.kalahOf(opponent)] = opponentKalah;
+        return Board.fromStones(stones);
+    }
+
+    private static int sum(int[] pits, int from) {
+        int sum = 0;
+        for (int pit = from; pit < from + Board.PITS_PER_PLAYER; pit++) {
+            sum += pits[pit];
+        }
+        return sum;
+    }
+
+    /**
+     * Next spread of the stones over the pits, false after the last one.
+     */
+    private static boolean nextPosition(int[] pits) {
+        for (int pit = pits.length - 2; pit >= 0; pit--) {
+            int rest = 0;
+            for (int later = pit + 1; later < pits.length; later++) {
+                rest += pits[later];
+            }
+            if (rest > 0) {
+                pits[pit]++;
+                Arrays.fill(pits, pit + 1, pits.length, 0);
+                pits[pits.length - 1] = rest - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plain search to the end of the game: stones the player to move ends up with from the pits over the opponent.
+     */
+    private int searchToTheEnd(Board board, Player player) {
+        int best = Integer.MIN_VALUE;
+        int kalah = Board.kalahOf(player);
+        for (int pitIndex = kalah - Board.PITS_PER_PLAYER; pitIndex < kalah; pitIndex++) {
+            if (board.stones(pitIndex) != 0) {
+                best = Math.max(best, scoreOfMove(board, player, pitIndex));
+            }
+        }
+        return best;
+    }
+
+    private int scoreOfMove(Board board, Player player, int pitIndex) {
+        Board next = board.copy();
+        int lastIndex = next.sow(pitIndex, player);
+        Player nextPlayer = KalahRules.captureOrExtraTurn(next, lastIndex, player);
+        Player winner = KalahRules.doWeHaveAWinner(next);
+        int gained = kalahDifference(next, player) - kalahDifference(board, player);
+        if (winner != null) {
+            return gained;
+        }
+        return nextPlayer == player ? gained + searchToTheEnd(next, player) : gained - searchToTheEnd(next, nextPlayer);
+    }
+
+    /**
+     * Whether the player wins once he/she ends up with the given stones from the pits, ties going to Player 2.
+     */
+    private boolean wins(Board board, Player player, int pitStonesWon) {
+        int finalDifference = kalahDifference(board, player) + pitStonesWon;
+        return player == Player.PLAYER1 ? finalDifference > 0 : finalDifference >= 0;
+    }
+
+    private int kalahDifference(Board board, Player player) {
+        Player opponent = player == Player.PLAYER1 ? Player.PLAYER2 : Player.PLAYER1;
+        return board.stones(Board.kalahOf(player)) - board.stones(Board.kalahOf(opponent));
+    }
+}
@@ -0,0 +1,60 @@
+package com.backbase.service;
+
+import com.backbase.GameOnApplication;
+import com.backbase.model.Game;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Integration test of GET /games/{gameId}/events on the servlet stack: the stream written with non-blocking servlet
+ * output starts with the current board, carries every move and ends once the game is deleted.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GameOnApplication.class,webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,properties = { "application.kalah.initialize.stones=6" })
+public class KalahGameEventsStreamTest {
+
+    @LocalServerPort
+    private Integer randomPort;
+
+    @Test
+    public void streamCarriesEveryBoardUntilTheGameIsDeleted() throws Exception {
+        TestRestTemplate restTemplate = new TestRestTemplate();
+        String games = "http://localhost:" + randomPort + "/games";
+        String gameId = restTemplate.postForEntity(games, null, Game.class).getBody().getId();
+        HttpURLConnection events = (HttpURLConnection) new URL(games + "/" + gameId + "/events").openConnection();
+        events.setReadTimeout(5000);
+        try {
+            Assert.isTrue(events.getResponseCode() == HttpStatus.OK.value(), "Stream not opened : " + events.getResponseCode());
+            Assert.isTrue(events.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE), "Not an event stream : " + events.getContentType());
+            BufferedReader frames = new BufferedReader(new InputStreamReader(events.getInputStream(), StandardCharsets.UTF_8));
+            Assert.isTrue("id: 1".equals(frames.readLine()) && frames.readLine().startsWith("data: {"), "Current board not sent first");
+            Assert.isTrue(frames.readLine().isEmpty(), "Frame not ended");
+
+            ResponseEntity<Game> moved = restTemplate.exchange(games + "/" + gameId + "/pits/1", HttpMethod.PUT, null, Game.class);
+            Assert.isTrue(moved.getStatusCode() == HttpStatus.OK, "Move not played : " + moved.getStatusCode());
+            Assert.isTrue("id: 2".equals(frames.readLine()) && frames.readLine().startsWith("data: {"), "Board of the move not sent");
+            Assert.isTrue(frames.readLine().isEmpty(), "Frame not ended");
+
+            restTemplate.delete(games + "/" + gameId);
+            Assert.isTrue(frames.readLine() == null, "Stream not ended with the game");
+        } finally {
+            events.disconnect();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of the board update fan-out of {@link KalahGameEvents}: one serialization shared by every subscriber, and
+ * slow subscribers disconnected without holding up the game or the other subscribers.
+ */
+public class KalahGameEventsTest {
+
+    private static final int SUBSCRIBER_BUFFER = 4;
+
+    private KalahGameEvents kalahGameEvents;
+
+    private Game game;
+
+    @BeforeEach
+    public void startEvents() {
+        kalahGameEvents = new KalahGameEvents();
+        kalahGameEvents.objectMapper = new ObjectMapper();
+        kalahGameEvents.eventThreads = 2;
+        kalahGameEvents.subscriberBuffer = SUBSCRIBER_BUFFER;
+        kalahGameEvents.startEventPool();
+        game = new Game("events", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+    }
+
+    @AfterEach
+    public void stopEvents() {
+        kalahGameEvents.stopEventPool();
+    }
+
+    /**
+     * Every subscriber receives the current board and then each move once, in order, as the very same bytes.
+     */
+    @Test
+    public void everySubscriberReceivesTheSameFrames() throws Exception {
+        RecordingSink first = subscribe(new RecordingSink(Integer.MAX_VALUE));
+        RecordingSink second = subscribe(new RecordingSink(Integer.MAX_VALUE));
+        for (int move = 0; move < 3; move++) {
+            playMove();
+            kalahGameEvents.publish(game);
+        }
+        kalahGameEvents.closeGame(game.getId());
+        Assert.isTrue(first.closed.await(5, TimeUnit.SECONDS) && second.closed.await(5, TimeUnit.SECONDS), "Streams did not end");
+        Assert.isTrue(first.frames.size() == 4 && second.frames.size() == 4, "Expected the current board and 3 moves");
+        for (int frame = 0; frame < 4; frame++) {
+            Assert.isTrue(new String(first.frames.get(frame), StandardCharsets.UTF_8).startsWith("id: " + frame + "\ndata: {"), "Frames out of order");
+            if (frame > 0) {
+                Assert.isTrue(first.frames.get(frame) == second.frames.get(frame), "Board update serialized more than once");
+            }
+        }
+        Assert.isTrue(kalahGameEvents.getActiveSubscribers() == 0, "Subscribers not removed");
+    }
+
+    /**
+     * Subscribers that do not read their frames fall behind and are disconnected, while publishing never waits for
+     * them and the subscriber keeping up still receives every board, even with more slow subscribers than threads.
+     */
+    @Test
+    public void slowSubscribersAreDisconnected() throws Exception {
+        List<RecordingSink> slowSubscribers = new ArrayList<>();
+        for (int subscriber = 0; subscriber <= kalahGameEvents.eventThreads; subscriber++) {
+            slowSubscribers.add(subscribe(new RecordingSink(SUBSCRIBER_BUFFER)));
+        }
+        RecordingSink fast = subscribe(new RecordingSink(Integer.MAX_VALUE));
+        long publishNanos = 0;
+        for (int move = 1; move <= SUBSCRIBER_BUFFER * 3; move++) {
+            playMove();
+            long startedAt = System.nanoTime();
+            kalahGameEvents.publish(game);
+            publishNanos += System.nanoTime() - startedAt;
+            // Moves come in no faster than the subscriber keeping up reads them.
+            for (long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5); fast.frames.size() <= move && System.nanoTime() < waitUntil; ) {
+                Thread.sleep(1);
+            }
+        }
+        Assert.isTrue(TimeUnit.NANOSECONDS.toSeconds(publishNanos) < 1, "Publishing waited for the slow subscribers");
+        for (RecordingSink slow : slowSubscribers) {
+            Assert.isTrue(slow.closed.await(5, TimeUnit.SECONDS), "Slow subscriber not disconnected");
+        }
+        Assert.isTrue(kalahGameEvents.getLaggingSubscribers() == slowSubscribers.size(), "Slow subscribers not counted as lagging");
+        kalahGameEvents.closeGame(game.getId());
+        Assert.isTrue(fast.closed.await(5, TimeUnit.SECONDS), "Stream did not end");
+        Assert.isTrue(fast.frames.size() == 1 + SUBSCRIBER_BUFFER * 3, "Subscriber keeping up missed board updates");
+    }
+
+    private RecordingSink subscribe(RecordingSink sink) {
+        kalahGameEvents.sendCurrent(kalahGameEvents.subscribe(game.getId(), sink), game);
+        return sink;
+    }
+
+    private void playMove() {
+        game.setVersion(game.getVersion() + 1);
+    }
+
+    /**
+     * Connection whose client has read none of the frames, holding at most capacity of them like the sinks of the
+     * controllers.
+     */
+    private static class RecordingSink implements KalahGameEvents.FrameSink {
+        private final List<byte[]> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final int capacity;
+
+        private RecordingSink(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public boolean send(byte[] frame) {
+            if (frames.size() >= capacity) {
+                return false;
+            }
+            frames.add(frame);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
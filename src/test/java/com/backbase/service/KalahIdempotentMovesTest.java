@@ -0,0 +1,117 @@
+package com.backbase.service;
+
+import com.backbase.exception.KalahValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahIdempotentMoves} without the application: a retried move is played once, a key reused for
+ * other pits is rejected and keys are bounded in number and time.
+ */
+public class KalahIdempotentMovesTest {
+
+    @Test
+    public void retryGetsTheFirstResponse() throws Exception {
+        KalahIdempotentMoves idempotentMoves = idempotentMoves(10, 60000);
+        AtomicInteger played = new AtomicInteger();
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = idempotentMoves.submit("key", "game", Collections.singletonList(3), () -> {
+            played.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> retry = idempotentMoves.submit("key", "game", Collections.singletonList(3), () -> {
+            played.incrementAndGet();
+            return CompletableFuture.completedFuture("played again");
+        });
+        Assert.isTrue(!retry.isDone(), "Retry answered before the first move was played");
+        pending.complete("played");
+        Assert.isTrue("played".equals(first.get()) && "played".equals(retry.get()), "Retry got " + retry.get());
+        Assert.isTrue(played.get() == 1, "Move played " + played.get() + " times");
+        Assert.isTrue(idempotentMoves.getHits() == 1 && idempotentMoves.getMisses() == 1, "Hits and misses not counted");
+
+        CompletableFuture<String> otherGame = idempotentMoves.submit("key", "other", Collections.singletonList(3),
+                () -> CompletableFuture.completedFuture("other game"));
+        Assert.isTrue("other game".equals(otherGame.get()), "Key shared across games");
+    }
+
+    @Test
+    public void keyReusedForOtherPitsIsRejected() {
+        KalahIdempotentMoves idempotentMoves = idempotentMoves(10, 60000);
+        idempotentMoves.submit("key", "game", Arrays.asList(3, 1), () -> CompletableFuture.completedFuture("played"));
+        try {
+            idempotentMoves.submit("key", "game", Arrays.asList(3, 2), () -> CompletableFuture.completedFuture("played"));
+            Assert.isTrue(false, "Key reused for other pits");
+        } catch (KalahValidationException e) {
+            Assert.isTrue(e.getReason() == KalahValidationException.Reason.IDEMPOTENCY_KEY_REUSED, "Rejected for " + e.getReason());
+        }
+    }
+
+    @Test
+    public void validationFailureIsRememberedOtherFailuresAreNot() throws InterruptedException {
+        KalahIdempotentMoves idempotentMoves = idempotentMoves(10, 60000);
+        AtomicInteger played = new AtomicInteger();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            CompletableFuture<String> invalid = idempotentMoves.submit("invalid", "game", Collections.singletonList(7), () -> {
+                played.incrementAndGet();
+                throw new KalahValidationException(KalahValidationException.Reason.INVALID_PIT, "Invalid pit");
+            });
+            Throwable failure = cause(invalid);
+            Assert.isTrue(failure instanceof KalahValidationException && ((KalahValidationException) failure).getReason() == KalahValidationException.Reason.INVALID_PIT,
+                    "Validation failure not returned");
+            // Only the first request counts the failure, see KalahExceptionAdvice.
+            Assert.isTrue(((KalahValidationException) failure).isReplayed() == (attempt > 0), "Failure of attempt " + attempt + " replayed wrongly");
+        }
+        Assert.isTrue(played.get() == 1, "Invalid move played " + played.get() + " times");
+
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("Concurrent move"));
+        Assert.isTrue(cause(idempotentMoves.submit("failed", "game", Collections.singletonList(1), () -> failed)) instanceof IllegalStateException,
+                "Failure not returned");
+        CompletableFuture<String> retry = idempotentMoves.submit("failed", "game", Collections.singletonList(1),
+                () -> CompletableFuture.completedFuture("played"));
+        Assert.isTrue("played".equals(retry.getNow(null)), "Failed move not played again on retry");
+    }
+
+    @Test
+    public void keysAreBoundedAndExpire() throws Exception {
+        KalahIdempotentMoves idempotentMoves = idempotentMoves(100, 60000);
+        for (int key = 0; key < 250; key++) {
+            idempotentMoves.submit("key-" + key, "game", Collections.singletonList(1), () -> CompletableFuture.completedFuture("played"));
+        }
+        Assert.isTrue(idempotentMoves.getKeys() == 100, idempotentMoves.getKeys() + " keys remembered");
+        Assert.isTrue(idempotentMoves.getEvictions() == 150, idempotentMoves.getEvictions() + " keys evicted");
+        CompletableFuture<String> evicted = idempotentMoves.submit("key-0", "game", Collections.singletonList(1),
+                () -> CompletableFuture.completedFuture("played again"));
+        Assert.isTrue("played again".equals(evicted.get()), "Evicted key still answered");
+
+        KalahIdempotentMoves expiring = idempotentMoves(100, 0);
+        expiring.submit("key", "game", Collections.singletonList(1), () -> CompletableFuture.completedFuture("played"));
+        CompletableFuture<String> expired = expiring.submit("key", "game", Collections.singletonList(1),
+                () -> CompletableFuture.completedFuture("played again"));
+        Assert.isTrue("played again".equals(expired.get()), "Expired key still answered");
+        Assert.isTrue(expiring.getKeys() == 1 && expiring.getEvictions() == 0, "Expired key not dropped");
+    }
+
+    private static KalahIdempotentMoves idempotentMoves(int maxKeys, long ttlMillis) {
+        KalahIdempotentMoves idempotentMoves = new KalahIdempotentMoves();
+        idempotentMoves.maxKeys = maxKeys;
+        idempotentMoves.ttlMillis = ttlMillis;
+        return idempotentMoves;
+    }
+
+    private static Throwable cause(CompletableFuture<?> response) throws InterruptedException {
+        try {
+            response.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+}
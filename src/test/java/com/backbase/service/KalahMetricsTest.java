@@ -0,0 +1,62 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.MoveBatchResponse;
+import com.backbase.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests that moves and their phases are timed and that games and rejected moves are counted in {@link KalahMetrics}.
+ */
+public class KalahMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final KalahMetrics kalahMetrics = new KalahMetrics(meterRegistry);
+
+    @Test
+    public void movePhasesAreTimed() {
+        Game game = new Game("metrics", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        KalahRules.applyMove(game, 1, kalahMetrics, kalahMetrics.start());
+        KalahRules.applyMove(game, 2, kalahMetrics, kalahMetrics.start());
+        for (String phase : new String[]{"validation", "sowing", "winner"}) {
+            long count = meterRegistry.get("kalah.move.phase").tag("phase", phase).timer().count();
+            Assert.isTrue(count == 2, "Phase " + phase + " timed " + count + " times");
+        }
+        // Untimed moves, as played by the computer, leave the timers alone.
+        KalahRules.applyMove(game, 8);
+        Assert.isTrue(meterRegistry.get("kalah.move.phase").tag("phase", "sowing").timer().count() == 2, "Untimed move was timed");
+    }
+
+    /**
+     * An invalid move is sent in a batch, after a valid one, so that {@link KalahBoard#playMoves} rejects it.
+     */
+    @Test
+    public void rejectedMoveIsCountedAndNotSown() {
+        KalahBoard kalahBoard = new KalahBoard();
+        kalahBoard.kalahMetrics = kalahMetrics;
+        Game game = new Game("metrics", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        // Pit 1 ends in the Kalah/House, the extra turn may not start from the Kalah/House.
+        MoveBatchResponse movesPlayed = kalahBoard.playMoves(game, Arrays.asList(1, 7));
+        Assert.isTrue(movesPlayed.getMovesApplied() == 1 && movesPlayed.getRejectedMove() != null, movesPlayed.getMovesApplied() + " moves of the batch applied");
+        Assert.isTrue(meterRegistry.get("kalah.move.phase").tag("phase", "validation").timer().count() == 1, "Rejected move timed as validated");
+        Assert.isTrue(meterRegistry.get("kalah.move.phase").tag("phase", "sowing").timer().count() == 1, "Rejected move was sown");
+        Assert.isTrue(meterRegistry.get("kalah.validation.failures").tag("reason", "KALAH_PIT").counter().count() == 1, "Rejected move not counted");
+    }
+
+    @Test
+    public void gamesAreCounted() {
+        kalahMetrics.gameCreated();
+        kalahMetrics.gameCreated();
+        kalahMetrics.gameFinished(Player.PLAYER2);
+        Assert.isTrue(meterRegistry.get("kalah.games.created").counter().count() == 2, "Games created not counted");
+        Assert.isTrue(meterRegistry.get("kalah.games.finished").tag("winner", "PLAYER2").counter().count() == 1, "Game won not counted");
+        Assert.isTrue(meterRegistry.get("kalah.games.finished").tag("winner", "PLAYER1").counter().count() == 0, "Game won by the wrong player");
+    }
+}
@@ -0,0 +1,134 @@
+package com.backbase.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahMoveMailboxes}: moves of a game run one at a time in the order submitted, mailboxes of
+ * different games run in parallel, and moves that can no longer run once the pool is shut down fail instead of
+ * waiting forever.
+ */
+public class KalahMoveMailboxesTest {
+
+    private static final int THREADS = 4;
+
+    private final KalahMoveMailboxes kalahMoveMailboxes = mailboxes();
+
+    @AfterEach
+    public void stopMailboxes() {
+        kalahMoveMailboxes.stopMovePool();
+    }
+
+    @Test
+    public void movesOfAGameRunOneAtATimeInOrder() throws Exception {
+        List<Integer> played = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int move = 0; move < 500; move++) {
+            int sequence = move;
+            results.add(kalahMoveMailboxes.submit("game", () -> {
+                Assert.isTrue(running.incrementAndGet() == 1, "Moves of a game ran at the same time");
+                played.add(sequence);
+                running.decrementAndGet();
+                return sequence;
+            }));
+        }
+        for (int move = 0; move < results.size(); move++) {
+            Assert.isTrue(results.get(move).get(5, TimeUnit.SECONDS) == move, "Result of move " + move + " mixed up");
+        }
+        for (int move = 0; move < played.size(); move++) {
+            Assert.isTrue(played.get(move) == move, "Move " + played.get(move) + " ran as move " + move);
+        }
+        Assert.isTrue(played.size() == 500 && kalahMoveMailboxes.getQueuedMoves() == 0, "Moves lost : " + played.size());
+    }
+
+    @Test
+    public void mailboxesOfDifferentGamesRunInParallel() throws Exception {
+        CountDownLatch allRunning = new CountDownLatch(THREADS);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int game = 0; game < THREADS; game++) {
+            results.add(kalahMoveMailboxes.submit("game" + game, () -> {
+                allRunning.countDown();
+                try {
+                    return allRunning.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            Assert.isTrue(result.get(10, TimeUnit.SECONDS), "Games did not run in parallel");
+        }
+    }
+
+    @Test
+    public void movesAfterShutdownFail() throws Exception {
+        kalahMoveMailboxes.stopMovePool();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertRejected(kalahMoveMailboxes.submit("game", () -> true));
+        }
+        Assert.isTrue(kalahMoveMailboxes.getActiveMailboxes() == 0 && kalahMoveMailboxes.getQueuedMoves() == 0, "Rejected mailbox kept");
+    }
+
+    /**
+     * A busy mailbox hands its thread on after a turn of moves; once the pool is shut down the moves it still holds fail.
+     */
+    @Test
+    public void movesQueuedAtShutdownFailOnceTheTurnEnds() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        results.add(kalahMoveMailboxes.submit("game", () -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        for (int move = 0; move < 40; move++) {
+            results.add(kalahMoveMailboxes.submit("game", () -> true));
+        }
+        kalahMoveMailboxes.stopMovePool();
+        release.countDown();
+        int played = 0;
+        for (CompletableFuture<Boolean> result : results) {
+            try {
+                Assert.isTrue(result.get(5, TimeUnit.SECONDS), "Move failed");
+                played++;
+            } catch (ExecutionException e) {
+                Assert.isTrue(e.getCause() instanceof RejectedExecutionException, "Move failed : " + e.getCause());
+            }
+        }
+        Assert.isTrue(played > 0 && played < results.size(), "Moves of a turn not played, or rescheduled after shutdown : " + played);
+        Assert.isTrue(kalahMoveMailboxes.getActiveMailboxes() == 0 && kalahMoveMailboxes.getQueuedMoves() == 0, "Rejected mailbox kept");
+    }
+
+    private static void assertRejected(CompletableFuture<Boolean> result) throws Exception {
+        try {
+            result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Assert.isTrue(e.getCause() instanceof RejectedExecutionException, "Move failed : " + e.getCause());
+            return;
+        }
+        throw new IllegalStateException("Move run after shutdown");
+    }
+
+    private static KalahMoveMailboxes mailboxes() {
+        KalahMoveMailboxes kalahMoveMailboxes = new KalahMoveMailboxes();
+        kalahMoveMailboxes.mailboxThreads = THREADS;
+        kalahMoveMailboxes.startMovePool();
+        return kalahMoveMailboxes;
+    }
+}
@@ -0,0 +1,110 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.BoardGeometry;
+import com.backbase.model.Game;
+import com.backbase.model.MoveOutcome;
+import com.backbase.model.MovePreview;
+import com.backbase.model.Player;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahRules#previewMoves(Game)}: the preview of every pit matches the move played by
+ * {@link KalahRules#applyMove(Game, int)}, captures included or not alike, and previewing leaves the game as it was.
+ */
+public class KalahMovePreviewTest {
+
+    private static final String URL = "http://localhost:8080/games/";
+
+    @Test
+    public void previewMatchesPlayedMoves() {
+        Random random = new Random(24);
+        for (int position = 0; position < 2000; position++) {
+            BoardGeometry geometry = BoardGeometry.of(BoardGeometry.MIN_PITS_PER_PLAYER
+                    + random.nextInt(BoardGeometry.MAX_PITS_PER_PLAYER - BoardGeometry.MIN_PITS_PER_PLAYER + 1));
+            int[] stones = new int[geometry.size()];
+            for (int index = 0; index < stones.length; index++) {
+                stones[index] = random.nextInt(4) == 0 ? 0 : random.nextInt(geometry.isKalah(index) ? 20 : 15);
+            }
+            Board board = Board.fromStones(stones);
+            if (!board.hasStonesInPits()) {
+                continue;
+            }
+            Player currentPlayer = random.nextBoolean() ? Player.PLAYER1 : Player.PLAYER2;
+            Game game = new Game("game-" + position, board, currentPlayer, URL);
+
+            MovePreview preview = KalahRules.previewMoves(game);
+            Assert.isTrue(Arrays.equals(stones, game.getBoard().toStones()), "Preview changed the board of " + game.getId());
+            Assert.isTrue(preview.getCurrentPlayer() == currentPlayer, "Preview for " + preview.getCurrentPlayer());
+            Assert.isTrue(preview.getMoves().size() == geometry.pitsPerPlayer(), preview.getMoves().size() + " moves previewed");
+            for (int pit = 0; pit < geometry.pitsPerPlayer(); pit++) {
+                MoveOutcome outcome = preview.getMoves().get(pit);
+                int pitId = geometry.firstPitOf(currentPlayer) + pit + 1;
+                Assert.isTrue(outcome.getPitId() == pitId, "Pit " + outcome.getPitId() + " previewed as move " + pit);
+                Assert.isTrue(outcome.isLegal() == (stones[pitId - 1] != 0), "Legality of pit " + pitId + " of " + Arrays.toString(stones));
+                if (!outcome.isLegal()) {
+                    Assert.isTrue(outcome.getBoard() == null && outcome.getRejectedMove() != null, "Board of an illegal move");
+                    continue;
+                }
+                Game played = new Game("played", Board.fromStones(stones), currentPlayer, URL);
+                int lastIndex = KalahRules.applyMove(played, pitId);
+                Assert.isTrue(Arrays.equals(outcome.getBoard(), played.getBoard().toStones()),
+                        "Board after pit " + pitId + " of " + Arrays.toString(stones) + " : " + Arrays.toString(outcome.getBoard()));
+                Assert.isTrue(outcome.getWinnerPlayer() == played.getWinnerPlayer() && outcome.isEndsGame() == (played.getWinnerPlayer() != null),
+                        "Winner after pit " + pitId + " of " + Arrays.toString(stones));
+                Assert.isTrue(outcome.isExtraTurn() == (played.getNextPlayer() == currentPlayer), "Extra turn after pit " + pitId);
+                // A capture is a last stone alone in an own pit, also after a lap around the board.
+                Board sown = Board.fromStones(stones);
+                sown.sow(pitId - 1, currentPlayer);
+                boolean captured = !geometry.isKalah(lastIndex) && geometry.ownerOf(lastIndex) == currentPlayer && sown.stones(lastIndex) == 1;
+                Assert.isTrue(outcome.isCapture() == captured, "Capture " + outcome.isCapture() + " after pit " + pitId + " of " + Arrays.toString(stones));
+            }
+        }
+    }
+
+    @Test
+    public void noMovesOnceTheGameHasEnded() {
+        Game game = new Game("game", Board.fromStones(new int[]{0, 0, 0, 0, 0, 0, 30, 1, 0, 0, 0, 0, 0, 41}), Player.PLAYER2, URL);
+        game.setWinnerPlayer(Player.PLAYER2);
+        MovePreview preview = KalahRules.previewMoves(game);
+        Assert.isTrue(preview.getCurrentPlayer() == null && preview.getMoves().isEmpty(), "Moves previewed on an ended game");
+    }
+
+    @Test
+    public void previewFlagsCaptureAndExtraTurn() {
+        // Pit 1 ends in the empty pit 2 facing 5 stones, pit 6 ends in the Kalah/House.
+        Game game = new Game("game", Board.fromStones(new int[]{1, 0, 0, 0, 0, 1, 0, 2, 2, 2, 2, 5, 2, 0}), Player.PLAYER1, URL);
+        MovePreview preview = KalahRules.previewMoves(game);
+        MoveOutcome capture = preview.getMoves().get(0);
+        Assert.isTrue(capture.isCapture() && !capture.isExtraTurn(), "Capture from pit 1 not previewed");
+        Assert.isTrue(capture.getBoard()[6] == 6 && capture.getBoard()[11] == 0, "Board after capture " + Arrays.toString(capture.getBoard()));
+        MoveOutcome extraTurn = preview.getMoves().get(5);
+        Assert.isTrue(extraTurn.isExtraTurn() && !extraTurn.isCapture() && !extraTurn.isEndsGame(), "Extra turn from pit 6 not previewed");
+        Assert.isTrue(!preview.getMoves().get(1).isLegal(), "Move from an empty pit previewed as legal");
+
+        // Pit 8 ends in the empty pit 9 facing 5 stones, pit 13 ends in the Kalah/House.
+        game = new Game("game", Board.fromStones(new int[]{2, 2, 2, 2, 5, 2, 0, 1, 0, 0, 0, 0, 1, 0}), Player.PLAYER2, URL);
+        preview = KalahRules.previewMoves(game);
+        capture = preview.getMoves().get(0);
+        Assert.isTrue(capture.isCapture() && !capture.isExtraTurn(), "Capture from pit 8 not previewed");
+        Assert.isTrue(capture.getBoard()[13] == 6 && capture.getBoard()[4] == 0, "Board after capture " + Arrays.toString(capture.getBoard()));
+        extraTurn = preview.getMoves().get(5);
+        Assert.isTrue(extraTurn.isExtraTurn() && !extraTurn.isCapture(), "Extra turn from pit 13 not previewed");
+    }
+
+    @Test
+    public void previewFlagsCaptureAfterALap() {
+        // The 13 stones of pit 1 go once around the board and end in pit 1, emptied by the move, facing pit 13.
+        Game game = new Game("game", Board.fromStones(new int[]{13, 1, 1, 1, 1, 1, 0, 1, 1, 1, 1, 1, 1, 0}), Player.PLAYER1, URL);
+        MoveOutcome lap = KalahRules.previewMoves(game).getMoves().get(0);
+        Assert.isTrue(lap.isCapture() && !lap.isExtraTurn(), "Capture after a lap not previewed");
+        Assert.isTrue(lap.getBoard()[0] == 0 && lap.getBoard()[12] == 0 && lap.getBoard()[6] == 4, "Board after capture " + Arrays.toString(lap.getBoard()));
+        MoveOutcome noCapture = KalahRules.previewMoves(game).getMoves().get(1);
+        Assert.isTrue(!noCapture.isCapture() && !noCapture.isExtraTurn(), "Capture previewed from pit 2");
+    }
+}
@@ -0,0 +1,91 @@
+package com.backbase.service;
+
+import com.backbase.model.Board;
+import com.backbase.model.Game;
+import com.backbase.model.Player;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.Assert;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author nandk on 18/10/2026.
+ * Tests of {@link KalahSimulation}: every game written replays to the same winner and scores through the moves of a
+ * Game, and random and greedy games do not depend on the number of threads.
+ */
+public class KalahSimulationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void gamesReplayToTheSameResult() throws Exception {
+        Path output = directory.resolve("games.ndjson");
+        long played = new KalahSimulation(500, KalahSimulation.Strategy.RANDOM, KalahSimulation.Strategy.GREEDY, 6, 3, 4, 17, false).run(output);
+        Assert.isTrue(played == 500, played + " games played instead of 500");
+        List<String> lines = Files.readAllLines(output);
+        Assert.isTrue(lines.size() == 500, lines.size() + " games written instead of 500");
+        boolean[] seen = new boolean[500];
+        int greedyWins = 0;
+        for (String line : lines) {
+            JsonNode written = objectMapper.readTree(line);
+            int gameNumber = written.get("game").asInt();
+            Assert.isTrue(!seen[gameNumber], "Game " + gameNumber + " written twice");
+            seen[gameNumber] = true;
+            Game game = replay(written.get("moves"));
+            Assert.isTrue(game.getWinnerPlayer() == Player.valueOf(written.get("winner").asText()), "Winner differs for " + line);
+            Assert.isTrue(game.getBoard().stones(Board.PLAYER1_KALAH) == written.get("player1Score").asInt()
+                    && game.getBoard().stones(Board.PLAYER2_KALAH) == written.get("player2Score").asInt(), "Scores differ for " + line);
+            if (game.getWinnerPlayer() == Player.PLAYER2) {
+                greedyWins++;
+            }
+        }
+        Assert.isTrue(greedyWins > 350, "Greedy player won only " + greedyWins + " of 500 games against random");
+    }
+
+    @Test
+    public void gamesDoNotDependOnThreads() throws Exception {
+        Path oneThread = directory.resolve("one.csv");
+        Path fourThreads = directory.resolve("four.csv");
+        new KalahSimulation(1000, KalahSimulation.Strategy.GREEDY, KalahSimulation.Strategy.RANDOM, 4, 1, 4, 3, true).run(oneThread);
+        new KalahSimulation(1000, KalahSimulation.Strategy.GREEDY, KalahSimulation.Strategy.RANDOM, 4, 4, 4, 3, true).run(fourThreads);
+        List<String> oneThreadGames = sortedGames(oneThread);
+        Assert.isTrue(oneThreadGames.size() == 1000, oneThreadGames.size() + " games written instead of 1000");
+        Assert.isTrue(oneThreadGames.equals(sortedGames(fourThreads)), "Games differ with the number of threads");
+    }
+
+    @Test
+    public void searchBeatsRandom() throws Exception {
+        Path output = directory.resolve("search.ndjson");
+        new KalahSimulation(10, KalahSimulation.Strategy.SEARCH, KalahSimulation.Strategy.RANDOM, 6, 2, 4, 5, false).run(output);
+        for (String line : Files.readAllLines(output)) {
+            Assert.isTrue("PLAYER1".equals(objectMapper.readTree(line).get("winner").asText()), "Search lost " + line);
+        }
+    }
+
+    private Game replay(JsonNode moves) {
+        Game game = new Game("replay", Board.withInitialStones(6), Player.ANY, "http://localhost:8080/games/");
+        for (JsonNode pitId : moves) {
+            Assert.isTrue(game.getWinnerPlayer() == null, "Move after the end of the game");
+            KalahRules.applyMove(game, pitId.asInt());
+        }
+        Assert.isTrue(game.getWinnerPlayer() != null, "Game did not end");
+        return game;
+    }
+
+    private List<String> sortedGames(Path csv) throws Exception {
+        List<String> lines = new ArrayList<>(Files.readAllLines(csv));
+        Assert.isTrue(lines.remove(0).startsWith("game,"), "CSV header missing");
+        Collections.sort(lines);
+        return lines;
+    }
+}